@@ -0,0 +1,145 @@
+package com.htm.ome.core;
+
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.model.Order;
+import com.htm.ome.model.TradeModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded cost of the engine's hot paths on a pre-built book of {@code depth} levels per side,
+ * {@code spread} ticks apart, with {@code ordersPerLevel} orders each.
+ * Run with {@code -prof gc} to see the allocation rate per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchEngineBenchmark {
+
+    private static final String ASSET = "BTC";
+    private static final long MID = 1_000_000;
+    private static final long LOTS = 100;
+
+    @Param({"10", "1000"})
+    int depth;
+
+    @Param({"1", "50"})
+    int spread;
+
+    @Param({"4"})
+    int ordersPerLevel;
+
+    @Param({"SKIP_LIST", "LADDER"})
+    String book;
+
+    private MatchEngine engine;
+    private SplittableRandom random;
+    private long nextId;
+    private long bestAsk;
+    private Order nonCrossing;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        random = new SplittableRandom(42);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpBook() {
+        Set<String> ladderAssets = "LADDER".equals(book) ? Set.of(ASSET) : Set.of();
+        int ladderSize = Math.max(1024, 4 * depth * spread);
+        engine = new MatchEngine(new OrderBookFactory(ladderAssets, ladderSize));
+        bestAsk = MID + spread;
+        for (int level = 0; level < depth; level++) {
+            for (int i = 0; i < ordersPerLevel; i++) {
+                engine.addOrderToBook(order(OrderDirection.SELL, bestAsk + (long) level * spread, LOTS));
+                engine.addOrderToBook(order(OrderDirection.BUY, MID - spread - (long) level * spread, LOTS));
+            }
+        }
+        nonCrossing = order(OrderDirection.BUY, MID, LOTS);
+    }
+
+    private Order order(OrderDirection direction, long priceTicks, long lots) {
+        return Order.builder()
+                .id(nextId++)
+                .asset(ASSET)
+                .priceTicks(priceTicks)
+                .amountLots(lots)
+                .pendingLots(lots)
+                .direction(direction)
+                .status(OrderStatus.OPEN)
+                .build();
+    }
+
+    /**
+     * An order that stops at the touch without trading: the price check only.
+     */
+    @Benchmark
+    public List<TradeModel> matchResting() {
+        return engine.match(nonCrossing);
+    }
+
+    /**
+     * One lot taken from the best ask, which is topped up again so the book stays the same shape.
+     */
+    @Benchmark
+    public void matchSingleFill(Blackhole bh) {
+        bh.consume(engine.match(order(OrderDirection.BUY, bestAsk, 1)));
+        engine.addOrderToBook(order(OrderDirection.SELL, bestAsk, 1));
+    }
+
+    /**
+     * The same fill read from the reusable fill buffer, without building {@link TradeModel}s;
+     * compare {@code gc.alloc.rate.norm} with {@link #matchSingleFill}.
+     */
+    @Benchmark
+    public int matchSingleFillBuffered() {
+        int fills = engine.matchFills(order(OrderDirection.BUY, bestAsk, 1)).size();
+        engine.addOrderToBook(order(OrderDirection.SELL, bestAsk, 1));
+        return fills;
+    }
+
+    /**
+     * Adds a resting order at a random level of the deep bid side and cancels it again.
+     */
+    @Benchmark
+    public Order addOrderToBookDeep() {
+        Order bid = order(OrderDirection.BUY, MID - spread - (long) random.nextInt(depth) * spread, LOTS);
+        engine.addOrderToBook(bid);
+        return engine.cancel(bid);
+    }
+
+    /**
+     * Sweeps every ask level in one order. The book is rebuilt before each call, so this is only
+     * meaningful for the deeper books where the sweep dwarfs the invocation-level setup overhead.
+     */
+    @State(Scope.Thread)
+    public static class SweepState {
+        MatchEngineBenchmark fixture = new MatchEngineBenchmark();
+        Order sweep;
+
+        @Setup(Level.Invocation)
+        public void setUp(MatchEngineBenchmark params) {
+            fixture.depth = params.depth;
+            fixture.spread = params.spread;
+            fixture.ordersPerLevel = params.ordersPerLevel;
+            fixture.book = params.book;
+            fixture.setUpBook();
+            sweep = fixture.order(OrderDirection.BUY, fixture.bestAsk + (long) fixture.depth * fixture.spread,
+                    (long) fixture.depth * fixture.ordersPerLevel * LOTS);
+        }
+    }
+
+    @Benchmark
+    public List<TradeModel> matchDeepSweep(SweepState state) {
+        return state.fixture.engine.match(state.sweep);
+    }
+}
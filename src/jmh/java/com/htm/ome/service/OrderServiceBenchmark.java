@@ -0,0 +1,115 @@
+package com.htm.ome.service;
+
+import com.htm.ome.core.AssetExecutor;
+import com.htm.ome.core.LockingAssetExecutor;
+import com.htm.ome.core.MatchEngine;
+import com.htm.ome.core.OrderBookFactory;
+import com.htm.ome.core.SequencedAssetExecutor;
+import com.htm.ome.core.ShardMapping;
+import com.htm.ome.core.ShardedAssetExecutor;
+import com.htm.ome.dto.OrderRequest;
+import com.htm.ome.dto.OrderResponse;
+import com.htm.ome.enums.MatchEngineMode;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.feed.MarketFeed;
+import com.htm.ome.journal.OrderJournal;
+import com.htm.ome.metrics.EngineMetrics;
+import com.htm.ome.store.InMemoryStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link OrderService} calls from several client threads: id allocation, asset handoff,
+ * matching, trade storage and response mapping, without HTTP. Prices are drawn uniformly from
+ * {@code spread} ticks around a fixed mid, so roughly half of the orders trade.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    private static final String[] ASSETS = {"BTC", "ETH", "AAPL", "GOOG", "TST", "USDT", "SOL", "ADA"};
+    private static final double MID = 100.00;
+    private static final int PRELOADED_ORDERS = 10_000;
+
+    @Param({"1", "4"})
+    int assetCount;
+
+    @Param({"10", "200"})
+    int spread;
+
+    @Param({"LOCKING", "SEQUENCER", "SHARDED"})
+    MatchEngineMode mode;
+
+    private OrderService orderService;
+    private AssetExecutor assetExecutor;
+    private long firstPreloadedId;
+
+    /**
+     * Fresh engine and store per iteration: the store keeps every order, so it would otherwise grow
+     * across the whole run.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        InMemoryStore store = new InMemoryStore();
+        MatchEngine engine = new MatchEngine(new OrderBookFactory(Set.of(), 0));
+        assetExecutor = switch (mode) {
+            case SEQUENCER -> new SequencedAssetExecutor(1024);
+            case SHARDED -> new ShardedAssetExecutor(
+                    new ShardMapping(2, List.of(ASSETS).subList(0, assetCount), Map.of()), 1024);
+            case LOCKING -> new LockingAssetExecutor(Executors.newFixedThreadPool(Math.max(2, assetCount)));
+        };
+        orderService = new OrderService(store, engine, assetExecutor, OrderJournal.disabled(),
+                new MarketFeed(engine, 1024), EngineMetrics.disabled());
+
+        SplittableRandom random = new SplittableRandom(7);
+        firstPreloadedId = orderService.createOrder(request(random, this)).getId();
+        for (int i = 1; i < PRELOADED_ORDERS; i++) {
+            orderService.createOrder(request(random, this));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        assetExecutor.drain();
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            random = new SplittableRandom(Thread.currentThread().threadId());
+        }
+    }
+
+    private static OrderRequest request(SplittableRandom random, OrderServiceBenchmark params) {
+        OrderRequest request = new OrderRequest();
+        request.setAsset(ASSETS[random.nextInt(params.assetCount)]);
+        request.setPrice(MID + (random.nextInt(params.spread) - params.spread / 2) / 100.0);
+        request.setAmount(1.00);
+        request.setDirection(random.nextBoolean() ? OrderDirection.BUY : OrderDirection.SELL);
+        return request;
+    }
+
+    @Benchmark
+    public OrderResponse createOrder(Client client) {
+        return orderService.createOrder(request(client.random, this));
+    }
+
+    @Benchmark
+    public OrderResponse getOrder(Client client) {
+        return orderService.getOrder(firstPreloadedId + client.random.nextInt(PRELOADED_ORDERS));
+    }
+}
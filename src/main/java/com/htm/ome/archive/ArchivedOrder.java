@@ -0,0 +1,12 @@
+package com.htm.ome.archive;
+
+import com.htm.ome.model.Order;
+import com.htm.ome.model.TradeModel;
+
+import java.util.List;
+
+/**
+ * A terminal order moved out of memory together with its trades.
+ */
+public record ArchivedOrder(Order order, List<TradeModel> trades) {
+}
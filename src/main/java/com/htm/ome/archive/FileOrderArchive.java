@@ -0,0 +1,290 @@
+package com.htm.ome.archive;
+
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.enums.OrderType;
+import com.htm.ome.enums.TimeInForce;
+import com.htm.ome.model.Order;
+import com.htm.ome.model.TradeModel;
+import com.htm.ome.util.EpochNanos;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Archive in a single append-only file ({@code orders.archive}) of deflate-compressed blocks, each
+ * {@code [int length][int crc32][long minId][long maxId][int count][payload]} with the block's orders sorted by id.
+ * Only the block headers are indexed in memory (one entry per block, not per order), so a lookup inflates
+ * the newest blocks whose id range covers the order. Blocks also break at large id gaps to keep ranges tight.
+ * A torn block at the end of the file is cut off when the archive is opened.
+ */
+@Slf4j
+public class FileOrderArchive implements OrderArchive, AutoCloseable {
+
+    private static final String FILE_NAME = "orders.archive";
+    private static final int HEADER_SIZE = 28;
+
+    private final Path file;
+    private final int blockSize;
+    private final FileChannel channel;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final List<Block> blocks = new CopyOnWriteArrayList<>();
+    private volatile ArchivedOrder lastFound;
+    private long end;
+
+    public FileOrderArchive(Path dir, int blockSize) {
+        this.file = dir.resolve(FILE_NAME);
+        this.blockSize = Math.max(1, blockSize);
+        try {
+            Files.createDirectories(dir);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            end = scan();
+            if (end < channel.size()) {
+                log.warn("Archive ends with an incomplete block, truncating file={} from {} to {} bytes",
+                        file, channel.size(), end);
+                channel.truncate(end);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open order archive " + file, e);
+        }
+        log.info("Order archive opened file={} blocks={} bytes={}", file, blocks.size(), end);
+    }
+
+    @Override
+    public void append(List<ArchivedOrder> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        List<ArchivedOrder> sorted = new ArrayList<>(orders);
+        sorted.sort(Comparator.comparingLong(a -> a.order().getId()));
+        appendLock.lock();
+        try {
+            List<Block> written = new ArrayList<>();
+            int from = 0;
+            for (int i = 1; i <= sorted.size(); i++) {
+                if (i == sorted.size() || i - from == blockSize
+                        || sorted.get(i).order().getId() - sorted.get(i - 1).order().getId() > blockSize) {
+                    written.add(writeBlock(sorted.subList(from, i)));
+                    from = i;
+                }
+            }
+            channel.force(false);
+            blocks.addAll(written);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to append to order archive " + file, e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public ArchivedOrder find(long orderId) {
+        ArchivedOrder last = lastFound;
+        if (last != null && last.order().getId() == orderId) {
+            return last;
+        }
+        for (int i = blocks.size() - 1; i >= 0; i--) {
+            Block block = blocks.get(i);
+            if (orderId < block.minId() || orderId > block.maxId()) {
+                continue;
+            }
+            ArchivedOrder found = findInBlock(block, orderId);
+            if (found != null) {
+                lastFound = found;
+                return found;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Number of blocks in the archive, i.e. the size of the in-memory index.
+     */
+    public int blockCount() {
+        return blocks.size();
+    }
+
+    private Block writeBlock(List<ArchivedOrder> orders) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            for (ArchivedOrder archived : orders) {
+                writeOrder(out, archived);
+            }
+        }
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        Block block = new Block(orders.getFirst().order().getId(), orders.getLast().order().getId(),
+                end, payload.length, orders.size());
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        buffer.putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .putLong(block.minId())
+                .putLong(block.maxId())
+                .putInt(block.count())
+                .put(payload)
+                .flip();
+        while (buffer.hasRemaining()) {
+            end += channel.write(buffer, end);
+        }
+        return block;
+    }
+
+    private ArchivedOrder findInBlock(Block block, long orderId) {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + block.length());
+            readFully(buffer, block.offset());
+            int expectedCrc = buffer.getInt(4);
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(HEADER_SIZE, block.length()));
+            if ((int) crc.getValue() != expectedCrc) {
+                log.warn("Archive block checksum mismatch file={} offset={}, skipping it", file, block.offset());
+                return null;
+            }
+            try (DataInputStream in = new DataInputStream(new InflaterInputStream(
+                    new ByteArrayInputStream(buffer.array(), HEADER_SIZE, block.length())))) {
+                for (int i = 0; i < block.count(); i++) {
+                    ArchivedOrder archived = readOrder(in);
+                    long id = archived.order().getId();
+                    if (id == orderId) {
+                        return archived;
+                    }
+                    if (id > orderId) {
+                        return null;
+                    }
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read order archive " + file, e);
+        }
+    }
+
+    /**
+     * Indexes every complete block and returns the offset just past the last one.
+     */
+    private long scan() throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (position + HEADER_SIZE <= size) {
+            header.clear();
+            readFully(header, position);
+            int length = header.getInt(0);
+            if (length <= 0 || position + HEADER_SIZE + length > size) {
+                break;
+            }
+            Block block = new Block(header.getLong(8), header.getLong(16), position, length, header.getInt(24));
+            if (position + HEADER_SIZE + length == size && !checksumMatches(block, header.getInt(4))) {
+                break;
+            }
+            blocks.add(block);
+            position += HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    private boolean checksumMatches(Block block, int expectedCrc) throws IOException {
+        ByteBuffer payload = ByteBuffer.allocate(block.length());
+        readFully(payload, block.offset() + HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(payload.flip());
+        return (int) crc.getValue() == expectedCrc;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of order archive " + file);
+            }
+        }
+    }
+
+    private static void writeOrder(DataOutputStream out, ArchivedOrder archived) throws IOException {
+        Order order = archived.order();
+        out.writeLong(order.getId());
+        out.writeUTF(order.getAsset());
+        out.writeLong(order.getPriceTicks());
+        out.writeLong(order.getAmountLots());
+        out.writeLong(order.getPendingLots());
+        out.writeByte(order.getDirection().ordinal() | order.getTimeInForce().ordinal() << 4
+                | order.getType().ordinal() << 6);
+        out.writeByte(order.getStatus().ordinal());
+        out.writeLong(EpochNanos.of(order.getCreatedAt()));
+        out.writeLong(order.getModifiedAtNanos());
+        out.writeInt(archived.trades().size());
+        for (TradeModel trade : archived.trades()) {
+            out.writeLong(trade.getId());
+            out.writeLong(trade.getBuyOrderId());
+            out.writeLong(trade.getSellOrderId());
+            out.writeLong(trade.getPriceTicks());
+            out.writeLong(trade.getAmountLots());
+            out.writeLong(EpochNanos.of(trade.getCreatedAt()));
+        }
+    }
+
+    private static ArchivedOrder readOrder(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        String asset = in.readUTF();
+        long priceTicks = in.readLong();
+        long amountLots = in.readLong();
+        long pendingLots = in.readLong();
+        byte side = in.readByte();
+        Order order = Order.builder()
+                .id(id)
+                .asset(asset)
+                .priceTicks(priceTicks)
+                .amountLots(amountLots)
+                .pendingLots(pendingLots)
+                .direction(OrderDirection.values()[side & 0x0f])
+                .timeInForce(TimeInForce.values()[side >> 4 & 0x03])
+                .type(OrderType.values()[side >> 6 & 0x01])
+                .status(OrderStatus.values()[in.readByte()])
+                .createdAt(EpochNanos.toOffsetDateTime(in.readLong()))
+                .modifiedAtNanos(in.readLong())
+                .build();
+        int tradeCount = in.readInt();
+        List<TradeModel> trades = new ArrayList<>(tradeCount);
+        for (int i = 0; i < tradeCount; i++) {
+            trades.add(TradeModel.builder()
+                    .id(in.readLong())
+                    .buyOrderId(in.readLong())
+                    .sellOrderId(in.readLong())
+                    .priceTicks(in.readLong())
+                    .amountLots(in.readLong())
+                    .createdAt(EpochNanos.toOffsetDateTime(in.readLong()))
+                    .build());
+        }
+        return new ArchivedOrder(order, trades);
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Unable to close order archive file={}", file, e);
+        }
+    }
+
+    private record Block(long minId, long maxId, long offset, int length, int count) {
+    }
+}
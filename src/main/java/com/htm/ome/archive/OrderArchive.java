@@ -0,0 +1,33 @@
+package com.htm.ome.archive;
+
+import java.util.List;
+
+/**
+ * Append-only cold storage for orders that can no longer change (filled or cancelled).
+ */
+public interface OrderArchive {
+
+    /**
+     * Durably appends the orders; once this returns they can be dropped from memory.
+     */
+    void append(List<ArchivedOrder> orders);
+
+    /**
+     * The most recently archived copy of an order, or null when it was never archived.
+     */
+    ArchivedOrder find(long orderId);
+
+    static OrderArchive disabled() {
+        return new OrderArchive() {
+            @Override
+            public void append(List<ArchivedOrder> orders) {
+                throw new IllegalStateException("Order archive is disabled");
+            }
+
+            @Override
+            public ArchivedOrder find(long orderId) {
+                return null;
+            }
+        };
+    }
+}
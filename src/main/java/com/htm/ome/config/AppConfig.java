@@ -1,9 +1,42 @@
 package com.htm.ome.config;
 
+import com.htm.ome.archive.FileOrderArchive;
+import com.htm.ome.archive.OrderArchive;
+import com.htm.ome.core.AssetExecutor;
+import com.htm.ome.core.AssetRegistry;
+import com.htm.ome.core.LockingAssetExecutor;
+import com.htm.ome.core.MatchEngine;
+import com.htm.ome.core.OrderBookFactory;
+import com.htm.ome.core.SequencedAssetExecutor;
+import com.htm.ome.core.ShardMapping;
+import com.htm.ome.core.ShardedAssetExecutor;
+import com.htm.ome.diagnostics.PinningMonitor;
+import com.htm.ome.enums.FsyncPolicy;
+import com.htm.ome.feed.MarketFeed;
+import com.htm.ome.enums.MatchEngineMode;
+import com.htm.ome.enums.OrderStoreBackend;
+import com.htm.ome.gateway.BinaryOrderGateway;
+import com.htm.ome.journal.MappedOrderJournal;
+import com.htm.ome.journal.OrderJournal;
+import com.htm.ome.metrics.EngineMetrics;
+import com.htm.ome.service.OrderService;
+import com.htm.ome.service.RetentionService;
+import com.htm.ome.service.SnapshotService;
+import com.htm.ome.snapshot.SnapshotRepository;
+import com.htm.ome.store.HeapOrderRecords;
+import com.htm.ome.store.InMemoryStore;
+import com.htm.ome.store.OffHeapOrderRecords;
+import com.htm.ome.store.OrderIndex;
+import com.htm.ome.store.OrderRecords;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
@@ -19,16 +52,214 @@ public class AppConfig {
     @Value("${matchengine.threadpool.size:5}")
     private int poolSize;
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${ome.pinning.threshold-millis:20}")
+    private long pinningThresholdMillis;
+
+    @Value("${matchengine.mode:LOCKING}")
+    private MatchEngineMode mode;
+
+    @Value("${matchengine.sequencer.ring-size:1024}")
+    private int ringSize;
+
+    @Value("${matchengine.shards.count:2}")
+    private int shardCount;
+
+    @Value("${matchengine.shards.assignment:}")
+    private String shardAssignmentProp;
+
+    @Value("${matchengine.shards.cpus:}")
+    private String shardCpusProp;
+
+    @Value("${matchengine.book.ladder-assets:}")
+    private String ladderAssetsProp;
+
+    @Value("${matchengine.book.ladder-size:1024}")
+    private int ladderSize;
+
+    @Value("${ome.journal.enabled:false}")
+    private boolean journalEnabled;
+
+    @Value("${ome.journal.dir:data/journal}")
+    private String journalDir;
+
+    @Value("${ome.journal.segment-size-mb:64}")
+    private int journalSegmentSizeMb;
+
+    @Value("${ome.journal.fsync:BATCH}")
+    private FsyncPolicy journalFsync;
+
+    @Value("${ome.journal.batch-wait-micros:0}")
+    private long journalBatchWaitMicros;
+
+    @Value("${ome.snapshot.enabled:false}")
+    private boolean snapshotEnabled;
+
+    @Value("${ome.snapshot.dir:data/snapshots}")
+    private String snapshotDir;
+
+    @Value("${ome.snapshot.interval-seconds:0}")
+    private long snapshotIntervalSeconds;
+
+    @Value("${ome.snapshot.retain:2}")
+    private int snapshotRetain;
+
+    @Value("${ome.feed.buffer-size:1024}")
+    private int feedBufferSize;
+
+    @Value("${ome.retention.enabled:false}")
+    private boolean retentionEnabled;
+
+    @Value("${ome.retention.max-age-seconds:3600}")
+    private long retentionMaxAgeSeconds;
+
+    @Value("${ome.retention.max-orders:1000000}")
+    private int retentionMaxOrders;
+
+    @Value("${ome.retention.min-age-seconds:10}")
+    private long retentionMinAgeSeconds;
+
+    @Value("${ome.retention.interval-seconds:30}")
+    private long retentionIntervalSeconds;
+
+    @Value("${ome.archive.dir:data/archive}")
+    private String archiveDir;
+
+    @Value("${ome.archive.block-size:1024}")
+    private int archiveBlockSize;
+
+    @Value("${ome.gateway.host:0.0.0.0}")
+    private String gatewayHost;
+
+    @Value("${ome.gateway.port:9091}")
+    private int gatewayPort;
+
+    @Value("${ome.gateway.max-pending-bytes:4194304}")
+    private int gatewayMaxPendingBytes;
+
+    @Value("${ome.store.backend:HEAP}")
+    private OrderStoreBackend storeBackend;
+
+    @Value("${ome.store.off-heap.slots-per-chunk:65536}")
+    private int offHeapSlotsPerChunk;
+
     @Bean
     public List<String> allowedAssets() {
-        return Arrays.stream(assetsProp.split(","))
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .collect(Collectors.toList());
+        return splitList(assetsProp);
+    }
+
+    @Bean
+    public AssetRegistry assetRegistry(List<String> allowedAssets) {
+        return new AssetRegistry(allowedAssets);
     }
 
     @Bean
     public ExecutorService matchEngineExecutor() {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ome-match-", 0).factory());
+        }
         return Executors.newFixedThreadPool(poolSize);
     }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    public PinningMonitor pinningMonitor() {
+        return new PinningMonitor(Duration.ofMillis(pinningThresholdMillis));
+    }
+
+    @Bean
+    public EngineMetrics engineMetrics(MeterRegistry meterRegistry, MatchEngine matchEngine, AssetRegistry assetRegistry) {
+        EngineMetrics metrics = new EngineMetrics(meterRegistry);
+        assetRegistry.onRegister(asset -> metrics.bindBook(asset, matchEngine));
+        assetRegistry.symbols().forEach(asset -> metrics.bindBook(asset, matchEngine));
+        return metrics;
+    }
+
+    @Bean
+    public AssetExecutor assetExecutor(ExecutorService matchEngineExecutor, EngineMetrics engineMetrics,
+                                       List<String> allowedAssets) {
+        if (mode == MatchEngineMode.SHARDED) {
+            ShardMapping mapping = new ShardMapping(shardCount, allowedAssets,
+                    ShardMapping.parseAssignments(shardAssignmentProp));
+            List<Integer> cpus = splitList(shardCpusProp).stream().map(Integer::valueOf).toList();
+            return new ShardedAssetExecutor(mapping, ringSize, cpus, engineMetrics);
+        }
+        if (mode == MatchEngineMode.SEQUENCER) {
+            return new SequencedAssetExecutor(ringSize, engineMetrics);
+        }
+        return new LockingAssetExecutor(matchEngineExecutor, engineMetrics);
+    }
+
+    @Bean
+    public OrderBookFactory orderBookFactory() {
+        return new OrderBookFactory(splitList(ladderAssetsProp), ladderSize);
+    }
+
+    @Bean
+    public OrderJournal orderJournal() {
+        if (!journalEnabled) {
+            return OrderJournal.disabled();
+        }
+        return new MappedOrderJournal(Path.of(journalDir), journalSegmentSizeMb * 1024 * 1024,
+                journalFsync, journalBatchWaitMicros);
+    }
+
+    @Bean
+    public SnapshotService snapshotService(MatchEngine matchEngine, InMemoryStore store,
+                                           AssetExecutor assetExecutor, OrderJournal orderJournal) {
+        return new SnapshotService(matchEngine, store, assetExecutor, orderJournal,
+                new SnapshotRepository(Path.of(snapshotDir), snapshotRetain),
+                snapshotEnabled, snapshotIntervalSeconds);
+    }
+
+    @Bean
+    public OrderArchive orderArchive() {
+        if (!retentionEnabled) {
+            return OrderArchive.disabled();
+        }
+        return new FileOrderArchive(Path.of(archiveDir), archiveBlockSize);
+    }
+
+    @Bean
+    public OrderRecords orderRecords() {
+        if (storeBackend == OrderStoreBackend.OFF_HEAP) {
+            return new OffHeapOrderRecords(offHeapSlotsPerChunk);
+        }
+        return new HeapOrderRecords();
+    }
+
+    /**
+     * Shared by the store, which adds and archives orders, and the engine, which reports their status changes.
+     */
+    @Bean
+    public OrderIndex orderIndex(AssetRegistry assetRegistry) {
+        return new OrderIndex(assetRegistry);
+    }
+
+    @Bean
+    public RetentionService retentionService(InMemoryStore store) {
+        return new RetentionService(store, Duration.ofSeconds(retentionMaxAgeSeconds), retentionMaxOrders,
+                Duration.ofSeconds(retentionMinAgeSeconds), retentionEnabled, retentionIntervalSeconds);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "ome.gateway.enabled", havingValue = "true")
+    public BinaryOrderGateway binaryOrderGateway(OrderService orderService, AssetRegistry assetRegistry) {
+        return new BinaryOrderGateway(orderService, assetRegistry, new InetSocketAddress(gatewayHost, gatewayPort),
+                gatewayMaxPendingBytes);
+    }
+
+    @Bean
+    public MarketFeed marketFeed(MatchEngine matchEngine) {
+        return new MarketFeed(matchEngine, feedBufferSize);
+    }
+
+    private static List<String> splitList(String prop) {
+        return Arrays.stream(prop.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,48 @@
+package com.htm.ome.controller;
+
+import com.htm.ome.core.AssetRegistry;
+import com.htm.ome.dto.AssetResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+@RestController
+@RequestMapping("/assets")
+@RequiredArgsConstructor
+@Tag(name = "Assets", description = "APIs for listing and adding tradable assets")
+public class AssetController {
+
+    /**
+     * Up to 8 ASCII letters or digits, so every asset also fits the binary gateway's asset field.
+     */
+    private static final Pattern SYMBOL = Pattern.compile("[A-Za-z0-9]{1,8}");
+
+    private final AssetRegistry assetRegistry;
+
+    @GetMapping
+    @Operation(summary = "List assets", description = "Tradable assets in registration order")
+    public ResponseEntity<List<AssetResponse>> list() {
+        List<String> symbols = assetRegistry.symbols();
+        List<AssetResponse> assets = new ArrayList<>(symbols.size());
+        for (int id = 0; id < symbols.size(); id++) {
+            assets.add(AssetResponse.builder().id(id).symbol(symbols.get(id)).build());
+        }
+        return ResponseEntity.ok(assets);
+    }
+
+    @PutMapping("/{symbol}")
+    @Operation(summary = "Add an asset", description = "Makes an asset tradable without a restart; adding an existing asset returns it unchanged")
+    public ResponseEntity<AssetResponse> add(@PathVariable String symbol) {
+        if (!SYMBOL.matcher(symbol).matches()) {
+            throw new IllegalArgumentException("Asset symbol must be 1 to 8 letters or digits");
+        }
+        int id = assetRegistry.register(symbol);
+        return ResponseEntity.ok(AssetResponse.builder().id(id).symbol(assetRegistry.symbol(id)).build());
+    }
+}
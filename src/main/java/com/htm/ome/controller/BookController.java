@@ -0,0 +1,25 @@
+package com.htm.ome.controller;
+
+import com.htm.ome.dto.BookDepthResponse;
+import com.htm.ome.service.MarketDataService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/book")
+@RequiredArgsConstructor
+@Tag(name = "Market Data", description = "APIs for order book depth and streaming updates")
+public class BookController {
+
+    private final MarketDataService marketDataService;
+
+    @GetMapping("/{asset}")
+    @Operation(summary = "Get book depth", description = "Top N aggregated price levels per side, best first")
+    public ResponseEntity<BookDepthResponse> getDepth(@PathVariable String asset,
+                                                      @RequestParam(defaultValue = "10") int depth) {
+        return ResponseEntity.ok(marketDataService.getDepth(asset, depth));
+    }
+}
@@ -0,0 +1,26 @@
+package com.htm.ome.controller;
+
+import com.htm.ome.diagnostics.PinningMonitor;
+import com.htm.ome.dto.PinningReport;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/diagnostics")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Tag(name = "Diagnostics", description = "Runtime diagnostics for the virtual-thread mode")
+public class DiagnosticsController {
+
+    private final PinningMonitor pinningMonitor;
+
+    @GetMapping("/pinning")
+    @Operation(summary = "Virtual thread pinning report", description = "jdk.VirtualThreadPinned events since startup, grouped by stack")
+    public ResponseEntity<PinningReport> pinning() {
+        return ResponseEntity.ok(pinningMonitor.report());
+    }
+}
@@ -0,0 +1,38 @@
+package com.htm.ome.controller;
+
+import com.htm.ome.core.AssetRegistry;
+import com.htm.ome.feed.MarketFeed;
+import com.htm.ome.feed.SseFeedSink;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/feed")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Tag(name = "Market Data", description = "APIs for order book depth and streaming updates")
+public class FeedController {
+
+    private final MarketFeed marketFeed;
+    private final AssetRegistry assetRegistry;
+
+    @GetMapping(value = "/{asset}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream trades and book updates", description = "Server-Sent Events: 'trade' for every fill, 'book' for conflated level changes")
+    public SseEmitter stream(@PathVariable String asset) {
+        int id = assetRegistry.find(asset);
+        if (id < 0) {
+            throw new IllegalArgumentException("Invalid asset '" + asset + "'");
+        }
+        SseEmitter emitter = new SseEmitter(0L);
+        Runnable unsubscribe = marketFeed.subscribe(assetRegistry.symbol(id), new SseFeedSink(emitter));
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        return emitter;
+    }
+}
@@ -1,19 +1,27 @@
 package com.htm.ome.controller;
 
+import com.htm.ome.dto.OrderBatchRequest;
+import com.htm.ome.dto.OrderPage;
 import com.htm.ome.dto.OrderRequest;
 import com.htm.ome.dto.OrderResponse;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
 import com.htm.ome.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/orders")
 @RequiredArgsConstructor
-@Tag(name = "Order Management", description = "APIs for create and get orders")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Tag(name = "Order Management", description = "APIs for create, get, list and cancel orders")
 public class OrderController {
 
     private final OrderService orderService;
@@ -24,9 +32,31 @@ public class OrderController {
         return ResponseEntity.ok(orderService.createOrder(request));
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create a batch of orders", description = "Matches orders per asset in arrival order, assets in parallel; responses follow request order")
+    public ResponseEntity<List<OrderResponse>> createOrders(@Valid @RequestBody OrderBatchRequest request) {
+        return ResponseEntity.ok(orderService.createOrders(request.getOrders()));
+    }
+
+    @GetMapping
+    @Operation(summary = "List orders", description = "Orders in memory filtered by asset, status and direction, in id order, one page per cursor")
+    public ResponseEntity<OrderPage> findOrders(@RequestParam(required = false) String asset,
+                                                @RequestParam(required = false) OrderStatus status,
+                                                @RequestParam(required = false) OrderDirection direction,
+                                                @RequestParam(required = false) Long cursor,
+                                                @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(orderService.findOrders(asset, status, direction, cursor, limit));
+    }
+
     @GetMapping("/{orderId}")
     @Operation(summary = "Get order details", description = "Fetch current state of an order by ID")
     public ResponseEntity<OrderResponse> getOrder(@PathVariable Long orderId) {
         return ResponseEntity.ok(orderService.getOrder(orderId));
     }
+
+    @DeleteMapping("/{orderId}")
+    @Operation(summary = "Cancel order", description = "Removes the unfilled remainder of a resting order from the book")
+    public ResponseEntity<OrderResponse> cancelOrder(@PathVariable Long orderId) {
+        return ResponseEntity.ok(orderService.cancelOrder(orderId));
+    }
 }
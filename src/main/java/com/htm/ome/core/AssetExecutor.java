@@ -0,0 +1,21 @@
+package com.htm.ome.core;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs engine work for an asset so that tasks of the same asset never execute concurrently.
+ */
+public interface AssetExecutor {
+
+    /**
+     * @param assetId id of the asset in the engine's {@link AssetRegistry}, which keys the executor's state
+     * @param asset   symbol of the same asset, for thread names, metrics and logs
+     */
+    <T> CompletableFuture<T> submit(int assetId, String asset, Callable<T> task);
+
+    /**
+     * Stops accepting tasks and waits until every submitted task has finished.
+     */
+    void drain();
+}
@@ -0,0 +1,109 @@
+package com.htm.ome.core;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Interned symbol table of the tradable assets, seeded from {@code ome.assets} and able to grow at runtime.
+ * Every symbol gets a dense int id; orders resolve their asset to that id once at ingress, and the engine,
+ * executors, metrics and feed index flat {@link AssetTable}s by it instead of hashing the symbol again.
+ * <p>
+ * Lookups ignore case and answer with the id of the spelling that was registered first. Reads are lock-free;
+ * registration is serialized.
+ */
+@Slf4j
+public class AssetRegistry {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private volatile String[] symbols = new String[0];
+
+    public AssetRegistry() {
+    }
+
+    public AssetRegistry(Collection<String> assets) {
+        assets.forEach(this::register);
+    }
+
+    /**
+     * Id of an asset, or -1 when it is not registered. A spelling that differs only in case is resolved
+     * through the folded symbol once and then remembered.
+     */
+    public int find(String asset) {
+        Integer id = ids.get(asset);
+        if (id != null) {
+            return id;
+        }
+        id = ids.get(fold(asset));
+        if (id == null) {
+            return -1;
+        }
+        ids.putIfAbsent(asset, id);
+        return id;
+    }
+
+    /**
+     * Id of an asset, registering it first if it is new.
+     */
+    public int register(String asset) {
+        if (asset == null || asset.isBlank()) {
+            throw new IllegalArgumentException("Asset symbol must not be blank");
+        }
+        int id = find(asset);
+        return id >= 0 ? id : add(asset);
+    }
+
+    private synchronized int add(String asset) {
+        int id = find(asset);
+        if (id >= 0) {
+            return id;
+        }
+        String[] current = symbols;
+        id = current.length;
+        String[] grown = Arrays.copyOf(current, id + 1);
+        grown[id] = asset;
+        symbols = grown;
+        ids.put(fold(asset), id);
+        ids.put(asset, id);
+        log.info("Asset registered symbol={} id={}", asset, id);
+        listeners.forEach(listener -> listener.accept(asset));
+        return id;
+    }
+
+    /**
+     * Registered spelling of an asset id.
+     */
+    public String symbol(int id) {
+        return symbols[id];
+    }
+
+    public int size() {
+        return symbols.length;
+    }
+
+    /**
+     * Registered symbols in id order.
+     */
+    public List<String> symbols() {
+        return List.of(symbols);
+    }
+
+    /**
+     * Calls the listener with the symbol of every asset registered from now on.
+     */
+    public void onRegister(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    private static String fold(String asset) {
+        return asset.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,104 @@
+package com.htm.ome.core;
+
+import com.htm.ome.metrics.EngineMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single consumer thread draining a {@link CommandRingBuffer}. Every command published
+ * to the ring runs on this thread in publish order, so the work it runs needs no locking.
+ */
+@Slf4j
+final class AssetSequencer implements AutoCloseable {
+
+    private static final int SPIN_TRIES = 100;
+    private static final long PARK_NANOS = 1_000_000L;
+
+    private final CommandRingBuffer ring;
+    private final EngineMetrics metrics;
+    private final Runnable onStart;
+    private final Thread consumer;
+    private volatile boolean running = true;
+    private volatile boolean sleeping;
+
+    AssetSequencer(String name, int capacity, EngineMetrics metrics) {
+        this(name, capacity, metrics, () -> { });
+    }
+
+    /**
+     * @param onStart runs first on the consumer thread, e.g. to pin it to a CPU
+     */
+    AssetSequencer(String name, int capacity, EngineMetrics metrics, Runnable onStart) {
+        this.ring = new CommandRingBuffer(capacity);
+        this.metrics = metrics;
+        this.onStart = onStart;
+        this.consumer = new Thread(this::run, name);
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> CompletableFuture<T> submit(Callable<T> task) {
+        if (!running) {
+            throw new IllegalStateException("Sequencer " + consumer.getName() + " is stopped");
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long sequence = ring.claim();
+        CommandRingBuffer.Slot slot = ring.slot(sequence);
+        slot.task = task;
+        slot.future = (CompletableFuture<Object>) future;
+        slot.publishedAt = System.nanoTime();
+        ring.publish(sequence);
+        if (sleeping) {
+            LockSupport.unpark(consumer);
+        }
+        return future;
+    }
+
+    private void run() {
+        onStart.run();
+        long next = ring.consumed() + 1;
+        int idle = 0;
+        while (running || next <= ring.claimed()) {
+            CommandRingBuffer.Slot slot = ring.poll(next);
+            if (slot == null) {
+                if (++idle < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else {
+                    sleeping = true;
+                    if (ring.poll(next) == null && running) {
+                        LockSupport.parkNanos(this, PARK_NANOS);
+                    }
+                    sleeping = false;
+                }
+                continue;
+            }
+            idle = 0;
+            Callable<?> task = slot.task;
+            CompletableFuture<Object> future = slot.future;
+            long publishedAt = slot.publishedAt;
+            ring.release(next++);
+            metrics.recordQueueWait(System.nanoTime() - publishedAt);
+            try {
+                future.complete(task.call());
+            } catch (Throwable e) {
+                log.error("Error while executing sequenced task on {}", consumer.getName(), e);
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
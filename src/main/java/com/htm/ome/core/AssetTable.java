@@ -0,0 +1,58 @@
+package com.htm.ome.core;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Per-asset values in a flat array indexed by {@link AssetRegistry} id. Reads are a volatile load and an
+ * array access; a value is created once per id under the table's lock and published by copying the array,
+ * so a reader never sees a half-initialised slot.
+ */
+public final class AssetTable<T> {
+
+    private volatile Object[] values = new Object[0];
+
+    /**
+     * Value of an asset id, or null when none was created yet.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int assetId) {
+        Object[] current = values;
+        return assetId >= 0 && assetId < current.length ? (T) current[assetId] : null;
+    }
+
+    public T computeIfAbsent(int assetId, IntFunction<T> factory) {
+        T value = get(assetId);
+        return value != null ? value : create(assetId, factory);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized T create(int assetId, IntFunction<T> factory) {
+        if (assetId < 0) {
+            throw new IllegalArgumentException("Unresolved asset id " + assetId);
+        }
+        Object[] current = values;
+        if (assetId < current.length && current[assetId] != null) {
+            return (T) current[assetId];
+        }
+        T value = factory.apply(assetId);
+        Object[] grown = Arrays.copyOf(current, Math.max(current.length, assetId + 1));
+        grown[assetId] = value;
+        values = grown;
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<T> action) {
+        for (Object value : values) {
+            if (value != null) {
+                action.accept((T) value);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        values = new Object[0];
+    }
+}
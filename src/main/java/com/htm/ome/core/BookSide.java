@@ -0,0 +1,62 @@
+package com.htm.ome.core;
+
+import com.htm.ome.model.Order;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * One side (bids or asks) of an asset's order book, ordered best price first.
+ */
+public interface BookSide {
+
+    /**
+     * Best non-empty level, or null when the side is empty.
+     */
+    PriceLevel best();
+
+    /**
+     * Appends the order to the back of the level at its price and returns its link in that level.
+     */
+    OrderNode add(Order order);
+
+    /**
+     * Drops a level the engine has just emptied by matching or cancelling.
+     */
+    void removeLevel(PriceLevel level);
+
+    boolean isEmpty();
+
+    /**
+     * Visits the non-empty levels from best to worst price.
+     */
+    void forEachLevel(Consumer<PriceLevel> action);
+
+    /**
+     * Whether the levels a taker limited to {@code limitPriceTicks} would reach hold at least {@code lots} in total.
+     * Sums the level aggregates and stops as soon as they cover the amount; nothing in the side is changed.
+     */
+    boolean canFill(long limitPriceTicks, long lots);
+
+    /**
+     * Upper bound on the fills of a taker limited to {@code limitPriceTicks} and {@code lots}: the number of orders
+     * resting in the levels it would reach, best first, up to the level that covers the amount. Read-only.
+     */
+    int maxFills(long limitPriceTicks, long lots);
+
+    /**
+     * Price of the {@code n}th best non-empty level (1 for the best), or -1 when the side has fewer levels.
+     */
+    long levelPrice(int n);
+
+    /**
+     * Aggregates of the level at a price, or null when nothing rests there.
+     */
+    LevelDepth level(long priceTicks);
+
+    /**
+     * Aggregates of up to {@code maxLevels} best non-empty levels. Unlike the other methods this may be
+     * called from any thread while the side is being matched.
+     */
+    List<LevelDepth> depth(int maxLevels);
+}
@@ -0,0 +1,88 @@
+package com.htm.ome.core;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer / single-consumer ring of pre-allocated command slots.
+ * Producers claim a sequence, fill the slot and publish it; the single consumer
+ * reads slots strictly in sequence order.
+ */
+final class CommandRingBuffer {
+
+    static final class Slot {
+        Callable<?> task;
+        CompletableFuture<Object> future;
+        long publishedAt;
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLong consumed = new AtomicLong(-1);
+
+    CommandRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of two: " + capacity);
+        }
+        this.slots = new Slot[capacity];
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Claims the next sequence, waiting while the ring is full.
+     */
+    long claim() {
+        while (true) {
+            long current = claimed.get();
+            long next = current + 1;
+            if (next - slots.length > consumed.get()) {
+                Thread.onSpinWait();
+                LockSupport.parkNanos(1_000);
+                continue;
+            }
+            if (claimed.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    Slot slot(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    void publish(long sequence) {
+        published.set((int) sequence & mask, sequence);
+    }
+
+    /**
+     * Returns the slot for the given sequence once it is published, or null.
+     */
+    Slot poll(long sequence) {
+        return published.get((int) sequence & mask) == sequence ? slot(sequence) : null;
+    }
+
+    void release(long sequence) {
+        Slot slot = slot(sequence);
+        slot.task = null;
+        slot.future = null;
+        consumed.lazySet(sequence);
+    }
+
+    long consumed() {
+        return consumed.get();
+    }
+
+    long claimed() {
+        return claimed.get();
+    }
+}
@@ -0,0 +1,130 @@
+package com.htm.ome.core;
+
+import com.htm.ome.model.TradeModel;
+import com.htm.ome.util.EpochNanos;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reusable buffer of fills held as parallel primitive arrays. The engine clears and refills one buffer per
+ * asset on every match, so matching allocates nothing once the arrays have grown to the largest sweep seen;
+ * {@link TradeModel}s are only built from it at the API boundary.
+ */
+public final class FillBuffer {
+
+    private long[] tradeIds;
+    private long[] buyOrderIds;
+    private long[] sellOrderIds;
+    private long[] priceTicks;
+    private long[] amountLots;
+    private long[] epochNanos;
+    private int size;
+
+    public FillBuffer(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        tradeIds = new long[capacity];
+        buyOrderIds = new long[capacity];
+        sellOrderIds = new long[capacity];
+        priceTicks = new long[capacity];
+        amountLots = new long[capacity];
+        epochNanos = new long[capacity];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(long buyOrderId, long sellOrderId, long priceTicks, long amountLots, long epochNanos) {
+        if (size == buyOrderIds.length) {
+            grow();
+        }
+        tradeIds[size] = 0;
+        buyOrderIds[size] = buyOrderId;
+        sellOrderIds[size] = sellOrderId;
+        this.priceTicks[size] = priceTicks;
+        this.amountLots[size] = amountLots;
+        this.epochNanos[size] = epochNanos;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Trade id assigned to a fill on the matching thread, 0 while unassigned.
+     */
+    public long tradeId(int index) {
+        return tradeIds[index];
+    }
+
+    public void setTradeId(int index, long tradeId) {
+        tradeIds[index] = tradeId;
+    }
+
+    public long buyOrderId(int index) {
+        return buyOrderIds[index];
+    }
+
+    public long sellOrderId(int index) {
+        return sellOrderIds[index];
+    }
+
+    public long priceTicks(int index) {
+        return priceTicks[index];
+    }
+
+    public long amountLots(int index) {
+        return amountLots[index];
+    }
+
+    public long epochNanos(int index) {
+        return epochNanos[index];
+    }
+
+    /**
+     * Trimmed copy that stays valid after this buffer is reused, for handing fills off the matching thread.
+     */
+    public FillBuffer copy() {
+        FillBuffer copy = new FillBuffer(size);
+        System.arraycopy(tradeIds, 0, copy.tradeIds, 0, size);
+        System.arraycopy(buyOrderIds, 0, copy.buyOrderIds, 0, size);
+        System.arraycopy(sellOrderIds, 0, copy.sellOrderIds, 0, size);
+        System.arraycopy(priceTicks, 0, copy.priceTicks, 0, size);
+        System.arraycopy(amountLots, 0, copy.amountLots, 0, size);
+        System.arraycopy(epochNanos, 0, copy.epochNanos, 0, size);
+        copy.size = size;
+        return copy;
+    }
+
+    public List<TradeModel> toTradeModels() {
+        List<TradeModel> trades = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            trades.add(TradeModel.builder()
+                    .id(tradeIds[i] == 0 ? null : tradeIds[i])
+                    .buyOrderId(buyOrderIds[i])
+                    .sellOrderId(sellOrderIds[i])
+                    .priceTicks(priceTicks[i])
+                    .amountLots(amountLots[i])
+                    .createdAt(EpochNanos.toOffsetDateTime(epochNanos[i]))
+                    .build());
+        }
+        return trades;
+    }
+
+    private void grow() {
+        int capacity = buyOrderIds.length * 2;
+        tradeIds = Arrays.copyOf(tradeIds, capacity);
+        buyOrderIds = Arrays.copyOf(buyOrderIds, capacity);
+        sellOrderIds = Arrays.copyOf(sellOrderIds, capacity);
+        priceTicks = Arrays.copyOf(priceTicks, capacity);
+        amountLots = Arrays.copyOf(amountLots, capacity);
+        epochNanos = Arrays.copyOf(epochNanos, capacity);
+    }
+}
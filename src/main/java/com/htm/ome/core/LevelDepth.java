@@ -0,0 +1,11 @@
+package com.htm.ome.core;
+
+/**
+ * Aggregated view of one price level: total unfilled quantity and number of resting orders.
+ */
+public record LevelDepth(long priceTicks, long lots, int orders) {
+
+    static LevelDepth of(PriceLevel level) {
+        return new LevelDepth(level.getPrice(), level.getTotalLots(), level.getOrderCount());
+    }
+}
@@ -0,0 +1,67 @@
+package com.htm.ome.core;
+
+import com.htm.ome.metrics.EngineMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shared thread pool where each task takes the lock of its asset before running.
+ * Time spent queued for a pool thread and waiting for the asset lock is recorded separately.
+ */
+@Slf4j
+public class LockingAssetExecutor implements AssetExecutor {
+
+    private final ExecutorService matchEngineExecutor;
+    private final EngineMetrics metrics;
+    private final AssetTable<ReentrantLock> assetLocks = new AssetTable<>();
+
+    public LockingAssetExecutor(ExecutorService matchEngineExecutor) {
+        this(matchEngineExecutor, EngineMetrics.disabled());
+    }
+
+    public LockingAssetExecutor(ExecutorService matchEngineExecutor, EngineMetrics metrics) {
+        this.matchEngineExecutor = matchEngineExecutor;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(int assetId, String asset, Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long submittedAt = System.nanoTime();
+        matchEngineExecutor.execute(() -> {
+            long startedAt = System.nanoTime();
+            metrics.recordQueueWait(startedAt - submittedAt);
+            ReentrantLock lock = assetLocks.computeIfAbsent(assetId, id -> new ReentrantLock());
+            lock.lock();
+            metrics.recordLockWait(assetId, asset, System.nanoTime() - startedAt);
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                log.error("Error while executing task for asset={}", asset, e);
+                result.completeExceptionally(e);
+            } finally {
+                if (lock.isHeldByCurrentThread()) {
+                    lock.unlock();
+                }
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void drain() {
+        matchEngineExecutor.shutdown();
+        try {
+            if (!matchEngineExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Match engine executor did not drain within 30 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
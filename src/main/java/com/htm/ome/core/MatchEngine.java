@@ -4,145 +4,370 @@ import com.htm.ome.model.Order;
 import com.htm.ome.model.TradeModel;
 import com.htm.ome.enums.OrderDirection;
 import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.enums.OrderType;
+import com.htm.ome.enums.TimeInForce;
+import com.htm.ome.util.EpochClock;
+import com.htm.ome.util.FixedPoint;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
-import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.ConcurrentSkipListMap;
 
 @Component
 @Slf4j
 public class MatchEngine {
 
-    private final Map<String, ConcurrentSkipListMap<Double, Deque<Order>>> buyBooks = new ConcurrentHashMap<>();
-    private final Map<String, ConcurrentSkipListMap<Double, Deque<Order>>> sellBooks = new ConcurrentHashMap<>();
+    private final AssetTable<OrderBook> books = new AssetTable<>();
+    private final OrderBookFactory bookFactory;
+    private final AssetRegistry assetRegistry;
+    private final OrderStatusListener statusListener;
 
+    public MatchEngine() {
+        this(new OrderBookFactory(Set.of(), 0));
+    }
+
+    public MatchEngine(OrderBookFactory bookFactory) {
+        this(bookFactory, new AssetRegistry());
+    }
+
+    public MatchEngine(OrderBookFactory bookFactory, AssetRegistry assetRegistry) {
+        this(bookFactory, assetRegistry, OrderStatusListener.NONE);
+    }
+
+    @Autowired
+    public MatchEngine(OrderBookFactory bookFactory, AssetRegistry assetRegistry, OrderStatusListener statusListener) {
+        this.bookFactory = bookFactory;
+        this.assetRegistry = assetRegistry;
+        this.statusListener = statusListener;
+    }
+
+    public AssetRegistry assetRegistry() {
+        return assetRegistry;
+    }
+
+    /**
+     * Resolves the order's asset to its {@link AssetRegistry} id on first use and keeps it on the order, together
+     * with the registered spelling of the symbol. Assets not registered yet are added.
+     */
+    public int resolve(Order order) {
+        int id = order.getAssetId();
+        if (id < 0) {
+            id = assetRegistry.register(order.getAsset());
+            order.setAssetId(id);
+            order.setAsset(assetRegistry.symbol(id));
+        }
+        return id;
+    }
+
+    /**
+     * Id of an asset, registering it if it is new.
+     */
+    public int assetId(String asset) {
+        return assetRegistry.register(asset);
+    }
+
+    /**
+     * Readies an order for {@link #matchFills(Order)} without changing the book, so that it can be journaled first.
+     * A market order is given the worst price it may trade at (see {@link #marketLimit}), which makes the journaled
+     * order replay to the same fills. Returns an upper bound on the number of fills matching it will produce.
+     */
+    public int prepare(Order incoming) {
+        OrderBook book = book(incoming);
+        boolean buy = incoming.getDirection() == OrderDirection.BUY;
+        BookSide opposite = buy ? book.getAsks() : book.getBids();
+        if (incoming.getType() == OrderType.MARKET) {
+            incoming.setPriceTicks(marketLimit(incoming, opposite, buy));
+        }
+        return opposite.maxFills(incoming.getPriceTicks(), incoming.getPendingLots());
+    }
+
+    /**
+     * Matches the order and returns its fills as {@link TradeModel}s. Convenience form of {@link #matchFills(Order)}.
+     */
     public List<TradeModel> match(Order incoming) {
-        List<TradeModel> trades = new ArrayList<>();
-        buyBooks.computeIfAbsent(incoming.getAsset(), k -> new ConcurrentSkipListMap<>(Comparator.reverseOrder()));
-        sellBooks.computeIfAbsent(incoming.getAsset(), k -> new ConcurrentSkipListMap<>());
+        return matchFills(incoming).toTradeModels();
+    }
 
-        if (incoming.getDirection() == OrderDirection.BUY) {
-            matchBuy(incoming, trades);
+    /**
+     * Matches the order into the book's reusable {@link FillBuffer}, which stays valid until the next match on
+     * the same asset. Allocates nothing per fill: all fills of one match share a timestamp from
+     * {@link EpochClock} and resting orders are stamped with the same epoch nanos.
+     * <p>
+     * A fill-or-kill order is checked against the level aggregates of the opposite side first and only matched
+     * when they cover its whole amount, so a killed order leaves the book untouched. Immediate-or-cancel and
+     * fill-or-kill orders that keep a remainder end up {@link OrderStatus#CANCELLED} and are never added to the book.
+     * <p>
+     * A market order sweeps the opposite side in the same pass, bounded by its {@code maxLevels} and by
+     * {@code maxSlippageBps} from the best price on arrival, and is then given the worst price it traded at
+     * (0 when nothing traded).
+     */
+    public FillBuffer matchFills(Order incoming) {
+        OrderBook book = book(incoming);
+        FillBuffer fills = book.getFills();
+        fills.clear();
+        long now = EpochClock.now();
+
+        boolean buy = incoming.getDirection() == OrderDirection.BUY;
+        BookSide opposite = buy ? book.getAsks() : book.getBids();
+        boolean market = incoming.getType() == OrderType.MARKET;
+        long limitTicks = market ? marketLimit(incoming, opposite, buy) : incoming.getPriceTicks();
+        int maxLevels = market && incoming.getMaxLevels() > 0 ? incoming.getMaxLevels() : Integer.MAX_VALUE;
+        if (incoming.getTimeInForce() == TimeInForce.FOK && !opposite.canFill(limitTicks, incoming.getPendingLots())) {
+            log.info("Order killed: id={} asset={} amount={} not available at price={}",
+                    incoming.getId(), incoming.getAsset(), incoming.getAmount(), incoming.getPrice());
+        } else if (buy) {
+            matchBuy(incoming, limitTicks, maxLevels, book, fills, now);
         } else {
-            matchSell(incoming, trades);
+            matchSell(incoming, limitTicks, maxLevels, book, fills, now);
+        }
+        book.nodesChanged();
+        if (market) {
+            incoming.setPriceTicks(fills.isEmpty() ? 0 : fills.priceTicks(fills.size() - 1));
+        }
+        if (incoming.getTimeInForce() != TimeInForce.GTC && incoming.getPendingLots() > 0) {
+            setStatus(incoming, OrderStatus.CANCELLED);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("MatchEngine: completed matching for orderId={} asset={} pending={} fills={}",
+                    incoming.getId(), incoming.getAsset(), incoming.getPendingAmount(), fills.size());
         }
-        log.info("MatchEngine: completed matching for orderId={} asset={} pending={}",
-                incoming.getId(), incoming.getAsset(), incoming.getPendingAmount());
+        return fills;
+    }
 
-        return trades;
+    /**
+     * Worst price a market order may trade at: its own price once it has one (prepared or replayed), otherwise the
+     * nearer of the best opposite price moved by the allowed slippage and the price of its last allowed level,
+     * otherwise no bound (the lowest tick for a sell).
+     */
+    private static long marketLimit(Order order, BookSide opposite, boolean buy) {
+        if (order.getPriceTicks() > 0) {
+            return order.getPriceTicks();
+        }
+        long limit = buy ? Long.MAX_VALUE : 1;
+        PriceLevel best = opposite.best();
+        if (best != null && order.getMaxSlippageBps() > 0) {
+            long slippage = best.getPrice() * order.getMaxSlippageBps() / 10_000;
+            limit = buy ? best.getPrice() + slippage : Math.max(1, best.getPrice() - slippage);
+        }
+        long lastLevel = order.getMaxLevels() > 0 ? opposite.levelPrice(order.getMaxLevels()) : -1;
+        if (lastLevel > 0) {
+            limit = buy ? Math.min(limit, lastLevel) : Math.max(limit, lastLevel);
+        }
+        return limit;
     }
 
-    private void matchBuy(Order buyOrder, List<TradeModel> trades) {
-        ConcurrentSkipListMap<Double, Deque<Order>> asks = sellBooks.get(buyOrder.getAsset());
-        while (!asks.isEmpty() && buyOrder.getPendingAmount() > 0) {
-            Map.Entry<Double, Deque<Order>> best = asks.firstEntry();
+    private void matchBuy(Order buyOrder, long limitTicks, int maxLevels, OrderBook book, FillBuffer fills, long now) {
+        BookSide asks = book.getAsks();
+        for (int levels = 0; buyOrder.getPendingLots() > 0 && levels < maxLevels; levels++) {
+            PriceLevel best = asks.best();
             if (best == null) {
                 break;
             }
-            Double askPrice = best.getKey();
-            if (askPrice > buyOrder.getPrice()) {
+            long askPrice = best.getPrice();
+            if (askPrice > limitTicks) {
                 break;
             }
-            Deque<Order> q = best.getValue();
-            while (!q.isEmpty() && buyOrder.getPendingAmount() > 0) {
-                Order ask = q.peekFirst();
-                double traded = Math.min(buyOrder.getPendingAmount(), ask.getPendingAmount());
-                traded = Math.round(traded * 100.0) / 100.0;
-                buyOrder.setPendingAmount(Math.round((buyOrder.getPendingAmount() - traded) * 100.0) / 100.0);
-                ask.setPendingAmount(Math.round((ask.getPendingAmount() - traded) * 100.0) / 100.0);
-                ask.setModifiedAt(OffsetDateTime.now(ZoneOffset.UTC));
+            while (!best.isEmpty() && buyOrder.getPendingLots() > 0) {
+                Order ask = best.peekFirst();
+                long traded = Math.min(buyOrder.getPendingLots(), ask.getPendingLots());
+                buyOrder.setPendingLots(buyOrder.getPendingLots() - traded);
+                ask.setPendingLots(ask.getPendingLots() - traded);
+                best.filled(traded);
+                ask.setModifiedAtNanos(now);
                 updateStatus(buyOrder);
                 updateStatus(ask);
-                TradeModel t = TradeModel.builder()
-                        .buyOrderId(buyOrder.getId())
-                        .sellOrderId(ask.getId())
-                        .price(askPrice)
-                        .amount(traded)
-                        .createdAt(OffsetDateTime.now(ZoneOffset.UTC))
-                        .build();
-                trades.add(t);
-                log.info("Trade executed: buyId={} sellId={} asset={} price={} amount={}",
-                        buyOrder.getId(), ask.getId(), buyOrder.getAsset(), askPrice, traded);
-
-                if (ask.getPendingAmount() == 0) {
-                    q.pollFirst();
+                fills.add(buyOrder.getId(), ask.getId(), askPrice, traded, now);
+                if (log.isDebugEnabled()) {
+                    log.debug("Trade executed: buyId={} sellId={} asset={} price={} amount={}",
+                            buyOrder.getId(), ask.getId(), buyOrder.getAsset(),
+                            FixedPoint.toDecimal(askPrice), FixedPoint.toDecimal(traded));
+                }
+
+                if (ask.getPendingLots() == 0) {
+                    best.pollFirst();
+                    book.getNodes().remove(ask.getId());
                 }
             }
-            if (q.isEmpty()) {
-                asks.remove(askPrice);
+            if (best.isEmpty()) {
+                asks.removeLevel(best);
             }
         }
     }
 
-    private void matchSell(Order sellOrder, List<TradeModel> trades) {
-        ConcurrentSkipListMap<Double, Deque<Order>> bids = buyBooks.get(sellOrder.getAsset());
-        while (!bids.isEmpty() && sellOrder.getPendingAmount() > 0) {
-            Map.Entry<Double, Deque<Order>> best = bids.firstEntry();
+    private void matchSell(Order sellOrder, long limitTicks, int maxLevels, OrderBook book, FillBuffer fills, long now) {
+        BookSide bids = book.getBids();
+        for (int levels = 0; sellOrder.getPendingLots() > 0 && levels < maxLevels; levels++) {
+            PriceLevel best = bids.best();
             if (best == null) {
                 break;
             }
-            Double bidPrice = best.getKey();
-            if (bidPrice < sellOrder.getPrice()) {
+            long bidPrice = best.getPrice();
+            if (bidPrice < limitTicks) {
                 break;
             }
-            Deque<Order> q = best.getValue();
-            while (!q.isEmpty() && sellOrder.getPendingAmount() > 0) {
-                Order bid = q.peekFirst();
-                double traded = Math.min(sellOrder.getPendingAmount(), bid.getPendingAmount());
-                traded = Math.round(traded * 100.0) / 100.0;
-                sellOrder.setPendingAmount(Math.round((sellOrder.getPendingAmount() - traded) * 100.0) / 100.0);
-                bid.setPendingAmount(Math.round((bid.getPendingAmount() - traded) * 100.0) / 100.0);
-                bid.setModifiedAt(OffsetDateTime.now(ZoneOffset.UTC));
+            while (!best.isEmpty() && sellOrder.getPendingLots() > 0) {
+                Order bid = best.peekFirst();
+                long traded = Math.min(sellOrder.getPendingLots(), bid.getPendingLots());
+                sellOrder.setPendingLots(sellOrder.getPendingLots() - traded);
+                bid.setPendingLots(bid.getPendingLots() - traded);
+                best.filled(traded);
+                bid.setModifiedAtNanos(now);
                 updateStatus(sellOrder);
                 updateStatus(bid);
-                TradeModel t = TradeModel.builder()
-                        .buyOrderId(bid.getId())
-                        .sellOrderId(sellOrder.getId())
-                        .price(bidPrice)
-                        .amount(traded)
-                        .createdAt(OffsetDateTime.now(ZoneOffset.UTC))
-                        .build();
-                trades.add(t);
-                log.info("Trade executed: buyId={} sellId={} asset={} price={} amount={}",
-                        bid.getId(), sellOrder.getId(), sellOrder.getAsset(), bidPrice, traded);
-
-                if (bid.getPendingAmount() == 0) {
-                    q.pollFirst();
+                fills.add(bid.getId(), sellOrder.getId(), bidPrice, traded, now);
+                if (log.isDebugEnabled()) {
+                    log.debug("Trade executed: buyId={} sellId={} asset={} price={} amount={}",
+                            bid.getId(), sellOrder.getId(), sellOrder.getAsset(),
+                            FixedPoint.toDecimal(bidPrice), FixedPoint.toDecimal(traded));
+                }
+
+                if (bid.getPendingLots() == 0) {
+                    best.pollFirst();
+                    book.getNodes().remove(bid.getId());
                 }
             }
-            if (q.isEmpty()) {
-                bids.remove(bidPrice);
+            if (best.isEmpty()) {
+                bids.removeLevel(best);
             }
         }
     }
 
     private void updateStatus(Order order) {
-        if (order.getPendingAmount() == 0.0) {
-            order.setStatus(OrderStatus.FILLED);
-        } else if (order.getPendingAmount() < order.getAmount()) {
-            order.setStatus(OrderStatus.PARTIALLY_FILLED);
+        if (order.getPendingLots() == 0) {
+            setStatus(order, OrderStatus.FILLED);
+        } else if (order.getPendingLots() < order.getAmountLots()) {
+            setStatus(order, OrderStatus.PARTIALLY_FILLED);
         } else {
-            order.setStatus(OrderStatus.OPEN);
+            setStatus(order, OrderStatus.OPEN);
+        }
+    }
+
+    private void setStatus(Order order, OrderStatus status) {
+        OrderStatus previous = order.getStatus();
+        if (previous != status) {
+            order.setStatus(status);
+            statusListener.onStatusChange(order, previous);
         }
     }
 
+    /**
+     * Rests the unfilled remainder of a good-till-cancelled order; anything else is left out of the book.
+     */
     public void addOrderToBook(Order order) {
-        if (order.getDirection() == OrderDirection.BUY) {
-            buyBooks.computeIfAbsent(order.getAsset(), k -> new ConcurrentSkipListMap<>(Comparator.reverseOrder()))
-                    .computeIfAbsent(order.getPrice(), p -> new ConcurrentLinkedDeque<>())
-                    .addLast(order);
-        } else {
-            sellBooks.computeIfAbsent(order.getAsset(), k -> new ConcurrentSkipListMap<>())
-                    .computeIfAbsent(order.getPrice(), p -> new ConcurrentLinkedDeque<>())
-                    .addLast(order);
+        if (order.getPendingLots() == 0 || order.getTimeInForce() != TimeInForce.GTC) {
+            return;
         }
+        OrderBook book = book(order);
+        BookSide side = order.getDirection() == OrderDirection.BUY ? book.getBids() : book.getAsks();
+        book.getNodes().put(order.getId(), side.add(order));
+        book.nodesChanged();
         log.info("Order added to book: id={} asset={} side={} price={} pending={}",
                 order.getId(), order.getAsset(), order.getDirection(), order.getPrice(), order.getPendingAmount());
     }
+
+    /**
+     * The order the book holds under {@code order}'s id, or null when it is not resting. Like {@link #cancel(Order)},
+     * only the id and asset of {@code order} are used.
+     */
+    public Order resting(Order order) {
+        OrderBook book = books.get(resolve(order));
+        OrderNode node = book == null ? null : book.getNodes().get(order.getId());
+        return node == null ? null : node.order;
+    }
+
+    /**
+     * Pulls a resting order out of its book and marks it cancelled, emptying its level if it was the last one there.
+     * Only the id and asset of {@code order} are used: it may be a stale copy, so the cancelled order returned is
+     * the one the book held, with its current fills. Returns null when the order is not resting (already filled,
+     * cancelled or unknown).
+     */
+    public Order cancel(Order order) {
+        OrderBook book = books.get(resolve(order));
+        OrderNode node = book == null ? null : book.getNodes().remove(order.getId());
+        if (node == null) {
+            return null;
+        }
+        book.nodesChanged();
+        Order resting = node.order;
+        PriceLevel level = node.level;
+        level.remove(node);
+        if (level.isEmpty()) {
+            BookSide side = resting.getDirection() == OrderDirection.BUY ? book.getBids() : book.getAsks();
+            side.removeLevel(level);
+        }
+        setStatus(resting, OrderStatus.CANCELLED);
+        resting.setModifiedAtNanos(EpochClock.now());
+        log.info("Order cancelled: id={} asset={} pending={}",
+                resting.getId(), resting.getAsset(), resting.getPendingAmount());
+        return resting;
+    }
+
+    /**
+     * Up to {@code maxLevels} best levels of one side with their aggregates, read without the asset's lock.
+     * Weakly consistent: a level being updated concurrently may show its state just before or after the update.
+     */
+    public List<LevelDepth> depth(String asset, OrderDirection side, int maxLevels) {
+        OrderBook book = book(asset);
+        if (book == null) {
+            return List.of();
+        }
+        return (side == OrderDirection.BUY ? book.getBids() : book.getAsks()).depth(maxLevels);
+    }
+
+    /**
+     * Aggregates of one price level, or an empty level when nothing rests at that price.
+     */
+    public LevelDepth level(String asset, OrderDirection side, long priceTicks) {
+        OrderBook book = book(asset);
+        LevelDepth level = book == null ? null
+                : (side == OrderDirection.BUY ? book.getBids() : book.getAsks()).level(priceTicks);
+        return level == null ? new LevelDepth(priceTicks, 0, 0) : level;
+    }
+
+    /**
+     * Number of orders resting in an asset's book, read without the asset's lock (may lag the matching thread).
+     */
+    public int restingOrderCount(String asset) {
+        OrderBook book = book(asset);
+        return book == null ? 0 : book.getRestingOrders();
+    }
+
+    /**
+     * Assets that have a book.
+     */
+    public Set<String> assets() {
+        Set<String> assets = new HashSet<>();
+        for (int id = 0; id < assetRegistry.size(); id++) {
+            if (books.get(id) != null) {
+                assets.add(assetRegistry.symbol(id));
+            }
+        }
+        return assets;
+    }
+
+    /**
+     * Copies of the resting orders of an asset, bids then asks, each side in price-time priority.
+     * Must run on the asset's matching thread (or under its lock).
+     */
+    public List<Order> restingOrders(String asset) {
+        OrderBook book = book(asset);
+        if (book == null) {
+            return List.of();
+        }
+        List<Order> orders = new ArrayList<>();
+        book.getBids().forEachLevel(level -> level.forEach(o -> orders.add(o.toBuilder().build())));
+        book.getAsks().forEachLevel(level -> level.forEach(o -> orders.add(o.toBuilder().build())));
+        return orders;
+    }
+
+    private OrderBook book(Order order) {
+        int assetId = resolve(order);
+        OrderBook book = books.get(assetId);
+        return book != null ? book : books.computeIfAbsent(assetId, id -> bookFactory.create(assetRegistry.symbol(id)));
+    }
+
+    private OrderBook book(String asset) {
+        return books.get(assetRegistry.find(asset));
+    }
 }
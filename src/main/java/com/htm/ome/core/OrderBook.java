@@ -0,0 +1,33 @@
+package com.htm.ome.core;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@RequiredArgsConstructor
+public class OrderBook {
+    private final BookSide bids;
+    private final BookSide asks;
+    /**
+     * Links of the resting orders by order id, for constant-time cancel.
+     */
+    private final Map<Long, OrderNode> nodes = new HashMap<>();
+    /**
+     * Size of {@link #nodes} as of the last change, published for readers off the matching thread.
+     */
+    private volatile int restingOrders;
+    /**
+     * Reused for every match on this book, so only the matching thread (or lock holder) may touch it.
+     */
+    private final FillBuffer fills = new FillBuffer(16);
+
+    /**
+     * Publishes the current number of resting orders; called by the matching thread after it changed {@link #nodes}.
+     */
+    void nodesChanged() {
+        restingOrders = nodes.size();
+    }
+}
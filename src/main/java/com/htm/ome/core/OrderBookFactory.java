@@ -0,0 +1,27 @@
+package com.htm.ome.core;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Chooses the book implementation per asset: price ladder for the configured assets,
+ * skip list for everything else.
+ */
+public class OrderBookFactory {
+
+    private final Set<String> ladderAssets;
+    private final int ladderSize;
+
+    public OrderBookFactory(Collection<String> ladderAssets, int ladderSize) {
+        this.ladderAssets = ladderAssets.stream().map(String::toUpperCase).collect(Collectors.toSet());
+        this.ladderSize = ladderSize;
+    }
+
+    public OrderBook create(String asset) {
+        if (ladderAssets.contains(asset.toUpperCase())) {
+            return new OrderBook(new PriceLadderBookSide(true, ladderSize), new PriceLadderBookSide(false, ladderSize));
+        }
+        return new OrderBook(new SkipListBookSide(true), new SkipListBookSide(false));
+    }
+}
@@ -0,0 +1,18 @@
+package com.htm.ome.core;
+
+import com.htm.ome.model.Order;
+
+/**
+ * Intrusive link of a resting order inside its {@link PriceLevel}, so the order can be unlinked
+ * in constant time when it is cancelled.
+ */
+final class OrderNode {
+    final Order order;
+    PriceLevel level;
+    OrderNode prev;
+    OrderNode next;
+
+    OrderNode(Order order) {
+        this.order = order;
+    }
+}
@@ -0,0 +1,16 @@
+package com.htm.ome.core;
+
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.model.Order;
+
+/**
+ * Told by {@link MatchEngine} about every status change it makes, on the asset's matching thread (or under its
+ * lock), right after the order's status was set.
+ */
+@FunctionalInterface
+public interface OrderStatusListener {
+
+    OrderStatusListener NONE = (order, previous) -> { };
+
+    void onStatusChange(Order order, OrderStatus previous);
+}
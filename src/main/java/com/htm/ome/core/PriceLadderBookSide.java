@@ -0,0 +1,418 @@
+package com.htm.ome.core;
+
+import com.htm.ome.model.Order;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Book side for dense tick ranges. Levels within {@code size} ticks of a moving mid live in
+ * an array indexed by {@code price - base}; prices outside the window go to a sparse map.
+ * The best level inside the window is tracked with a cursor and the occupied slots with a bitset,
+ * so walking levels skips empty ticks 64 at a time. The window re-centres on the best price
+ * whenever that leaves the middle half of the window, so a trending touch keeps array slots on
+ * both sides of it; levels the moved window no longer covers become outliers. A better outlier
+ * more than half a window from the ladder's best only moves the window once a few such levels exist,
+ * so a single far-off order (a fat finger) is matched from the outliers without evicting the ladder.
+ * An empty window re-centres on the next incoming price. Level objects in the array are reused.
+ * Not thread safe: callers serialize access per asset, except for {@link #depth(int)}. Moving the
+ * window holds a write stamp, and depth reads validate an optimistic stamp around their walk, so
+ * they never mix slots of two windows.
+ */
+public class PriceLadderBookSide implements BookSide {
+
+    private static final int OPTIMISTIC_DEPTH_READS = 3;
+    private static final int FAR_OUTLIER_LEVELS_TO_RECENTRE = 4;
+
+    private final boolean bids;
+    private final PriceLevel[] ladder;
+    private final long[] occupied;
+    private final ConcurrentSkipListMap<Long, PriceLevel> outliers;
+    private final StampedLock window = new StampedLock();
+    private long base;
+    private int activeLevels;
+    private volatile int bestIndex = -1;
+
+    public PriceLadderBookSide(boolean bids, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Ladder size must be positive: " + size);
+        }
+        this.bids = bids;
+        this.ladder = new PriceLevel[size];
+        this.occupied = new long[(size + 63) >>> 6];
+        this.outliers = bids ? new ConcurrentSkipListMap<>(Comparator.reverseOrder()) : new ConcurrentSkipListMap<>();
+    }
+
+    @Override
+    public PriceLevel best() {
+        int index = bestIndex;
+        PriceLevel inLadder = index < 0 ? null : ladder[index];
+        if (outliers.isEmpty()) {
+            return inLadder;
+        }
+        long outlierPrice = outliers.firstKey();
+        if (inLadder == null || isBetter(outlierPrice, inLadder.getPrice())) {
+            return outliers.get(outlierPrice);
+        }
+        return inLadder;
+    }
+
+    @Override
+    public OrderNode add(Order order) {
+        long price = order.getPriceTicks();
+        if (activeLevels == 0) {
+            recenter(price);
+        }
+        int index = indexOf(price);
+        OrderNode node;
+        if (index < 0) {
+            node = outliers.computeIfAbsent(price, PriceLevel::new).add(order);
+        } else {
+            PriceLevel level = ladder[index];
+            if (level == null) {
+                level = new PriceLevel(price);
+                ladder[index] = level;
+            }
+            if (level.isEmpty()) {
+                level.setPrice(price);
+                activate(index);
+            }
+            node = level.add(order);
+        }
+        keepBestCentred();
+        return node;
+    }
+
+    @Override
+    public void removeLevel(PriceLevel level) {
+        int index = indexOf(level.getPrice());
+        if (index < 0 || ladder[index] != level) {
+            outliers.remove(level.getPrice(), level);
+        } else {
+            activeLevels--;
+            occupied[index >>> 6] &= ~(1L << index);
+            if (index == bestIndex) {
+                bestIndex = nextOccupied(index);
+            }
+        }
+        keepBestCentred();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return activeLevels == 0 && outliers.isEmpty();
+    }
+
+    @Override
+    public void forEachLevel(Consumer<PriceLevel> action) {
+        Iterator<PriceLevel> outlierLevels = outliers.values().iterator();
+        PriceLevel outlier = outlierLevels.hasNext() ? outlierLevels.next() : null;
+        for (int i = nextOccupied(bestIndex); i >= 0; i = nextOccupied(i + step())) {
+            PriceLevel level = ladder[i];
+            if (level.isEmpty()) {
+                continue;
+            }
+            while (outlier != null && isBetter(outlier.getPrice(), level.getPrice())) {
+                action.accept(outlier);
+                outlier = outlierLevels.hasNext() ? outlierLevels.next() : null;
+            }
+            action.accept(level);
+        }
+        while (outlier != null) {
+            action.accept(outlier);
+            outlier = outlierLevels.hasNext() ? outlierLevels.next() : null;
+        }
+    }
+
+    /**
+     * Walks the ladder from the best index and then the outliers; the order does not matter for a sum, and each
+     * walk stops at its first level beyond the limit.
+     */
+    @Override
+    public boolean canFill(long limitPriceTicks, long lots) {
+        long remaining = lots;
+        for (int i = nextOccupied(bestIndex); i >= 0; i = nextOccupied(i + step())) {
+            PriceLevel level = ladder[i];
+            if (level.isEmpty()) {
+                continue;
+            }
+            if (isBetter(limitPriceTicks, level.getPrice())) {
+                break;
+            }
+            remaining -= level.getTotalLots();
+            if (remaining <= 0) {
+                return true;
+            }
+        }
+        if (!outliers.isEmpty()) {
+            for (PriceLevel outlier : outliers.values()) {
+                if (isBetter(limitPriceTicks, outlier.getPrice())) {
+                    break;
+                }
+                remaining -= outlier.getTotalLots();
+                if (remaining <= 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Unlike {@link #canFill}, stopping at the level that covers the amount needs the levels in price order, so the
+     * ladder and the outliers are merged.
+     */
+    @Override
+    public int maxFills(long limitPriceTicks, long lots) {
+        long remaining = lots;
+        int orders = 0;
+        Walk walk = new Walk();
+        for (PriceLevel level = walk.next(); level != null && remaining > 0; level = walk.next()) {
+            if (isBetter(limitPriceTicks, level.getPrice())) {
+                break;
+            }
+            orders += level.getOrderCount();
+            remaining -= level.getTotalLots();
+        }
+        return orders;
+    }
+
+    @Override
+    public long levelPrice(int n) {
+        Walk walk = new Walk();
+        PriceLevel level = walk.next();
+        for (int i = 1; i < n && level != null; i++) {
+            level = walk.next();
+        }
+        return level == null ? -1 : level.getPrice();
+    }
+
+    @Override
+    public LevelDepth level(long priceTicks) {
+        int index = indexOf(priceTicks);
+        PriceLevel level = index < 0 ? outliers.get(priceTicks) : ladder[index];
+        return level == null || level.getOrderCount() == 0 || level.getPrice() != priceTicks ? null : LevelDepth.of(level);
+    }
+
+    /**
+     * Walks the occupied slots from the best index, so the cost follows the levels returned rather than the
+     * ladder size. Retries when the window moved during the walk, and after a few tries waits for the move.
+     */
+    @Override
+    public List<LevelDepth> depth(int maxLevels) {
+        for (int attempt = 0; attempt < OPTIMISTIC_DEPTH_READS; attempt++) {
+            long stamp = window.tryOptimisticRead();
+            if (stamp != 0) {
+                List<LevelDepth> depth = readDepth(maxLevels);
+                if (window.validate(stamp)) {
+                    return depth;
+                }
+            }
+        }
+        long stamp = window.readLock();
+        try {
+            return readDepth(maxLevels);
+        } finally {
+            window.unlockRead(stamp);
+        }
+    }
+
+    private List<LevelDepth> readDepth(int maxLevels) {
+        List<LevelDepth> depth = new ArrayList<>(maxLevels);
+        Iterator<PriceLevel> outlierLevels = outliers.values().iterator();
+        PriceLevel outlier = nextNonEmpty(outlierLevels);
+        long windowBase = base;
+        for (int i = nextOccupied(bestIndex); i >= 0 && depth.size() < maxLevels; i = nextOccupied(i + step())) {
+            PriceLevel level = ladder[i];
+            int orders = level == null ? 0 : level.getOrderCount();
+            if (orders == 0) {
+                continue;
+            }
+            long price = windowBase + i;
+            while (outlier != null && depth.size() < maxLevels && isBetter(outlier.getPrice(), price)) {
+                depth.add(LevelDepth.of(outlier));
+                outlier = nextNonEmpty(outlierLevels);
+            }
+            if (depth.size() < maxLevels) {
+                depth.add(new LevelDepth(price, level.getTotalLots(), orders));
+            }
+        }
+        while (outlier != null && depth.size() < maxLevels) {
+            depth.add(LevelDepth.of(outlier));
+            outlier = nextNonEmpty(outlierLevels);
+        }
+        return depth;
+    }
+
+    private static PriceLevel nextNonEmpty(Iterator<PriceLevel> levels) {
+        while (levels.hasNext()) {
+            PriceLevel level = levels.next();
+            if (level.getOrderCount() > 0) {
+                return level;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Non-empty levels best first, merging the ladder with the outliers. Matching thread only.
+     */
+    private final class Walk {
+
+        private final Iterator<PriceLevel> outlierLevels = outliers.values().iterator();
+        private PriceLevel outlier = nextNonEmpty(outlierLevels);
+        private int index = nextOccupied(bestIndex);
+
+        private PriceLevel next() {
+            while (index >= 0 && ladder[index].isEmpty()) {
+                index = nextOccupied(index + step());
+            }
+            PriceLevel inLadder = index >= 0 ? ladder[index] : null;
+            if (outlier != null && (inLadder == null || isBetter(outlier.getPrice(), inLadder.getPrice()))) {
+                PriceLevel level = outlier;
+                outlier = nextNonEmpty(outlierLevels);
+                return level;
+            }
+            if (inLadder != null) {
+                index = nextOccupied(index + step());
+            }
+            return inLadder;
+        }
+    }
+
+    private void activate(int index) {
+        activeLevels++;
+        occupied[index >>> 6] |= 1L << index;
+        if (bestIndex < 0 || (bids ? index > bestIndex : index < bestIndex)) {
+            bestIndex = index;
+        }
+    }
+
+    /**
+     * First occupied slot at or after {@code from} in best-to-worst order, or -1.
+     */
+    private int nextOccupied(int from) {
+        if (from < 0 || from >= ladder.length) {
+            return -1;
+        }
+        int word = from >>> 6;
+        if (bids) {
+            long bits = occupied[word] & (-1L >>> (63 - (from & 63)));
+            while (bits == 0) {
+                if (--word < 0) {
+                    return -1;
+                }
+                bits = occupied[word];
+            }
+            return (word << 6) + 63 - Long.numberOfLeadingZeros(bits);
+        }
+        long bits = occupied[word] & (-1L << from);
+        while (bits == 0) {
+            if (++word == occupied.length) {
+                return -1;
+            }
+            bits = occupied[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    private int step() {
+        return bids ? -1 : 1;
+    }
+
+    /**
+     * Re-centres on the best price when it is an outlier the touch has moved to (see {@link #touchMovedTo}) or sits
+     * in the outer quarter of the window at either end.
+     */
+    private void keepBestCentred() {
+        int index = bestIndex;
+        if (!outliers.isEmpty()) {
+            long outlierPrice = outliers.firstKey();
+            if (index < 0 || isBetter(outlierPrice, base + index) && touchMovedTo(outlierPrice, base + index)) {
+                recenter(outlierPrice);
+                return;
+            }
+        }
+        int margin = ladder.length / 4;
+        if (index >= 0 && (index < margin || index >= ladder.length - margin)) {
+            recenter(base + index);
+        }
+    }
+
+    /**
+     * Whether a better outlier is near enough to the ladder's best, or has enough better outliers behind it, to be
+     * the new touch rather than a one-off order the window should ignore.
+     */
+    private boolean touchMovedTo(long outlierPrice, long ladderBest) {
+        if (Math.abs(outlierPrice - ladderBest) <= ladder.length / 2) {
+            return true;
+        }
+        int better = 0;
+        for (long price : outliers.keySet()) {
+            if (!isBetter(price, ladderBest)) {
+                return false;
+            }
+            if (++better == FAR_OUTLIER_LEVELS_TO_RECENTRE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int outlierLevels() {
+        return outliers.size();
+    }
+
+    /**
+     * Moves the window to be centred on {@code mid}: active levels leave the array for the outliers, then every
+     * outlier inside the new window takes its slot. Levels already emptied by matching are dropped.
+     */
+    private void recenter(long mid) {
+        long stamp = window.writeLock();
+        try {
+            for (int word = 0; word < occupied.length; word++) {
+                for (long bits = occupied[word]; bits != 0; bits &= bits - 1) {
+                    int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    PriceLevel level = ladder[index];
+                    ladder[index] = null;
+                    if (!level.isEmpty()) {
+                        outliers.put(level.getPrice(), level);
+                    }
+                }
+                occupied[word] = 0;
+            }
+            activeLevels = 0;
+            base = mid - ladder.length / 2;
+            bestIndex = -1;
+            if (outliers.isEmpty()) {
+                return;
+            }
+            Iterator<PriceLevel> it = outliers.values().iterator();
+            while (it.hasNext()) {
+                PriceLevel level = it.next();
+                int index = indexOf(level.getPrice());
+                if (index >= 0) {
+                    ladder[index] = level;
+                    activate(index);
+                    it.remove();
+                }
+            }
+        } finally {
+            window.unlockWrite(stamp);
+        }
+    }
+
+    private int indexOf(long price) {
+        long offset = price - base;
+        return offset >= 0 && offset < ladder.length ? (int) offset : -1;
+    }
+
+    private boolean isBetter(long price, long than) {
+        return bids ? price > than : price < than;
+    }
+}
@@ -0,0 +1,106 @@
+package com.htm.ome.core;
+
+import com.htm.ome.model.Order;
+
+import java.util.function.Consumer;
+
+/**
+ * All resting orders of one side at one price, in FIFO order, kept as an intrusive doubly
+ * linked list so any order can be unlinked in constant time.
+ * Not thread safe: callers serialize access per asset. Only the price and the aggregates
+ * ({@link #getTotalLots()}, {@link #getOrderCount()}) may be read from other threads.
+ */
+public class PriceLevel {
+
+    private volatile long price;
+    private volatile long totalLots;
+    private volatile int orderCount;
+    private OrderNode head;
+    private OrderNode tail;
+
+    public PriceLevel(long price) {
+        this.price = price;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    void setPrice(long price) {
+        this.price = price;
+    }
+
+    /**
+     * Unfilled quantity of all orders at this level.
+     */
+    public long getTotalLots() {
+        return totalLots;
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    /**
+     * Takes a fill against one of this level's orders off the aggregate quantity.
+     */
+    void filled(long lots) {
+        totalLots -= lots;
+    }
+
+    public boolean isEmpty() {
+        return head == null;
+    }
+
+    public Order peekFirst() {
+        return head == null ? null : head.order;
+    }
+
+    public Order pollFirst() {
+        OrderNode first = head;
+        if (first == null) {
+            return null;
+        }
+        remove(first);
+        return first.order;
+    }
+
+    public OrderNode add(Order order) {
+        OrderNode node = new OrderNode(order);
+        node.level = this;
+        node.prev = tail;
+        if (tail == null) {
+            head = node;
+        } else {
+            tail.next = node;
+        }
+        tail = node;
+        totalLots += order.getPendingLots();
+        orderCount++;
+        return node;
+    }
+
+    void remove(OrderNode node) {
+        if (node.prev == null) {
+            head = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+        node.level = null;
+        totalLots -= node.order.getPendingLots();
+        orderCount--;
+    }
+
+    public void forEach(Consumer<Order> action) {
+        for (OrderNode node = head; node != null; node = node.next) {
+            action.accept(node.order);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.htm.ome.core;
+
+import com.htm.ome.metrics.EngineMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Gives every asset its own {@link AssetSequencer}, i.e. one dedicated matching thread
+ * fed through a bounded ring buffer. Matching runs lock-free on that thread; the time a command
+ * spends in the ring is recorded as queue wait.
+ */
+@Slf4j
+public class SequencedAssetExecutor implements AssetExecutor, AutoCloseable {
+
+    private final int ringSize;
+    private final EngineMetrics metrics;
+    private final AssetTable<AssetSequencer> sequencers = new AssetTable<>();
+
+    public SequencedAssetExecutor(int ringSize) {
+        this(ringSize, EngineMetrics.disabled());
+    }
+
+    public SequencedAssetExecutor(int ringSize, EngineMetrics metrics) {
+        this.ringSize = ringSize;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(int assetId, String asset, Callable<T> task) {
+        AssetSequencer sequencer = sequencers.get(assetId);
+        if (sequencer == null) {
+            sequencer = sequencers.computeIfAbsent(assetId, id -> newSequencer(asset));
+        }
+        return sequencer.submit(task);
+    }
+
+    private AssetSequencer newSequencer(String asset) {
+        log.info("Starting sequencer for asset={} ringSize={}", asset, ringSize);
+        return new AssetSequencer("ome-sequencer-" + asset, ringSize, metrics);
+    }
+
+    @Override
+    public void drain() {
+        close();
+    }
+
+    @Override
+    public void close() {
+        sequencers.forEach(AssetSequencer::close);
+        sequencers.clear();
+    }
+}
@@ -0,0 +1,67 @@
+package com.htm.ome.core;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Deterministic asset-to-shard assignment. Explicitly assigned assets go to their shard; the other configured
+ * assets are dealt round-robin, in configuration order, over the shards nobody was explicitly assigned to
+ * (over all shards when every shard has an explicit asset), so a hot asset can be given a shard of its own.
+ * Assets that are not configured fall back to a hash of their name.
+ */
+public class ShardMapping {
+
+    private final int shardCount;
+    private final Map<String, Integer> shards = new HashMap<>();
+
+    public ShardMapping(int shardCount, List<String> assets, Map<String, Integer> assignments) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive, was " + shardCount);
+        }
+        this.shardCount = shardCount;
+        assignments.forEach((asset, shard) -> {
+            if (shard < 0 || shard >= shardCount) {
+                throw new IllegalArgumentException("Asset " + asset + " is assigned to shard " + shard
+                        + " but there are only " + shardCount + " shards");
+            }
+            shards.put(asset, shard);
+        });
+        int[] free = IntStream.range(0, shardCount).filter(s -> !assignments.containsValue(s)).toArray();
+        int[] pool = free.length > 0 ? free : IntStream.range(0, shardCount).toArray();
+        int next = 0;
+        for (String asset : assets) {
+            if (!shards.containsKey(asset)) {
+                shards.put(asset, pool[next++ % pool.length]);
+            }
+        }
+    }
+
+    /**
+     * Parses {@code ASSET:shard} pairs separated by commas, e.g. {@code BTC:0,ETH:1}.
+     */
+    public static Map<String, Integer> parseAssignments(String prop) {
+        Map<String, Integer> assignments = new HashMap<>();
+        for (String pair : prop.split(",")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            String[] parts = pair.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected ASSET:shard but got '" + pair.trim() + "'");
+            }
+            assignments.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return assignments;
+    }
+
+    public int shardOf(String asset) {
+        Integer shard = shards.get(asset);
+        return shard != null ? shard : Math.floorMod(asset.hashCode(), shardCount);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+}
@@ -0,0 +1,60 @@
+package com.htm.ome.core;
+
+import com.htm.ome.metrics.EngineMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs every asset on the one engine shard its {@link ShardMapping} assigns it to. A shard is an
+ * {@link AssetSequencer}: a dedicated thread fed by a ring buffer that alone touches the books of its assets,
+ * so they stay in that core's caches. Shards can be pinned to CPUs through {@link ThreadAffinity}.
+ */
+@Slf4j
+public class ShardedAssetExecutor implements AssetExecutor, AutoCloseable {
+
+    private final ShardMapping mapping;
+    private final AssetSequencer[] shards;
+    private final AssetTable<AssetSequencer> shardByAsset = new AssetTable<>();
+
+    public ShardedAssetExecutor(ShardMapping mapping, int ringSize) {
+        this(mapping, ringSize, List.of(), EngineMetrics.disabled());
+    }
+
+    /**
+     * @param cpus CPU of each shard by shard index; shards beyond the list are not pinned
+     */
+    public ShardedAssetExecutor(ShardMapping mapping, int ringSize, List<Integer> cpus, EngineMetrics metrics) {
+        this.mapping = mapping;
+        this.shards = new AssetSequencer[mapping.shardCount()];
+        for (int i = 0; i < shards.length; i++) {
+            Integer cpu = i < cpus.size() ? cpus.get(i) : null;
+            Runnable onStart = cpu == null ? () -> { } : () -> ThreadAffinity.pinCurrentThread(cpu);
+            shards[i] = new AssetSequencer("ome-shard-" + i, ringSize, metrics, onStart);
+        }
+        log.info("Started engine shards count={} ringSize={} cpus={}", shards.length, ringSize, cpus);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(int assetId, String asset, Callable<T> task) {
+        AssetSequencer shard = shardByAsset.get(assetId);
+        if (shard == null) {
+            shard = shardByAsset.computeIfAbsent(assetId, id -> shards[mapping.shardOf(asset)]);
+        }
+        return shard.submit(task);
+    }
+
+    @Override
+    public void drain() {
+        close();
+    }
+
+    @Override
+    public void close() {
+        for (AssetSequencer shard : shards) {
+            shard.close();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.htm.ome.core;
+
+import com.htm.ome.model.Order;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+public class SkipListBookSide implements BookSide {
+
+    private final boolean bids;
+    private final ConcurrentSkipListMap<Long, PriceLevel> levels;
+    /**
+     * Kept by the matching thread so {@link #best()} avoids the entry snapshot {@code firstEntry()} allocates.
+     */
+    private PriceLevel best;
+
+    public SkipListBookSide(boolean bids) {
+        this.bids = bids;
+        this.levels = bids ? new ConcurrentSkipListMap<>(Comparator.reverseOrder()) : new ConcurrentSkipListMap<>();
+    }
+
+    @Override
+    public PriceLevel best() {
+        return best;
+    }
+
+    @Override
+    public OrderNode add(Order order) {
+        PriceLevel level = levels.computeIfAbsent(order.getPriceTicks(), PriceLevel::new);
+        if (best == null || (bids ? level.getPrice() > best.getPrice() : level.getPrice() < best.getPrice())) {
+            best = level;
+        }
+        return level.add(order);
+    }
+
+    @Override
+    public void removeLevel(PriceLevel level) {
+        levels.remove(level.getPrice(), level);
+        if (level == best) {
+            Map.Entry<Long, PriceLevel> first = levels.firstEntry();
+            best = first == null ? null : first.getValue();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return levels.isEmpty();
+    }
+
+    @Override
+    public void forEachLevel(Consumer<PriceLevel> action) {
+        levels.values().forEach(action);
+    }
+
+    @Override
+    public boolean canFill(long limitPriceTicks, long lots) {
+        long remaining = lots;
+        for (PriceLevel level : levels.values()) {
+            if (bids ? level.getPrice() < limitPriceTicks : level.getPrice() > limitPriceTicks) {
+                break;
+            }
+            remaining -= level.getTotalLots();
+            if (remaining <= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int maxFills(long limitPriceTicks, long lots) {
+        long remaining = lots;
+        int orders = 0;
+        for (PriceLevel level : levels.values()) {
+            if (remaining <= 0 || (bids ? level.getPrice() < limitPriceTicks : level.getPrice() > limitPriceTicks)) {
+                break;
+            }
+            orders += level.getOrderCount();
+            remaining -= level.getTotalLots();
+        }
+        return orders;
+    }
+
+    @Override
+    public long levelPrice(int n) {
+        int seen = 0;
+        for (PriceLevel level : levels.values()) {
+            if (level.getOrderCount() > 0 && ++seen == n) {
+                return level.getPrice();
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public LevelDepth level(long priceTicks) {
+        PriceLevel level = levels.get(priceTicks);
+        return level == null || level.getOrderCount() == 0 ? null : LevelDepth.of(level);
+    }
+
+    @Override
+    public List<LevelDepth> depth(int maxLevels) {
+        List<LevelDepth> depth = new ArrayList<>(maxLevels);
+        for (PriceLevel level : levels.values()) {
+            if (depth.size() == maxLevels) {
+                break;
+            }
+            if (level.getOrderCount() > 0) {
+                depth.add(LevelDepth.of(level));
+            }
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,48 @@
+package com.htm.ome.core;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Pins the calling thread to one CPU without native code: on Linux the thread's kernel id is read from
+ * {@code /proc/thread-self} and handed to {@code taskset}. Anywhere else, or when {@code taskset} is missing,
+ * pinning is skipped with a warning and the thread simply keeps running unpinned.
+ */
+@Slf4j
+public final class ThreadAffinity {
+
+    private static final Path THREAD_SELF = Path.of("/proc/thread-self");
+
+    private ThreadAffinity() {
+    }
+
+    /**
+     * Returns true when the calling thread is now restricted to {@code cpu}.
+     */
+    public static boolean pinCurrentThread(int cpu) {
+        String name = Thread.currentThread().getName();
+        try {
+            Path task = Files.readSymbolicLink(THREAD_SELF);
+            String tid = task.getFileName().toString();
+            Process taskset = new ProcessBuilder("taskset", "-p", "-c", Integer.toString(cpu), tid)
+                    .redirectErrorStream(true)
+                    .start();
+            String output = new String(taskset.getInputStream().readAllBytes()).trim();
+            if (taskset.waitFor() != 0) {
+                log.warn("Could not pin thread={} to cpu={}: {}", name, cpu, output);
+                return false;
+            }
+            log.info("Pinned thread={} tid={} to cpu={}", name, tid, cpu);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("CPU pinning is not available, thread={} runs unpinned: {}", name, e.toString());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.htm.ome.diagnostics;
+
+import com.htm.ome.dto.PinningReport;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Streams JFR {@code jdk.VirtualThreadPinned} events in-process and aggregates them by the top frames
+ * of the pinned stack, so pinning seen under load can be read back without attaching a profiler.
+ */
+@Slf4j
+public class PinningMonitor implements AutoCloseable {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int STACK_DEPTH = 6;
+
+    private final RecordingStream stream = new RecordingStream();
+    private final Map<String, PinnedSite> sites = new ConcurrentHashMap<>();
+    private final LongAdder events = new LongAdder();
+
+    public PinningMonitor(Duration threshold) {
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::record);
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started threshold={}", threshold);
+    }
+
+    public PinningReport report() {
+        List<PinningReport.Site> top = sites.entrySet().stream()
+                .map(e -> PinningReport.Site.builder()
+                        .stack(e.getKey())
+                        .count(e.getValue().count.sum())
+                        .totalMillis(e.getValue().totalNanos.sum() / 1_000_000.0)
+                        .maxMillis(e.getValue().maxNanos.get() / 1_000_000.0)
+                        .build())
+                .sorted(Comparator.comparingLong(PinningReport.Site::getCount).reversed())
+                .toList();
+        return PinningReport.builder()
+                .events(events.sum())
+                .sites(top)
+                .build();
+    }
+
+    private void record(RecordedEvent event) {
+        PinnedSite site = sites.computeIfAbsent(topFrames(event.getStackTrace()), s -> new PinnedSite());
+        long nanos = event.getDuration().toNanos();
+        site.count.increment();
+        site.totalNanos.add(nanos);
+        site.maxNanos.accumulateAndGet(nanos, Math::max);
+        events.increment();
+    }
+
+    private static String topFrames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "<no stack trace>";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(STACK_DEPTH)
+                .map(PinningMonitor::frame)
+                .collect(Collectors.joining(" <- "));
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    private static final class PinnedSite {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+    }
+}
@@ -0,0 +1,12 @@
+package com.htm.ome.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@ToString
+@Builder
+public class AssetResponse {
+    private Integer id;
+    private String symbol;
+}
@@ -0,0 +1,20 @@
+package com.htm.ome.dto;
+
+import lombok.*;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@Builder
+public class BookDepthResponse {
+    private String asset;
+
+    private OffsetDateTime timestamp;
+
+    private List<BookLevel> bids;
+
+    private List<BookLevel> asks;
+}
@@ -0,0 +1,18 @@
+package com.htm.ome.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+@Getter
+@Setter
+@ToString
+@Builder
+public class BookLevel {
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "0.00")
+    private Double price;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "0.00")
+    private Double amount;
+
+    private Integer orders;
+}
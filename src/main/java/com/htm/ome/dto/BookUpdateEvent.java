@@ -0,0 +1,25 @@
+package com.htm.ome.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.htm.ome.enums.OrderDirection;
+import lombok.*;
+
+@Getter
+@Setter
+@ToString
+@Builder
+public class BookUpdateEvent {
+    private String asset;
+
+    private Long sequence;
+
+    private OrderDirection side;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "0.00")
+    private Double price;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "0.00")
+    private Double amount;
+
+    private Integer orders;
+}
@@ -0,0 +1,21 @@
+package com.htm.ome.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+/**
+ * All fills of one order at one price, summed.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+public class FillLevel {
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "0.00")
+    private Double price;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "0.00")
+    private Double amount;
+
+    private Integer trades;
+}
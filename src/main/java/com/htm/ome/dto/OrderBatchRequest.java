@@ -0,0 +1,20 @@
+package com.htm.ome.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+public class OrderBatchRequest {
+    @NotEmpty(message = "orders must not be empty")
+    @Size(max = 1000, message = "a batch may contain at most 1000 orders")
+    @Valid
+    private List<OrderRequest> orders;
+}
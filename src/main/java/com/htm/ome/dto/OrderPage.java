@@ -0,0 +1,18 @@
+package com.htm.ome.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@Builder
+public class OrderPage {
+    private List<OrderResponse> orders;
+
+    /**
+     * Pass as {@code cursor} to get the next page; null when this page was not full.
+     */
+    private Long nextCursor;
+}
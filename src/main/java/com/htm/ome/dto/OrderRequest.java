@@ -1,9 +1,14 @@
 package com.htm.ome.dto;
 
 import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderType;
+import com.htm.ome.enums.TimeInForce;
 import com.htm.ome.validation.ValidAsset;
+import com.htm.ome.validation.ValidOrderType;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
@@ -13,12 +18,15 @@ import lombok.ToString;
 @Getter
 @Setter
 @ToString
+@ValidOrderType
 public class OrderRequest {
     @NotBlank(message = "asset is required")
     @ValidAsset
     private String asset;
 
-    @NotNull(message = "price is required")
+    /**
+     * Required for limit orders, absent for market orders.
+     */
     @DecimalMin(value = "0.01", inclusive = true, message = "price must be >= 0.01")
     @Digits(integer = 12, fraction = 2, message = "price must have up to 2 decimal places")
     private Double price;
@@ -30,4 +38,27 @@ public class OrderRequest {
 
     @NotNull(message = "direction is required")
     private OrderDirection direction;
+
+    /**
+     * LIMIT when omitted.
+     */
+    private OrderType type;
+
+    /**
+     * GTC when omitted; market orders are always IOC.
+     */
+    private TimeInForce timeInForce;
+
+    /**
+     * Market orders only: most price levels the sweep may take liquidity from.
+     */
+    @Min(value = 1, message = "maxLevels must be >= 1")
+    private Integer maxLevels;
+
+    /**
+     * Market orders only: how far, in basis points of the best opposite price on arrival, the sweep may go.
+     */
+    @Min(value = 1, message = "maxSlippageBps must be >= 1")
+    @Max(value = 10000, message = "maxSlippageBps must be <= 10000")
+    private Integer maxSlippageBps;
 }
@@ -1,7 +1,11 @@
 package com.htm.ome.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.enums.OrderType;
+import com.htm.ome.enums.TimeInForce;
 import lombok.*;
 
 import java.time.OffsetDateTime;
@@ -29,5 +33,21 @@ public class OrderResponse {
 
     private OrderDirection direction;
 
+    private OrderType type;
+
+    private OrderStatus status;
+
+    private TimeInForce timeInForce;
+
+    /**
+     * Every fill of a limit order with its counterparty.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<Trade> trades;
+
+    /**
+     * Fills of a market order summed per price level, in sweep order.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<FillLevel> fills;
 }
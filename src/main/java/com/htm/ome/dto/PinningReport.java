@@ -0,0 +1,29 @@
+package com.htm.ome.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@Builder
+public class PinningReport {
+    private Long events;
+
+    private List<Site> sites;
+
+    @Getter
+    @Setter
+    @ToString
+    @Builder
+    public static class Site {
+        private String stack;
+
+        private Long count;
+
+        private Double totalMillis;
+
+        private Double maxMillis;
+    }
+}
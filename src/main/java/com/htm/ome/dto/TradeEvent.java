@@ -0,0 +1,28 @@
+package com.htm.ome.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+@Getter
+@Setter
+@ToString
+@Builder
+public class TradeEvent {
+    private String asset;
+
+    private Long sequence;
+
+    private Long buyOrderId;
+
+    private Long sellOrderId;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "0.00")
+    private Double amount;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "0.00")
+    private Double price;
+
+    private OffsetDateTime timestamp;
+}
@@ -1,5 +1,5 @@
 package com.htm.ome.enums;
 
 public enum OrderStatus {
-    OPEN, PARTIALLY_FILLED, FILLED
+    OPEN, PARTIALLY_FILLED, FILLED, CANCELLED
 }
@@ -0,0 +1,5 @@
+package com.htm.ome.enums;
+
+public enum OrderType {
+    LIMIT, MARKET
+}
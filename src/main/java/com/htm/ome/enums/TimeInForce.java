@@ -0,0 +1,9 @@
+package com.htm.ome.enums;
+
+/**
+ * How long an order stays in the book: good till cancelled rests its remainder, immediate-or-cancel drops it,
+ * and fill-or-kill trades only when the whole amount is available at once.
+ */
+public enum TimeInForce {
+    GTC, IOC, FOK
+}
@@ -0,0 +1,11 @@
+package com.htm.ome.exception;
+
+/**
+ * A cancel for an order that no longer rests in the book, because it was filled or cancelled already.
+ */
+public class OrderNotCancellableException extends RuntimeException {
+
+    public OrderNotCancellableException(String message) {
+        super(message);
+    }
+}
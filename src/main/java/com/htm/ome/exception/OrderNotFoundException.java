@@ -0,0 +1,11 @@
+package com.htm.ome.exception;
+
+/**
+ * A lookup or cancel for an order id the store does not know, answered like any other bad argument.
+ */
+public class OrderNotFoundException extends IllegalArgumentException {
+
+    public OrderNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.htm.ome.feed;
+
+import java.io.IOException;
+
+/**
+ * Transport a subscriber's events are written to. Only ever called from the feed's writer threads, one at a time per subscriber.
+ */
+public interface FeedSink {
+
+    void send(String eventName, Object data) throws IOException;
+
+    void close(Throwable error);
+}
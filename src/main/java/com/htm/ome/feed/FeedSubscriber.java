@@ -0,0 +1,114 @@
+package com.htm.ome.feed;
+
+import com.htm.ome.dto.BookUpdateEvent;
+import com.htm.ome.dto.TradeEvent;
+import com.htm.ome.enums.OrderDirection;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One feed subscriber. The matching thread only enqueues: trades go to a bounded queue, book updates
+ * replace the pending update for the same level (conflation), and a writer thread drains both.
+ * A subscriber whose trade queue overflows is disconnected rather than slowing the producer down.
+ */
+@Slf4j
+final class FeedSubscriber {
+
+    private final String asset;
+    private final FeedSink sink;
+    private final Executor dispatcher;
+    private final ArrayBlockingQueue<TradeEvent> trades;
+    private final Map<LevelKey, BookUpdateEvent> levels = new ConcurrentHashMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final Runnable onClose;
+
+    FeedSubscriber(String asset, FeedSink sink, Executor dispatcher, int bufferSize, Runnable onClose) {
+        this.asset = asset;
+        this.sink = sink;
+        this.dispatcher = dispatcher;
+        this.trades = new ArrayBlockingQueue<>(bufferSize);
+        this.onClose = onClose;
+    }
+
+    void offerTrade(TradeEvent event) {
+        if (closed.get()) {
+            return;
+        }
+        if (!trades.offer(event)) {
+            log.warn("Feed subscriber for asset={} fell behind by {} trades, disconnecting", asset, trades.size());
+            close(new IllegalStateException("Subscriber fell behind the trade feed"));
+            return;
+        }
+        schedule();
+    }
+
+    void offerLevel(BookUpdateEvent event) {
+        if (closed.get()) {
+            return;
+        }
+        levels.put(new LevelKey(event.getSide(), event.getPrice()), event);
+        schedule();
+    }
+
+    void close(Throwable error) {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        onClose.run();
+        trades.clear();
+        levels.clear();
+        try {
+            dispatcher.execute(() -> sink.close(error));
+        } catch (RejectedExecutionException e) {
+            sink.close(error);
+        }
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                close(e);
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            do {
+                TradeEvent trade;
+                while (!closed.get() && (trade = trades.poll()) != null) {
+                    sink.send("trade", trade);
+                }
+                Iterator<Map.Entry<LevelKey, BookUpdateEvent>> it = levels.entrySet().iterator();
+                while (!closed.get() && it.hasNext()) {
+                    Map.Entry<LevelKey, BookUpdateEvent> level = it.next();
+                    if (levels.remove(level.getKey(), level.getValue())) {
+                        sink.send("book", level.getValue());
+                    }
+                }
+                scheduled.set(false);
+            } while (!closed.get() && (!trades.isEmpty() || !levels.isEmpty()) && scheduled.compareAndSet(false, true));
+        } catch (Exception e) {
+            log.debug("Feed subscriber for asset={} disconnected: {}", asset, e.toString());
+            scheduled.set(false);
+            close(null);
+        }
+    }
+
+    private record LevelKey(OrderDirection side, Double price) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.htm.ome.feed;
+
+import com.htm.ome.core.FillBuffer;
+import com.htm.ome.core.LevelDepth;
+import com.htm.ome.core.MatchEngine;
+import com.htm.ome.dto.BookUpdateEvent;
+import com.htm.ome.dto.TradeEvent;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.TimeInForce;
+import com.htm.ome.model.Order;
+import com.htm.ome.util.EpochNanos;
+import com.htm.ome.util.FixedPoint;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Push feed of trades and book-level changes per asset. The {@code on*} methods are called on the
+ * asset's matching thread right after the engine has changed the book; they only build events and
+ * hand them to subscribers. Each subscriber is written out by its own short-lived virtual thread, so a
+ * blocked socket stalls only that subscriber. Events of one asset carry an increasing sequence;
+ * conflated book updates skip sequences.
+ */
+@Slf4j
+public class MarketFeed implements AutoCloseable {
+
+    private final MatchEngine matchEngine;
+    private final int bufferSize;
+    private final ExecutorService dispatcher;
+    private final Map<String, AssetFeed> feeds = new ConcurrentHashMap<>();
+
+    public MarketFeed(MatchEngine matchEngine, int bufferSize) {
+        this.matchEngine = matchEngine;
+        this.bufferSize = bufferSize;
+        this.dispatcher = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ome-feed-", 0).factory());
+    }
+
+    /**
+     * Registers a sink for an asset's events and returns the action that unsubscribes it.
+     */
+    public Runnable subscribe(String asset, FeedSink sink) {
+        AssetFeed feed = feeds.computeIfAbsent(asset, a -> new AssetFeed());
+        FeedSubscriber[] self = new FeedSubscriber[1];
+        self[0] = new FeedSubscriber(asset, sink, dispatcher, bufferSize, () -> feed.subscribers.remove(self[0]));
+        feed.subscribers.add(self[0]);
+        log.info("Feed subscriber added asset={} subscribers={}", asset, feed.subscribers.size());
+        return () -> self[0].close(null);
+    }
+
+    /**
+     * Publishes the trades of an order that has just been matched and booked, plus the levels they touched.
+     */
+    public void onOrder(Order order, FillBuffer fills) {
+        AssetFeed feed = feeds.get(order.getAsset());
+        if (feed == null || feed.subscribers.isEmpty()) {
+            return;
+        }
+        OrderDirection restingSide = order.getDirection() == OrderDirection.BUY ? OrderDirection.SELL : OrderDirection.BUY;
+        long lastPrice = Long.MIN_VALUE;
+        for (int i = 0; i < fills.size(); i++) {
+            TradeEvent event = TradeEvent.builder()
+                    .asset(order.getAsset())
+                    .sequence(++feed.sequence)
+                    .buyOrderId(fills.buyOrderId(i))
+                    .sellOrderId(fills.sellOrderId(i))
+                    .amount(FixedPoint.toDecimal(fills.amountLots(i)))
+                    .price(FixedPoint.toDecimal(fills.priceTicks(i)))
+                    .timestamp(EpochNanos.toOffsetDateTime(fills.epochNanos(i)))
+                    .build();
+            feed.subscribers.forEach(s -> s.offerTrade(event));
+        }
+        for (int i = 0; i < fills.size(); i++) {
+            if (fills.priceTicks(i) != lastPrice) {
+                lastPrice = fills.priceTicks(i);
+                publishLevel(feed, order.getAsset(), restingSide, lastPrice);
+            }
+        }
+        if (order.getPendingLots() > 0 && order.getTimeInForce() == TimeInForce.GTC) {
+            publishLevel(feed, order.getAsset(), order.getDirection(), order.getPriceTicks());
+        }
+    }
+
+    /**
+     * Publishes the level a cancelled order has just left.
+     */
+    public void onCancel(Order order) {
+        AssetFeed feed = feeds.get(order.getAsset());
+        if (feed == null || feed.subscribers.isEmpty()) {
+            return;
+        }
+        publishLevel(feed, order.getAsset(), order.getDirection(), order.getPriceTicks());
+    }
+
+    private void publishLevel(AssetFeed feed, String asset, OrderDirection side, long priceTicks) {
+        LevelDepth level = matchEngine.level(asset, side, priceTicks);
+        BookUpdateEvent event = BookUpdateEvent.builder()
+                .asset(asset)
+                .sequence(++feed.sequence)
+                .side(side)
+                .price(FixedPoint.toDecimal(priceTicks))
+                .amount(FixedPoint.toDecimal(level.lots()))
+                .orders(level.orders())
+                .build();
+        feed.subscribers.forEach(s -> s.offerLevel(event));
+    }
+
+    @Override
+    public void close() {
+        feeds.values().forEach(feed -> feed.subscribers.forEach(s -> s.close(null)));
+        dispatcher.shutdown();
+        try {
+            dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class AssetFeed {
+        private final List<FeedSubscriber> subscribers = new CopyOnWriteArrayList<>();
+        /** Written only by the asset's matching thread (or under its lock). */
+        private long sequence;
+    }
+}
@@ -0,0 +1,32 @@
+package com.htm.ome.feed;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+public class SseFeedSink implements FeedSink {
+
+    private final SseEmitter emitter;
+
+    public SseFeedSink(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void send(String eventName, Object data) throws IOException {
+        emitter.send(SseEmitter.event().name(eventName).data(data));
+    }
+
+    @Override
+    public void close(Throwable error) {
+        try {
+            if (error == null) {
+                emitter.complete();
+            } else {
+                emitter.completeWithError(error);
+            }
+        } catch (IllegalStateException e) {
+            // already completed by the container
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.htm.ome.gateway;
+
+import com.htm.ome.enums.OrderDirection;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Blocking client for {@link BinaryOrderGateway} with one request in flight at a time, for tools and tests.
+ * Not thread safe.
+ */
+public class BinaryOrderClient implements AutoCloseable {
+
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BinaryProtocol.NEW_ORDER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer in = ByteBuffer.allocateDirect(BinaryProtocol.MAX_FRAME_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private long nextCorrelationId = 1;
+
+    public BinaryOrderClient(InetSocketAddress address) {
+        try {
+            channel = SocketChannel.open(address);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to connect to binary gateway " + address, e);
+        }
+    }
+
+    /**
+     * Sends a limit order and waits for its execution report. A reject throws {@link GatewayRejectException}.
+     */
+    public ExecutionReport newOrder(String asset, long priceTicks, long amountLots, OrderDirection direction) {
+        out.clear();
+        BinaryProtocol.putNewOrder(out, nextCorrelationId++, asset, priceTicks, amountLots, direction);
+        return call();
+    }
+
+    public ExecutionReport cancel(long orderId) {
+        out.clear();
+        BinaryProtocol.putCancel(out, nextCorrelationId++, orderId);
+        return call();
+    }
+
+    private ExecutionReport call() {
+        try {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            ExecutionReport report = readFrame();
+            if (!report.more()) {
+                return report;
+            }
+            List<ExecutionReport.Fill> fills = new ArrayList<>(report.fills());
+            do {
+                report = readFrame();
+                fills.addAll(report.fills());
+            } while (report.more());
+            return new ExecutionReport(report.correlationId(), report.orderId(), report.priceTicks(),
+                    report.amountLots(), report.pendingLots(), report.direction(), report.status(), fills, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Binary gateway call failed", e);
+        }
+    }
+
+    /**
+     * Reads and decodes one frame, keeping any bytes of the next one for the following read.
+     */
+    private ExecutionReport readFrame() throws IOException {
+        readAtLeast(BinaryProtocol.HEADER_SIZE);
+        int length = in.getInt(0);
+        readAtLeast(length);
+        in.flip();
+        try {
+            return BinaryProtocol.readReply(in);
+        } finally {
+            in.position(length);
+            in.compact();
+        }
+    }
+
+    private void readAtLeast(int bytes) throws IOException {
+        while (in.position() < bytes) {
+            if (channel.read(in) < 0) {
+                throw new EOFException("Binary gateway closed the connection");
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
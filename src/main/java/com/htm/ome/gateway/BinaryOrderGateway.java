@@ -0,0 +1,366 @@
+package com.htm.ome.gateway;
+
+import com.htm.ome.core.AssetRegistry;
+import com.htm.ome.dto.OrderResponse;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.exception.OrderNotCancellableException;
+import com.htm.ome.exception.OrderNotFoundException;
+import com.htm.ome.service.OrderService;
+import com.htm.ome.util.LongIntHashMap;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static com.htm.ome.gateway.BinaryProtocol.*;
+
+/**
+ * Binary order entry over TCP (see {@link BinaryProtocol}), served by one selector thread next to the REST API.
+ * Frames are decoded in place from each connection's direct read buffer into {@link OrderService} calls, so the
+ * engine path is the same as for REST minus JSON and HTTP. Replies are encoded on the thread completing the order
+ * and handed back to the selector thread, which writes them in completion order (correlate them by id). A client
+ * that stops reading has its connection closed once more than {@code maxPendingBytes} of replies wait for it.
+ */
+@Slf4j
+public class BinaryOrderGateway implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_PENDING_BYTES = 4 * 1024 * 1024;
+    private static final int READ_BUFFER_SIZE = 2 * MAX_FRAME_SIZE;
+    private static final OrderDirection[] DIRECTIONS = OrderDirection.values();
+
+    private final OrderService orderService;
+    private final AssetRegistry assetRegistry;
+    private final LongIntHashMap assetIndex;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final Queue<Reply> replies = new ConcurrentLinkedQueue<>();
+    private final Thread selectorThread;
+    private final int maxPendingBytes;
+    private volatile boolean running = true;
+
+    public BinaryOrderGateway(OrderService orderService, AssetRegistry assetRegistry, InetSocketAddress address) {
+        this(orderService, assetRegistry, address, DEFAULT_MAX_PENDING_BYTES);
+    }
+
+    public BinaryOrderGateway(OrderService orderService, AssetRegistry assetRegistry, InetSocketAddress address,
+                              int maxPendingBytes) {
+        this.orderService = orderService;
+        this.maxPendingBytes = maxPendingBytes;
+        this.assetRegistry = assetRegistry;
+        this.assetIndex = new LongIntHashMap(Math.max(16, assetRegistry.size()));
+        try {
+            selector = Selector.open();
+            server = ServerSocketChannel.open();
+            server.bind(address);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to start binary gateway on " + address, e);
+        }
+        selectorThread = new Thread(this::run, "ome-gateway");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        log.info("Binary order gateway listening on {}", server.socket().getLocalSocketAddress());
+    }
+
+    public int port() {
+        return server.socket().getLocalPort();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select();
+                flushReplies();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            } catch (IOException e) {
+                log.error("Binary gateway selector failed", e);
+            }
+        }
+    }
+
+    /**
+     * Failures are contained to the key they happen on: a client's connection is closed, while the server key
+     * survives a failed accept.
+     */
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        try {
+            Connection connection = (Connection) key.attachment();
+            if (key.isReadable()) {
+                read(connection);
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.flush();
+            }
+        } catch (IOException e) {
+            log.info("Binary gateway connection closed: {}", e.toString());
+            close(key);
+        } catch (RuntimeException e) {
+            log.error("Binary gateway dropping client after an unexpected error", e);
+            close(key);
+        }
+    }
+
+    private void accept() {
+        SocketChannel channel = null;
+        try {
+            channel = server.accept();
+            if (channel == null) {
+                return;
+            }
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key));
+            log.info("Binary gateway client connected {}", channel.getRemoteAddress());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Binary gateway failed to accept a client: {}", e.toString());
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException closing) {
+                    log.warn("Unable to close binary gateway connection", closing);
+                }
+            }
+        }
+    }
+
+    private void read(Connection connection) throws IOException {
+        ByteBuffer in = connection.in;
+        if (connection.channel.read(in) < 0) {
+            close(connection.key);
+            return;
+        }
+        in.flip();
+        while (in.remaining() >= HEADER_SIZE) {
+            int start = in.position();
+            int length = in.getInt(start);
+            if (length < HEADER_SIZE || length > MAX_FRAME_SIZE) {
+                log.warn("Binary gateway dropping client sending a frame of {} bytes", length);
+                close(connection.key);
+                return;
+            }
+            if (in.remaining() < length) {
+                break;
+            }
+            onFrame(connection, in, start, length);
+            if (!connection.key.isValid()) {
+                return;
+            }
+            in.position(start + length);
+        }
+        in.compact();
+    }
+
+    private void onFrame(Connection connection, ByteBuffer in, int start, int length) {
+        short templateId = in.getShort(start + 4);
+        long correlationId = length >= HEADER_SIZE + 8 ? in.getLong(start + HEADER_SIZE) : 0;
+        if (in.getShort(start + 6) != VERSION) {
+            reply(connection, reject(correlationId, RejectReason.UNSUPPORTED_VERSION));
+        } else if (templateId == NEW_ORDER && length == NEW_ORDER_SIZE) {
+            int at = start + HEADER_SIZE + 8;
+            onNewOrder(connection, correlationId, in.getLong(at), in.getLong(at + 8), in.getLong(at + 16), in.get(at + 24));
+        } else if (templateId == CANCEL && length == CANCEL_SIZE) {
+            onCancel(connection, correlationId, in.getLong(start + HEADER_SIZE + 8));
+        } else {
+            reply(connection, reject(correlationId, RejectReason.UNKNOWN_MESSAGE));
+        }
+    }
+
+    private void onNewOrder(Connection connection, long correlationId, long assetKey, long priceTicks,
+                            long amountLots, byte side) {
+        int asset = assetId(assetKey);
+        if (asset < 0) {
+            reply(connection, reject(correlationId, RejectReason.UNKNOWN_ASSET));
+            return;
+        }
+        if (priceTicks <= 0 || amountLots <= 0 || side < 0 || side >= DIRECTIONS.length) {
+            reply(connection, reject(correlationId, RejectReason.INVALID_QUANTITY));
+            return;
+        }
+        complete(connection, correlationId,
+                () -> orderService.createOrderAsync(assetRegistry.symbol(asset), priceTicks, amountLots, DIRECTIONS[side]));
+    }
+
+    /**
+     * Registry id of a packed asset key, cached per key on the selector thread; assets registered at runtime
+     * are picked up on their first order.
+     */
+    private int assetId(long assetKey) {
+        int id = assetIndex.get(assetKey, -1);
+        if (id < 0) {
+            id = assetRegistry.find(assetSymbol(assetKey));
+            if (id >= 0) {
+                assetIndex.put(assetKey, id);
+            }
+        }
+        return id;
+    }
+
+    private void onCancel(Connection connection, long correlationId, long orderId) {
+        complete(connection, correlationId, () -> orderService.cancelOrderAsync(orderId));
+    }
+
+    private void complete(Connection connection, long correlationId, ResponseCall call) {
+        CompletableFuture<OrderResponse> future;
+        try {
+            future = call.start();
+        } catch (Exception e) {
+            reply(connection, reject(correlationId, reasonFor(e)));
+            return;
+        }
+        future.whenComplete((response, error) -> reply(connection, error == null
+                ? executionReport(correlationId, response)
+                : reject(correlationId, reasonFor(error))));
+    }
+
+    private static RejectReason reasonFor(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof OrderNotFoundException) {
+            return RejectReason.UNKNOWN_ORDER;
+        }
+        if (cause instanceof OrderNotCancellableException) {
+            return RejectReason.NOT_CANCELLABLE;
+        }
+        if (cause instanceof IllegalArgumentException) {
+            return RejectReason.INVALID_ORDER;
+        }
+        log.error("Binary gateway request failed", cause);
+        return RejectReason.INTERNAL_ERROR;
+    }
+
+    private void reply(Connection connection, ByteBuffer frame) {
+        if (Thread.currentThread() == selectorThread) {
+            connection.send(frame);
+            return;
+        }
+        replies.add(new Reply(connection, frame));
+        selector.wakeup();
+    }
+
+    private void flushReplies() {
+        Reply reply;
+        while ((reply = replies.poll()) != null) {
+            if (reply.connection.key.isValid()) {
+                reply.connection.send(reply.frame);
+            }
+        }
+    }
+
+    private void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            log.warn("Unable to close binary gateway connection", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Unable to close binary gateway", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResponseCall {
+        CompletableFuture<OrderResponse> start();
+    }
+
+    private record Reply(Connection connection, ByteBuffer frame) {
+    }
+
+    /**
+     * Per-client state, only touched on the selector thread.
+     */
+    private final class Connection {
+
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final ByteBuffer in = ByteBuffer.allocateDirect(READ_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+        private long pendingBytes;
+
+        private Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        /**
+         * Queues a reply behind those not yet written. A reply always fits an empty queue, so one large report
+         * does not drop a client that keeps up.
+         */
+        private void send(ByteBuffer frame) {
+            if (!key.isValid()) {
+                return;
+            }
+            if (!pending.isEmpty() && pendingBytes + frame.remaining() > maxPendingBytes) {
+                log.warn("Binary gateway dropping client {} with {} bytes of unread replies", channel.socket()
+                        .getRemoteSocketAddress(), pendingBytes);
+                close(key);
+                return;
+            }
+            pending.add(frame);
+            pendingBytes += frame.remaining();
+            try {
+                flush();
+            } catch (IOException e) {
+                log.info("Binary gateway connection closed while writing: {}", e.toString());
+                close(key);
+            } catch (RuntimeException e) {
+                log.error("Binary gateway dropping client after an unexpected error while writing", e);
+                close(key);
+            }
+        }
+
+        private void flush() throws IOException {
+            while (!pending.isEmpty()) {
+                ByteBuffer frame = pending.peek();
+                channel.write(frame);
+                if (frame.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                pendingBytes -= pending.poll().limit();
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.htm.ome.gateway;
+
+import com.htm.ome.dto.OrderResponse;
+import com.htm.ome.dto.Trade;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.util.FixedPoint;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-layout little-endian messages of the binary gateway. Every frame starts with an 8-byte header
+ * {@code [int frameLength][short templateId][short version]}, where the length covers the header too.
+ * <ul>
+ *     <li>NewOrder: {@code [long correlationId][long asset][long priceTicks][long amountLots][byte side]},
+ *     the asset being up to 8 ASCII bytes packed into a long (see {@link #assetKey(String)})</li>
+ *     <li>Cancel: {@code [long correlationId][long orderId]}</li>
+ *     <li>ExecutionReport: {@code [long correlationId][long orderId][long priceTicks][long amountLots]
+ *     [long pendingLots][byte side][byte status][short fillCount][byte more]} followed by {@code fillCount} times
+ *     {@code [long counterpartyOrderId][long priceTicks][long amountLots]}. An order with more fills than fit one
+ *     frame ({@link #MAX_REPORT_FILLS}) is reported in consecutive frames, all but the last with {@code more} set</li>
+ *     <li>Reject: {@code [long correlationId][byte reason]}</li>
+ * </ul>
+ * Frames with another {@code version} are rejected.
+ */
+public final class BinaryProtocol {
+
+    public static final int HEADER_SIZE = 8;
+    public static final short VERSION = 1;
+    public static final short NEW_ORDER = 1;
+    public static final short CANCEL = 2;
+    public static final short EXECUTION_REPORT = 101;
+    public static final short REJECT = 102;
+
+    public static final int NEW_ORDER_SIZE = HEADER_SIZE + 33;
+    public static final int CANCEL_SIZE = HEADER_SIZE + 16;
+    public static final int REJECT_SIZE = HEADER_SIZE + 9;
+    public static final int REPORT_SIZE = HEADER_SIZE + 45;
+    public static final int FILL_SIZE = 24;
+    public static final int MAX_FRAME_SIZE = 64 * 1024;
+    public static final int MAX_REPORT_FILLS = (MAX_FRAME_SIZE - REPORT_SIZE) / FILL_SIZE;
+
+    private static final OrderDirection[] DIRECTIONS = OrderDirection.values();
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final RejectReason[] REASONS = RejectReason.values();
+
+    private BinaryProtocol() {
+    }
+
+    /**
+     * Packs an asset name of up to 8 ASCII characters into a long, first character in the lowest byte.
+     */
+    public static long assetKey(String asset) {
+        byte[] bytes = asset.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length == 0 || bytes.length > 8) {
+            throw new IllegalArgumentException("Asset '" + asset + "' does not fit the 8-byte asset field");
+        }
+        long key = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            key |= (bytes[i] & 0xFFL) << (8 * i);
+        }
+        return key;
+    }
+
+    /**
+     * Inverse of {@link #assetKey(String)}.
+     */
+    public static String assetSymbol(long key) {
+        byte[] bytes = new byte[8];
+        int length = 0;
+        while (length < 8 && (key >>> (8 * length) & 0xFF) != 0) {
+            bytes[length] = (byte) (key >>> (8 * length));
+            length++;
+        }
+        return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    public static void putNewOrder(ByteBuffer buffer, long correlationId, String asset, long priceTicks,
+                                   long amountLots, OrderDirection direction) {
+        putHeader(buffer, NEW_ORDER_SIZE, NEW_ORDER);
+        buffer.putLong(correlationId)
+                .putLong(assetKey(asset))
+                .putLong(priceTicks)
+                .putLong(amountLots)
+                .put((byte) direction.ordinal());
+    }
+
+    public static void putCancel(ByteBuffer buffer, long correlationId, long orderId) {
+        putHeader(buffer, CANCEL_SIZE, CANCEL);
+        buffer.putLong(correlationId).putLong(orderId);
+    }
+
+    /**
+     * Encodes the report as one frame, or as several consecutive frames of at most {@link #MAX_REPORT_FILLS}
+     * fills each when the order swept more than that.
+     */
+    public static ByteBuffer executionReport(long correlationId, OrderResponse response) {
+        List<Trade> trades = response.getTrades();
+        int frames = Math.max(1, (trades.size() + MAX_REPORT_FILLS - 1) / MAX_REPORT_FILLS);
+        ByteBuffer buffer = ByteBuffer.allocate(frames * REPORT_SIZE + trades.size() * FILL_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        for (int frame = 0, from = 0; frame < frames; frame++) {
+            int fillCount = Math.min(MAX_REPORT_FILLS, trades.size() - from);
+            putHeader(buffer, REPORT_SIZE + fillCount * FILL_SIZE, EXECUTION_REPORT);
+            buffer.putLong(correlationId)
+                    .putLong(response.getId())
+                    .putLong(FixedPoint.toFixed(response.getPrice()))
+                    .putLong(FixedPoint.toFixed(response.getAmount()))
+                    .putLong(FixedPoint.toFixed(response.getPendingAmount()))
+                    .put((byte) response.getDirection().ordinal())
+                    .put((byte) response.getStatus().ordinal())
+                    .putShort((short) fillCount)
+                    .put((byte) (frame < frames - 1 ? 1 : 0));
+            for (Trade trade : trades.subList(from, from + fillCount)) {
+                buffer.putLong(trade.getOrderId())
+                        .putLong(FixedPoint.toFixed(trade.getPrice()))
+                        .putLong(FixedPoint.toFixed(trade.getAmount()));
+            }
+            from += fillCount;
+        }
+        return buffer.flip();
+    }
+
+    public static ByteBuffer reject(long correlationId, RejectReason reason) {
+        ByteBuffer buffer = ByteBuffer.allocate(REJECT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        putHeader(buffer, REJECT_SIZE, REJECT);
+        buffer.putLong(correlationId).put((byte) reason.ordinal());
+        return buffer.flip();
+    }
+
+    /**
+     * Decodes a reply frame starting at the buffer's position; a reject throws {@link GatewayRejectException}.
+     * A report split across frames comes back one frame at a time, {@link ExecutionReport#more()} telling whether
+     * another follows.
+     */
+    public static ExecutionReport readReply(ByteBuffer buffer) {
+        int start = buffer.position();
+        short templateId = buffer.getShort(start + 4);
+        long correlationId = buffer.getLong(start + HEADER_SIZE);
+        if (templateId == REJECT) {
+            throw new GatewayRejectException(correlationId, REASONS[buffer.get(start + HEADER_SIZE + 8)]);
+        }
+        if (templateId != EXECUTION_REPORT) {
+            throw new IllegalStateException("Unexpected reply template " + templateId);
+        }
+        int at = start + HEADER_SIZE + 8;
+        long orderId = buffer.getLong(at);
+        long priceTicks = buffer.getLong(at + 8);
+        long amountLots = buffer.getLong(at + 16);
+        long pendingLots = buffer.getLong(at + 24);
+        OrderDirection direction = DIRECTIONS[buffer.get(at + 32)];
+        OrderStatus status = STATUSES[buffer.get(at + 33)];
+        int fillCount = buffer.getShort(at + 34);
+        boolean more = buffer.get(at + 36) != 0;
+        List<ExecutionReport.Fill> fills = new ArrayList<>(fillCount);
+        for (int i = 0, fill = start + REPORT_SIZE; i < fillCount; i++, fill += FILL_SIZE) {
+            fills.add(new ExecutionReport.Fill(buffer.getLong(fill), buffer.getLong(fill + 8), buffer.getLong(fill + 16)));
+        }
+        return new ExecutionReport(correlationId, orderId, priceTicks, amountLots, pendingLots, direction, status, fills,
+                more);
+    }
+
+    private static void putHeader(ByteBuffer buffer, int frameLength, short templateId) {
+        buffer.putInt(frameLength).putShort(templateId).putShort(VERSION);
+    }
+}
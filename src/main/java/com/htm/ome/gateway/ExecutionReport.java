@@ -0,0 +1,17 @@
+package com.htm.ome.gateway;
+
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+
+import java.util.List;
+
+/**
+ * Decoded binary execution report; quantities stay in ticks and lots. {@code more} is set on all but the last
+ * frame of a report split across frames; {@link BinaryOrderClient} joins those into one report.
+ */
+public record ExecutionReport(long correlationId, long orderId, long priceTicks, long amountLots, long pendingLots,
+                              OrderDirection direction, OrderStatus status, List<Fill> fills, boolean more) {
+
+    public record Fill(long counterpartyOrderId, long priceTicks, long amountLots) {
+    }
+}
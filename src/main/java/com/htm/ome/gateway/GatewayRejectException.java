@@ -0,0 +1,16 @@
+package com.htm.ome.gateway;
+
+import lombok.Getter;
+
+@Getter
+public class GatewayRejectException extends RuntimeException {
+
+    private final long correlationId;
+    private final RejectReason reason;
+
+    public GatewayRejectException(long correlationId, RejectReason reason) {
+        super("Request " + correlationId + " rejected: " + reason);
+        this.correlationId = correlationId;
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,6 @@
+package com.htm.ome.gateway;
+
+public enum RejectReason {
+    UNKNOWN_ASSET, INVALID_QUANTITY, UNKNOWN_ORDER, NOT_CANCELLABLE, UNKNOWN_MESSAGE, INTERNAL_ERROR,
+    INVALID_ORDER, UNSUPPORTED_VERSION
+}
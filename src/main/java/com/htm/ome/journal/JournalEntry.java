@@ -0,0 +1,32 @@
+package com.htm.ome.journal;
+
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderType;
+import com.htm.ome.enums.TimeInForce;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@Builder
+@ToString
+public class JournalEntry {
+    public static final byte NEW_ORDER = 1;
+    public static final byte CANCEL = 2;
+    /**
+     * An asset leased a run of trade id blocks; {@code orderId} holds the first id and {@code amountLots} the
+     * number of blocks.
+     */
+    public static final byte TRADE_ID_LEASE = 3;
+
+    private final long sequence;
+    private final byte type;
+    private final long orderId;
+    private final String asset;
+    private final long priceTicks;
+    private final long amountLots;
+    private final OrderDirection direction;
+    private final TimeInForce timeInForce;
+    private final OrderType orderType;
+    private final long createdAtEpochNanos;
+}
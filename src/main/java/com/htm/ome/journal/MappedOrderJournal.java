@@ -0,0 +1,395 @@
+package com.htm.ome.journal;
+
+import com.htm.ome.enums.FsyncPolicy;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderType;
+import com.htm.ome.enums.TimeInForce;
+import com.htm.ome.model.Order;
+import com.htm.ome.util.EpochNanos;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journal written to fixed-size memory-mapped segment files ({@code journal-<firstSequence>.log}).
+ * Each record is {@code [int length][int crc32][payload]}; the length is written last, so replay stops
+ * at the first record that is zero, fails its checksum or breaks the sequence started by the file name.
+ * The direction byte carries the time in force (bits 4-5) and the order type (bit 6), so records written before
+ * those existed read as GTC limit orders. A market order is journaled with the worst price it may trade at.
+ * <p>
+ * With {@link FsyncPolicy#BATCH} a flusher thread forces everything appended since its last pass in one
+ * call (group commit), and {@link #awaitDurable(long)} waits for the pass covering the sequence;
+ * futures from {@link #whenDurable(long)} are completed by the flusher after that pass.
+ * Segments a snapshot fully covers are deleted by {@link #retire(long)}, so replay only reads the tail.
+ */
+@Slf4j
+public class MappedOrderJournal implements OrderJournal, AutoCloseable {
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER_SIZE = 8;
+    private static final int FIXED_SIZE = 44;
+
+    private final Path dir;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final long batchWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final CRC32 crc = new CRC32();
+    private final PriorityQueue<DurableWaiter> durableWaiters =
+            new PriorityQueue<>(Comparator.comparingLong(DurableWaiter::sequence));
+
+    private MappedByteBuffer segment;
+    private int position;
+    private int forcedPosition;
+    private volatile long lastSequence;
+    private volatile long durableSequence;
+    private volatile boolean running;
+    private Thread flusher;
+
+    public MappedOrderJournal(Path dir, int segmentSize, FsyncPolicy fsyncPolicy, long batchWaitMicros) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+        this.batchWaitNanos = TimeUnit.MICROSECONDS.toNanos(batchWaitMicros);
+    }
+
+    @Override
+    public void open(long floorSequence, Consumer<JournalEntry> replay) {
+        try {
+            Files.createDirectories(dir);
+            List<Path> segments = segmentFiles();
+            for (int i = 0; i < segments.size(); i++) {
+                Path file = segments.get(i);
+                MappedByteBuffer buffer = map(file, (int) Files.size(file));
+                int end = replaySegment(buffer, firstSequence(file), replay);
+                if (i == segments.size() - 1) {
+                    segment = buffer;
+                    position = end;
+                    forcedPosition = end;
+                }
+            }
+            if (segment == null || lastSequence < floorSequence) {
+                lastSequence = Math.max(lastSequence, floorSequence);
+                newSegment();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open journal in " + dir, e);
+        }
+        durableSequence = lastSequence;
+        running = true;
+        if (fsyncPolicy == FsyncPolicy.BATCH) {
+            flusher = new Thread(this::flushLoop, "ome-journal-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+        log.info("Journal opened dir={} lastSequence={} fsync={}", dir, lastSequence, fsyncPolicy);
+    }
+
+    @Override
+    public long append(Order order) {
+        return append(JournalEntry.NEW_ORDER, order);
+    }
+
+    @Override
+    public long appendCancel(Order order) {
+        return append(JournalEntry.CANCEL, order);
+    }
+
+    @Override
+    public long appendTradeIdLease(String asset, long firstTradeId, int blocks) {
+        return append(JournalEntry.TRADE_ID_LEASE, asset, firstTradeId, 0, blocks, (byte) 0, 0);
+    }
+
+    private long append(byte type, Order order) {
+        byte side = (byte) (order.getDirection().ordinal() | order.getTimeInForce().ordinal() << 4
+                | order.getType().ordinal() << 6);
+        return append(type, order.getAsset(), order.getId(), order.getPriceTicks(), order.getAmountLots(),
+                side, EpochNanos.of(order.getCreatedAt()));
+    }
+
+    private long append(byte type, String assetName, long id, long priceTicks, long amountLots,
+                        byte side, long createdAtEpochNanos) {
+        byte[] asset = assetName.getBytes(StandardCharsets.UTF_8);
+        int length = FIXED_SIZE + asset.length;
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Journal is not open");
+            }
+            if (position + HEADER_SIZE + length > segment.capacity()) {
+                roll();
+            }
+            long sequence = lastSequence + 1;
+            int p = position + HEADER_SIZE;
+            segment.putLong(p, sequence);
+            segment.put(p + 8, type);
+            segment.putLong(p + 9, id);
+            segment.putLong(p + 17, priceTicks);
+            segment.putLong(p + 25, amountLots);
+            segment.put(p + 33, side);
+            segment.putLong(p + 34, createdAtEpochNanos);
+            segment.putShort(p + 42, (short) asset.length);
+            segment.put(p + 44, asset);
+            crc.reset();
+            crc.update(segment.slice(p, length));
+            segment.putInt(position + 4, (int) crc.getValue());
+            segment.putInt(position, length);
+            position += HEADER_SIZE + length;
+            lastSequence = sequence;
+
+            if (fsyncPolicy == FsyncPolicy.ORDER) {
+                segment.force(forcedPosition, position - forcedPosition);
+                forcedPosition = position;
+                durableSequence = sequence;
+            } else if (fsyncPolicy == FsyncPolicy.BATCH) {
+                appended.signal();
+            }
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Deletes every segment whose entries all lie at or below {@code coveredSequence}, judged by the first sequence
+     * of the segment after it. The segment being appended to is always kept.
+     */
+    @Override
+    public void retire(long coveredSequence) {
+        try {
+            List<Path> segments = segmentFiles();
+            for (int i = 0; i + 1 < segments.size() && firstSequence(segments.get(i + 1)) - 1 <= coveredSequence; i++) {
+                Files.deleteIfExists(segments.get(i));
+                log.info("Journal segment retired file={} coveredSequence={}", segments.get(i), coveredSequence);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to retire journal segments in " + dir, e);
+        }
+    }
+
+    @Override
+    public void awaitDurable(long sequence) {
+        if (fsyncPolicy != FsyncPolicy.BATCH || durableSequence >= sequence) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (durableSequence < sequence && running) {
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> whenDurable(long sequence) {
+        if (fsyncPolicy != FsyncPolicy.BATCH || durableSequence >= sequence) {
+            return CompletableFuture.completedFuture(null);
+        }
+        lock.lock();
+        try {
+            if (durableSequence < sequence && running) {
+                CompletableFuture<Void> future = new CompletableFuture<>();
+                durableWaiters.add(new DurableWaiter(sequence, future));
+                return future;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void flushLoop() {
+        while (running) {
+            MappedByteBuffer buffer;
+            int from;
+            int to;
+            long target;
+            lock.lock();
+            try {
+                while (running && lastSequence == durableSequence) {
+                    appended.awaitUninterruptibly();
+                }
+                if (!running) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (batchWaitNanos > 0) {
+                LockSupport.parkNanos(batchWaitNanos);
+            }
+            lock.lock();
+            try {
+                buffer = segment;
+                from = forcedPosition;
+                to = position;
+                target = lastSequence;
+            } finally {
+                lock.unlock();
+            }
+            buffer.force(from, to - from);
+            List<DurableWaiter> ready = new ArrayList<>();
+            lock.lock();
+            try {
+                if (buffer == segment) {
+                    forcedPosition = Math.max(forcedPosition, to);
+                }
+                durableSequence = Math.max(durableSequence, target);
+                flushed.signalAll();
+                while (!durableWaiters.isEmpty() && durableWaiters.peek().sequence() <= durableSequence) {
+                    ready.add(durableWaiters.poll());
+                }
+            } finally {
+                lock.unlock();
+            }
+            ready.forEach(w -> w.future().complete(null));
+        }
+    }
+
+    private int replaySegment(MappedByteBuffer buffer, long firstSequence, Consumer<JournalEntry> replay) {
+        int p = 0;
+        long expected = firstSequence;
+        while (p + HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(p);
+            if (length < FIXED_SIZE || p + HEADER_SIZE + length > buffer.capacity()) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(p + HEADER_SIZE, length));
+            if ((int) crc.getValue() != buffer.getInt(p + 4)) {
+                log.warn("Journal checksum mismatch at offset={}, ignoring the tail", p);
+                break;
+            }
+            JournalEntry entry = decode(buffer, p + HEADER_SIZE);
+            if (entry.getSequence() != expected++) {
+                break;
+            }
+            replay.accept(entry);
+            lastSequence = entry.getSequence();
+            p += HEADER_SIZE + length;
+        }
+        return p;
+    }
+
+    private JournalEntry decode(MappedByteBuffer buffer, int p) {
+        byte[] asset = new byte[buffer.getShort(p + 42)];
+        buffer.get(p + 44, asset);
+        return JournalEntry.builder()
+                .sequence(buffer.getLong(p))
+                .type(buffer.get(p + 8))
+                .orderId(buffer.getLong(p + 9))
+                .priceTicks(buffer.getLong(p + 17))
+                .amountLots(buffer.getLong(p + 25))
+                .direction(OrderDirection.values()[buffer.get(p + 33) & 0x0f])
+                .timeInForce(TimeInForce.values()[buffer.get(p + 33) >> 4 & 0x03])
+                .orderType(OrderType.values()[buffer.get(p + 33) >> 6 & 0x01])
+                .createdAtEpochNanos(buffer.getLong(p + 34))
+                .asset(new String(asset, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private void roll() {
+        if (fsyncPolicy != FsyncPolicy.NONE) {
+            segment.force();
+            durableSequence = lastSequence;
+            flushed.signalAll();
+        }
+        try {
+            newSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to roll journal segment in " + dir, e);
+        }
+    }
+
+    private void newSegment() throws IOException {
+        Path file = dir.resolve(String.format("%s%020d%s", PREFIX, lastSequence + 1, SUFFIX));
+        segment = map(file, segmentSize);
+        position = 0;
+        forcedPosition = 0;
+        log.info("Journal segment created file={}", file);
+    }
+
+    private static long firstSequence(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().startsWith(PREFIX)
+                            && f.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    @Override
+    public void close() {
+        List<DurableWaiter> waiters;
+        lock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+            appended.signalAll();
+            flushed.signalAll();
+            if (fsyncPolicy != FsyncPolicy.NONE) {
+                segment.force();
+                durableSequence = lastSequence;
+            }
+            waiters = new ArrayList<>(durableWaiters);
+            durableWaiters.clear();
+        } finally {
+            lock.unlock();
+        }
+        waiters.forEach(w -> w.future().complete(null));
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private record DurableWaiter(long sequence, CompletableFuture<Void> future) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.htm.ome.journal;
+
+import com.htm.ome.model.Order;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Write-ahead log of accepted order commands.
+ */
+public interface OrderJournal {
+
+    /**
+     * Replays every valid entry in sequence order and prepares the journal for appends. New entries
+     * are numbered above {@code floorSequence} even if the journal on disk ends earlier.
+     */
+    void open(long floorSequence, Consumer<JournalEntry> replay);
+
+    /**
+     * Appends a new-order command and returns its sequence. Called before the order is matched, so nothing
+     * reaches the book that is not journaled. Calls for the same asset must be made in matching order.
+     */
+    long append(Order order);
+
+    /**
+     * Appends a cancel command for a resting order and returns its sequence. Same ordering rule as {@link #append(Order)}.
+     */
+    long appendCancel(Order order);
+
+    /**
+     * Appends the lease of a run of {@code blocks} trade id blocks by an asset, before the entry of the order whose
+     * fills may use it, so that replay numbers trades exactly as the original run did. Same ordering rule as
+     * {@link #append(Order)}.
+     */
+    long appendTradeIdLease(String asset, long firstTradeId, int blocks);
+
+    /**
+     * Sequence of the last appended entry, 0 when the journal is empty.
+     */
+    long lastSequence();
+
+    /**
+     * Drops the stored entries that are no longer needed because a snapshot covers every entry up to and including
+     * {@code coveredSequence}. Storage may be released in whole units, so later entries can be kept too.
+     */
+    void retire(long coveredSequence);
+
+    /**
+     * Blocks until the entry with the given sequence is durable under the configured fsync policy.
+     */
+    void awaitDurable(long sequence);
+
+    /**
+     * Non-blocking form of {@link #awaitDurable(long)}: completes once the entry is durable.
+     */
+    CompletableFuture<Void> whenDurable(long sequence);
+
+    static OrderJournal disabled() {
+        return new OrderJournal() {
+            @Override
+            public void open(long floorSequence, Consumer<JournalEntry> replay) {
+            }
+
+            @Override
+            public long append(Order order) {
+                return 0;
+            }
+
+            @Override
+            public long appendCancel(Order order) {
+                return 0;
+            }
+
+            @Override
+            public long appendTradeIdLease(String asset, long firstTradeId, int blocks) {
+                return 0;
+            }
+
+            @Override
+            public long lastSequence() {
+                return 0;
+            }
+
+            @Override
+            public void retire(long coveredSequence) {
+            }
+
+            @Override
+            public void awaitDurable(long sequence) {
+            }
+
+            @Override
+            public CompletableFuture<Void> whenDurable(long sequence) {
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+    }
+}
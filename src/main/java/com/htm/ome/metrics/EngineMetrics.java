@@ -0,0 +1,112 @@
+package com.htm.ome.metrics;
+
+import com.htm.ome.core.AssetTable;
+import com.htm.ome.core.MatchEngine;
+import com.htm.ome.enums.OrderDirection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Engine latency timers and per-asset book gauges. Timers publish client-side percentiles from HdrHistogram
+ * (fixed Prometheus buckets would replace them). Meters are resolved once per asset and cached by asset id, so
+ * recording on the matching path is an array read and a histogram update, without allocating.
+ */
+public class EngineMetrics {
+
+    /**
+     * Price levels counted per side by the {@code ome.book.depth} gauge.
+     */
+    public static final int MAX_DEPTH_LEVELS = 1000;
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final MeterRegistry registry;
+    private final Timer queueWait;
+    private final Timer createOrder;
+    private final AssetTable<AssetMeters> assets = new AssetTable<>();
+
+    public EngineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.queueWait = timer("ome.executor.queue.wait", "Time an order task waits before a matching thread picks it up")
+                .register(registry);
+        this.createOrder = timer("ome.order.create", "Total createOrder latency including journal durability")
+                .register(registry);
+    }
+
+    /**
+     * Metrics that record nothing, for engines built outside Spring.
+     */
+    public static EngineMetrics disabled() {
+        return new EngineMetrics(new CompositeMeterRegistry());
+    }
+
+    public void recordQueueWait(long nanos) {
+        queueWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLockWait(int assetId, String asset, long nanos) {
+        meters(assetId, asset).lockWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordMatch(int assetId, String asset, long nanos, int trades) {
+        AssetMeters meters = meters(assetId, asset);
+        meters.match.record(nanos, TimeUnit.NANOSECONDS);
+        if (trades > 0) {
+            meters.trades.increment(trades);
+        }
+    }
+
+    public void recordCreateOrder(long nanos) {
+        createOrder.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registers depth and resting-order gauges for an asset. They are read at scrape time from the engine's
+     * thread-safe aggregates, never from the matching thread.
+     */
+    public void bindBook(String asset, MatchEngine matchEngine) {
+        for (OrderDirection side : OrderDirection.values()) {
+            Gauge.builder("ome.book.depth", matchEngine, e -> e.depth(asset, side, MAX_DEPTH_LEVELS).size())
+                    .description("Non-empty price levels on one side of the book")
+                    .tag("asset", asset)
+                    .tag("side", side.name())
+                    .register(registry);
+        }
+        Gauge.builder("ome.book.resting.orders", matchEngine, e -> e.restingOrderCount(asset))
+                .description("Orders resting in the book")
+                .tag("asset", asset)
+                .register(registry);
+        meters(matchEngine.assetId(asset), asset);
+    }
+
+    private AssetMeters meters(int assetId, String asset) {
+        AssetMeters meters = assets.get(assetId);
+        return meters != null ? meters : assets.computeIfAbsent(assetId, id -> new AssetMeters(asset));
+    }
+
+    private static Timer.Builder timer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentiles(PERCENTILES);
+    }
+
+    private class AssetMeters {
+
+        private final Timer lockWait;
+        private final Timer match;
+        private final Counter trades;
+
+        private AssetMeters(String asset) {
+            lockWait = timer("ome.asset.lock.wait", "Time an order task waits for its asset's lock")
+                    .tag("asset", asset).register(registry);
+            match = timer("ome.match", "MatchEngine.match duration").tag("asset", asset).register(registry);
+            trades = Counter.builder("ome.trades").description("Trades executed").tag("asset", asset)
+                    .register(registry);
+        }
+    }
+}
@@ -2,21 +2,89 @@ package com.htm.ome.model;
 
 import com.htm.ome.enums.OrderDirection;
 import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.enums.OrderType;
+import com.htm.ome.enums.TimeInForce;
+import com.htm.ome.util.EpochNanos;
+import com.htm.ome.util.FixedPoint;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 import java.time.OffsetDateTime;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class Order {
     private Long id;
     private String asset;
-    private Double price;
-    private Double amount;
-    private Double pendingAmount;
+    /**
+     * Id of the asset in the engine's {@code AssetRegistry}, -1 until the order is resolved at ingress.
+     */
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    private int assetId = -1;
+    /**
+     * Limit price. A market order starts at 0 (no limit) and gets the worst price it traded at once matched,
+     * so that a replayed sweep stops at the same level.
+     */
+    private long priceTicks;
+    private long amountLots;
+    private long pendingLots;
     private OrderDirection direction;
+    @Builder.Default
+    private OrderType type = OrderType.LIMIT;
     private OrderStatus status;
+    @Builder.Default
+    private TimeInForce timeInForce = TimeInForce.GTC;
+    /**
+     * Market orders only: most levels the sweep may take, 0 for no limit.
+     */
+    private int maxLevels;
+    /**
+     * Market orders only: how far the sweep may go from the best opposite price, in basis points, 0 for no limit.
+     */
+    private int maxSlippageBps;
     private OffsetDateTime createdAt;
-    private OffsetDateTime modifiedAt;
+    /**
+     * Epoch nanos, 0 when unset; kept primitive so the matching thread can stamp fills without allocating.
+     */
+    private long modifiedAtNanos;
+
+    public Double getPrice() {
+        return FixedPoint.toDecimal(priceTicks);
+    }
+
+    public Double getAmount() {
+        return FixedPoint.toDecimal(amountLots);
+    }
+
+    public Double getPendingAmount() {
+        return FixedPoint.toDecimal(pendingLots);
+    }
+
+    public OffsetDateTime getModifiedAt() {
+        return modifiedAtNanos == 0 ? null : EpochNanos.toOffsetDateTime(modifiedAtNanos);
+    }
+
+    public void setModifiedAt(OffsetDateTime modifiedAt) {
+        this.modifiedAtNanos = EpochNanos.of(modifiedAt);
+    }
+
+    public static class OrderBuilder {
+        public OrderBuilder price(Double price) {
+            return priceTicks(FixedPoint.toFixed(price));
+        }
+
+        public OrderBuilder amount(Double amount) {
+            return amountLots(FixedPoint.toFixed(amount));
+        }
+
+        public OrderBuilder pendingAmount(Double pendingAmount) {
+            return pendingLots(FixedPoint.toFixed(pendingAmount));
+        }
+
+        public OrderBuilder modifiedAt(OffsetDateTime modifiedAt) {
+            return modifiedAtNanos(EpochNanos.of(modifiedAt));
+        }
+    }
 }
@@ -1,9 +1,9 @@
 package com.htm.ome.model;
 
+import com.htm.ome.util.FixedPoint;
 import lombok.Builder;
 import lombok.Data;
 
-import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 
 @Data
@@ -12,7 +12,25 @@ public class TradeModel {
     private Long id;
     private Long buyOrderId;
     private Long sellOrderId;
-    private Double amount;
-    private Double price;
+    private long amountLots;
+    private long priceTicks;
     private OffsetDateTime createdAt;
+
+    public Double getAmount() {
+        return FixedPoint.toDecimal(amountLots);
+    }
+
+    public Double getPrice() {
+        return FixedPoint.toDecimal(priceTicks);
+    }
+
+    public static class TradeModelBuilder {
+        public TradeModelBuilder amount(Double amount) {
+            return amountLots(FixedPoint.toFixed(amount));
+        }
+
+        public TradeModelBuilder price(Double price) {
+            return priceTicks(FixedPoint.toFixed(price));
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package com.htm.ome.service;
+
+import com.htm.ome.core.LevelDepth;
+import com.htm.ome.core.MatchEngine;
+import com.htm.ome.dto.BookDepthResponse;
+import com.htm.ome.dto.BookLevel;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.util.FixedPoint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Serves L2 depth from the per-level aggregates the engine maintains, without going through the
+ * asset's matching thread or lock.
+ */
+@Service
+@RequiredArgsConstructor
+public class MarketDataService {
+
+    public static final int MAX_DEPTH = 1000;
+
+    private final MatchEngine matchEngine;
+
+    public BookDepthResponse getDepth(String asset, int depth) {
+        if (depth < 1 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("depth must be between 1 and " + MAX_DEPTH);
+        }
+        return BookDepthResponse.builder()
+                .asset(asset)
+                .timestamp(OffsetDateTime.now(ZoneOffset.UTC))
+                .bids(toLevels(matchEngine.depth(asset, OrderDirection.BUY, depth)))
+                .asks(toLevels(matchEngine.depth(asset, OrderDirection.SELL, depth)))
+                .build();
+    }
+
+    private List<BookLevel> toLevels(List<LevelDepth> levels) {
+        return levels.stream()
+                .map(l -> BookLevel.builder()
+                        .price(FixedPoint.toDecimal(l.priceTicks()))
+                        .amount(FixedPoint.toDecimal(l.lots()))
+                        .orders(l.orders())
+                        .build())
+                .toList();
+    }
+}
@@ -1,69 +1,288 @@
 package com.htm.ome.service;
 
+import com.htm.ome.dto.FillLevel;
+import com.htm.ome.dto.OrderPage;
 import com.htm.ome.dto.OrderRequest;
 import com.htm.ome.dto.OrderResponse;
 import com.htm.ome.dto.Trade;
 import com.htm.ome.model.Order;
 import com.htm.ome.model.TradeModel;
+import com.htm.ome.enums.OrderDirection;
 import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.enums.OrderType;
+import com.htm.ome.enums.TimeInForce;
+import com.htm.ome.exception.OrderNotCancellableException;
+import com.htm.ome.exception.OrderNotFoundException;
+import com.htm.ome.core.AssetExecutor;
+import com.htm.ome.core.FillBuffer;
 import com.htm.ome.core.MatchEngine;
+import com.htm.ome.feed.MarketFeed;
+import com.htm.ome.journal.OrderJournal;
+import com.htm.ome.metrics.EngineMetrics;
 import com.htm.ome.store.InMemoryStore;
+import com.htm.ome.util.EpochClock;
+import com.htm.ome.util.FixedPoint;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OrderService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+    private static final long TRADES_SAVED_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
     private final InMemoryStore store;
     private final MatchEngine matchEngine;
-    private final ExecutorService matchEngineExecutor;
-    private final ConcurrentHashMap<String, ReentrantLock> assetLocks = new ConcurrentHashMap<>();
+    private final AssetExecutor assetExecutor;
+    private final OrderJournal journal;
+    private final MarketFeed marketFeed;
+    private final EngineMetrics metrics;
 
     public OrderResponse createOrder(OrderRequest req) {
-        long id = store.nextOrderId();
+        long startedAt = System.nanoTime();
+        Order order = newOrder(req);
+        log.info("Order received asset={} price={} amount={}", order.getAsset(), order.getPrice(), order.getAmount());
+
+        FillBuffer fills;
+        try {
+            ProcessedOrder processed = submitOrder(order).get();
+            journal.awaitDurable(processed.journalSequence());
+            fills = processed.fills();
+        } catch (Exception e) {
+            log.error("Error during matching for asset={}", order.getAsset(), e);
+            throw new RuntimeException(e);
+        }
+        OrderResponse response = completeOrder(order, fills);
+        metrics.recordCreateOrder(System.nanoTime() - startedAt);
+        return response;
+    }
+
+    /**
+     * Non-blocking form of {@link #createOrder(OrderRequest)}: completes once the order is matched and durable,
+     * without parking the calling thread. Trades are stored and the response built off the matching thread.
+     */
+    public CompletableFuture<OrderResponse> createOrderAsync(OrderRequest req) {
+        return createOrderAsync(newOrder(req));
+    }
+
+    /**
+     * Form of {@link #createOrderAsync(OrderRequest)} for callers that already hold ticks and lots, such as the
+     * binary gateway. The asset must be an allowed one and both quantities positive; nothing is validated here.
+     */
+    public CompletableFuture<OrderResponse> createOrderAsync(String asset, long priceTicks, long amountLots,
+                                                             OrderDirection direction) {
+        return createOrderAsync(newOrder(asset, priceTicks, amountLots, direction, TimeInForce.GTC));
+    }
+
+    private CompletableFuture<OrderResponse> createOrderAsync(Order order) {
+        long startedAt = System.nanoTime();
+        log.info("Order received asset={} price={} amount={}", order.getAsset(), order.getPrice(), order.getAmount());
+
+        return submitOrder(order)
+                .thenCompose(processed -> journal.whenDurable(processed.journalSequence())
+                        .thenApply(v -> processed.fills()))
+                .thenApplyAsync(fills -> {
+                    OrderResponse response = completeOrder(order, fills);
+                    metrics.recordCreateOrder(System.nanoTime() - startedAt);
+                    return response;
+                });
+    }
+
+    /**
+     * Matches a batch with one engine task per asset: each asset's orders run in arrival order,
+     * different assets run in parallel, and responses come back in request order.
+     */
+    public List<OrderResponse> createOrders(List<OrderRequest> requests) {
+        List<Order> orders = newOrders(requests);
+        Map<Long, FillBuffer> fillsByOrder = new HashMap<>();
+        long journalSequence = 0;
+        try {
+            for (CompletableFuture<ProcessedBatch> future : submitBatch(orders)) {
+                ProcessedBatch processed = future.get();
+                fillsByOrder.putAll(processed.fills());
+                journalSequence = Math.max(journalSequence, processed.journalSequence());
+            }
+            journal.awaitDurable(journalSequence);
+        } catch (Exception e) {
+            log.error("Error during batch matching size={}", orders.size(), e);
+            throw new RuntimeException(e);
+        }
+        return completeBatch(orders, fillsByOrder);
+    }
+
+    /**
+     * Non-blocking form of {@link #createOrders(List)}.
+     */
+    public CompletableFuture<List<OrderResponse>> createOrdersAsync(List<OrderRequest> requests) {
+        List<Order> orders = newOrders(requests);
+        List<CompletableFuture<ProcessedBatch>> futures = submitBatch(orders);
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenCompose(v -> {
+                    Map<Long, FillBuffer> fillsByOrder = new HashMap<>();
+                    long journalSequence = 0;
+                    for (CompletableFuture<ProcessedBatch> future : futures) {
+                        ProcessedBatch processed = future.join();
+                        fillsByOrder.putAll(processed.fills());
+                        journalSequence = Math.max(journalSequence, processed.journalSequence());
+                    }
+                    return journal.whenDurable(journalSequence).thenApply(d -> fillsByOrder);
+                })
+                .thenApplyAsync(fillsByOrder -> completeBatch(orders, fillsByOrder));
+    }
+
+    private CompletableFuture<ProcessedOrder> submitOrder(Order order) {
+        int assetId = matchEngine.resolve(order);
+        return assetExecutor.submit(assetId, order.getAsset(), () -> {
+            long journalSequence = journalNewOrder(assetId, order);
+            FillBuffer fills = accept(assetId, order);
+            matchEngine.addOrderToBook(order);
+            marketFeed.onOrder(order, fills);
+            order.setModifiedAtNanos(EpochClock.now());
+            store.applyFills(order.getId(), fills);
+            store.updateOrder(order);
+            return new ProcessedOrder(fills.copy(), journalSequence);
+        });
+    }
+
+    private List<CompletableFuture<ProcessedBatch>> submitBatch(List<Order> orders) {
+        Map<String, List<Order>> byAsset = new LinkedHashMap<>();
+        orders.forEach(order -> byAsset.computeIfAbsent(order.getAsset(), a -> new ArrayList<>()).add(order));
+        log.info("Order batch created size={} assets={}", orders.size(), byAsset.size());
+
+        List<CompletableFuture<ProcessedBatch>> futures = new ArrayList<>(byAsset.size());
+        byAsset.forEach((asset, group) -> {
+            int assetId = matchEngine.resolve(group.getFirst());
+            futures.add(assetExecutor.submit(assetId, asset, () -> {
+                Map<Long, FillBuffer> fills = new HashMap<>();
+                long journalSequence = 0;
+                for (Order order : group) {
+                    journalSequence = journalNewOrder(assetId, order);
+                    FillBuffer orderFills = accept(assetId, order);
+                    matchEngine.addOrderToBook(order);
+                    marketFeed.onOrder(order, orderFills);
+                    fills.put(order.getId(), orderFills.copy());
+                    order.setModifiedAtNanos(EpochClock.now());
+                    store.applyFills(order.getId(), orderFills);
+                    store.updateOrder(order);
+                }
+                return new ProcessedBatch(fills, journalSequence);
+            }));
+        });
+        return futures;
+    }
+
+    /**
+     * Numbers a new order and journals it before anything changes, on the asset's matching thread. Trade ids for
+     * the most fills the order can make are reserved first, and a lease that reservation takes is journaled ahead
+     * of the order, so replay assigns the same trade ids. When a journal write fails the book is still untouched.
+     */
+    private long journalNewOrder(int assetId, Order order) {
+        order.setId(store.nextOrderId(assetId));
+        int maxFills = matchEngine.prepare(order);
+        store.reserveTradeIds(assetId, maxFills,
+                (firstTradeId, blocks) -> journal.appendTradeIdLease(order.getAsset(), firstTradeId, blocks));
+        return journal.append(order);
+    }
+
+    /**
+     * Stores and matches a journaled order and numbers its trades from the reserved ids.
+     */
+    private FillBuffer accept(int assetId, Order order) {
+        store.saveOrder(order);
+        FillBuffer fills = match(order);
+        for (int i = 0; i < fills.size(); i++) {
+            fills.setTradeId(i, store.nextTradeId(assetId));
+        }
+        store.trimTradeIdLease(assetId);
+        return fills;
+    }
+
+    private FillBuffer match(Order order) {
+        long startedAt = System.nanoTime();
+        FillBuffer fills = matchEngine.matchFills(order);
+        metrics.recordMatch(matchEngine.resolve(order), order.getAsset(), System.nanoTime() - startedAt, fills.size());
+        return fills;
+    }
+
+    /**
+     * Builds the trade models and the response from a copy of the fills, off the matching thread.
+     */
+    private OrderResponse completeOrder(Order order, FillBuffer fills) {
+        List<TradeModel> tradeModels = fills.toTradeModels();
+        saveTrades(tradeModels);
+        log.info("Order processing completed for id={}", order.getId());
+        return toResponse(order, tradeModels);
+    }
+
+    private List<OrderResponse> completeBatch(List<Order> orders, Map<Long, FillBuffer> fillsByOrder) {
+        List<OrderResponse> responses = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            List<TradeModel> tradeModels = fillsByOrder.get(order.getId()).toTradeModels();
+            saveTrades(tradeModels);
+            responses.add(toResponse(order, tradeModels));
+        }
+        return responses;
+    }
+
+    private List<Order> newOrders(List<OrderRequest> requests) {
+        List<Order> orders = new ArrayList<>(requests.size());
+        requests.forEach(req -> orders.add(newOrder(req)));
+        return orders;
+    }
+
+    private Order newOrder(OrderRequest req) {
+        if (req.getType() == OrderType.MARKET) {
+            Order order = newOrder(req.getAsset(), 0, FixedPoint.toFixed(req.getAmount()), req.getDirection(),
+                    TimeInForce.IOC);
+            order.setType(OrderType.MARKET);
+            order.setMaxLevels(req.getMaxLevels() == null ? 0 : req.getMaxLevels());
+            order.setMaxSlippageBps(req.getMaxSlippageBps() == null ? 0 : req.getMaxSlippageBps());
+            return order;
+        }
+        return newOrder(req.getAsset(), FixedPoint.toFixed(req.getPrice()), FixedPoint.toFixed(req.getAmount()),
+                req.getDirection(), req.getTimeInForce() == null ? TimeInForce.GTC : req.getTimeInForce());
+    }
+
+    private Order newOrder(String asset, long priceTicks, long amountLots, OrderDirection direction,
+                           TimeInForce timeInForce) {
         Order order = Order.builder()
-                .id(id)
-                .asset(req.getAsset())
-                .price(req.getPrice())
-                .amount(req.getAmount())
-                .pendingAmount(req.getAmount())
-                .direction(req.getDirection())
+                .asset(asset)
+                .priceTicks(priceTicks)
+                .amountLots(amountLots)
+                .pendingLots(amountLots)
+                .direction(direction)
                 .status(OrderStatus.OPEN)
+                .timeInForce(timeInForce)
                 .createdAt(OffsetDateTime.now(ZoneOffset.UTC))
                 .modifiedAt(OffsetDateTime.now(ZoneOffset.UTC))
                 .build();
+        matchEngine.resolve(order);
+        return order;
+    }
 
-        store.saveOrder(order);
-        log.info("Order created id={} asset={} price={} amount={}",
-                id, order.getAsset(), order.getPrice(), order.getAmount());
-
-        List<TradeModel> tradeModels = processOrder(order);
-        tradeModels.forEach(t -> {
-            t.setId(store.nextTradeId());
-            store.saveTrade(t);
-        });
-        log.info("Order processing completed for id={}", order.getId());
-
-        List<Trade> trades = tradeModels.stream()
-                .map(t -> Trade.builder()
-                        .orderId(t.getBuyOrderId().equals(order.getId()) ? t.getSellOrderId() : t.getBuyOrderId())
-                        .amount(t.getAmount())
-                        .price(t.getPrice()).build())
-                .toList();
+    private void saveTrades(List<TradeModel> tradeModels) {
+        tradeModels.forEach(store::saveTrade);
+    }
 
+    /**
+     * Market orders report their fills summed per price level instead of one {@link Trade} per fill.
+     */
+    private OrderResponse toResponse(Order order, List<TradeModel> tradeModels) {
+        boolean market = order.getType() == OrderType.MARKET;
         return OrderResponse.builder()
                 .id(order.getId())
                 .timestamp(order.getCreatedAt())
@@ -72,59 +291,151 @@ public class OrderService {
                 .amount(order.getAmount())
                 .pendingAmount(order.getPendingAmount())
                 .direction(order.getDirection())
-                .trades(trades).build();
+                .type(order.getType())
+                .status(order.getStatus())
+                .timeInForce(order.getTimeInForce())
+                .trades(market ? null : toTrades(order.getId(), tradeModels))
+                .fills(market ? toFillLevels(tradeModels) : null)
+                .build();
     }
 
-    private List<TradeModel> processOrder(Order order) {
-        try {
-            Future<List<TradeModel>> future = matchEngineExecutor.submit(() -> {
-                ReentrantLock lock = assetLocks.computeIfAbsent(order.getAsset(), a -> new ReentrantLock());
-                lock.lock();
-                try {
-                    List<TradeModel> trades = matchEngine.match(order);
-                    matchEngine.addOrderToBook(order);
-                    order.setModifiedAt(OffsetDateTime.now(ZoneOffset.UTC));
-                    return trades;
-                } catch (Exception e) {
-                    log.error("Error during matching for orderId={}", order.getId(), e);
-                    throw e;
-                } finally {
-                    if (lock.isHeldByCurrentThread()) {
-                        lock.unlock();
-                    }
-                }
-            });
+    private static List<Trade> toTrades(long orderId, List<TradeModel> tradeModels) {
+        return tradeModels.stream()
+                .map(t -> Trade.builder()
+                        .orderId(t.getBuyOrderId() == orderId ? t.getSellOrderId() : t.getBuyOrderId())
+                        .amount(t.getAmount())
+                        .price(t.getPrice()).build())
+                .toList();
+    }
 
-            return future.get();
+    /**
+     * Sums runs of fills at the same price; a sweep fills each level in one run.
+     */
+    private static List<FillLevel> toFillLevels(List<TradeModel> tradeModels) {
+        List<FillLevel> levels = new ArrayList<>();
+        int from = 0;
+        while (from < tradeModels.size()) {
+            long priceTicks = tradeModels.get(from).getPriceTicks();
+            long amountLots = 0;
+            int to = from;
+            for (; to < tradeModels.size() && tradeModels.get(to).getPriceTicks() == priceTicks; to++) {
+                amountLots += tradeModels.get(to).getAmountLots();
+            }
+            levels.add(FillLevel.builder()
+                    .price(FixedPoint.toDecimal(priceTicks))
+                    .amount(FixedPoint.toDecimal(amountLots))
+                    .trades(to - from)
+                    .build());
+            from = to;
+        }
+        return levels;
+    }
+
+    /**
+     * Pulls a resting order from its book on the asset's matching thread. Filled or already cancelled orders are
+     * rejected with {@link OrderNotCancellableException}, naming the status the matching thread saw. The store is
+     * written from the order the book holds, not from the copy looked up here, which fills may have outdated when
+     * records are off-heap.
+     */
+    public OrderResponse cancelOrder(Long id) {
+        Order order = findOrder(id);
+        ProcessedCancel processed;
+        try {
+            processed = submitCancel(order).get();
         } catch (Exception e) {
-            log.error("Error during matching for orderId={}", order.getId(), e);
+            log.error("Error during cancel for orderId={}", id, e);
             throw new RuntimeException(e);
         }
+        rejectIfNotCancelled(id, processed);
+        journal.awaitDurable(processed.journalSequence());
+        return cancelledOrder(id);
     }
 
-    public OrderResponse getOrder(Long id) {
+    /**
+     * Non-blocking form of {@link #cancelOrder(Long)}.
+     */
+    public CompletableFuture<OrderResponse> cancelOrderAsync(Long id) {
+        Order order = findOrder(id);
+        return submitCancel(order)
+                .thenCompose(processed -> {
+                    rejectIfNotCancelled(id, processed);
+                    return journal.whenDurable(processed.journalSequence());
+                })
+                .thenApplyAsync(v -> cancelledOrder(id));
+    }
+
+    /**
+     * Trades matched before the cancel are saved by the completions of the orders that took them, which may still
+     * be running; waits briefly for them so the response lists every fill of the cancelled order.
+     */
+    private OrderResponse cancelledOrder(long id) {
+        long deadline = System.nanoTime() + TRADES_SAVED_WAIT_NANOS;
+        while (!store.tradesSaved(id) && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(10_000);
+        }
+        return getOrder(id);
+    }
+
+    /**
+     * Journals the cancel before the order leaves the book, so a failed append leaves it resting. An order that
+     * is not resting comes back with the status the store holds on the matching thread.
+     */
+    private CompletableFuture<ProcessedCancel> submitCancel(Order order) {
+        return assetExecutor.submit(matchEngine.resolve(order), order.getAsset(), () -> {
+            Order resting = matchEngine.resting(order);
+            if (resting == null) {
+                Order current = store.getOrder(order.getId());
+                return new ProcessedCancel(-1, current == null ? order.getStatus() : current.getStatus());
+            }
+            long journalSequence = journal.appendCancel(resting);
+            Order cancelled = matchEngine.cancel(resting);
+            store.updateOrder(cancelled);
+            marketFeed.onCancel(cancelled);
+            return new ProcessedCancel(journalSequence, OrderStatus.CANCELLED);
+        });
+    }
+
+    private static void rejectIfNotCancelled(long id, ProcessedCancel processed) {
+        if (processed.journalSequence() < 0) {
+            throw new OrderNotCancellableException("Order " + id + " is " + processed.status() + " and cannot be cancelled");
+        }
+    }
+
+    private Order findOrder(Long id) {
         Order order = store.getOrder(id);
         if (order == null) {
-            throw new IllegalArgumentException("Order not found: " + id);
+            throw new OrderNotFoundException("Order not found: " + id);
         }
-        List<Trade> trades = store.allTrades()
-                .stream()
-                .filter(t -> t.getBuyOrderId().equals(id) || t.getSellOrderId().equals(id))
-                .map(t -> Trade.builder()
-                        .orderId(t.getBuyOrderId().equals(id) ? t.getSellOrderId() : t.getBuyOrderId())
-                        .amount(t.getAmount())
-                        .price(t.getPrice()).build())
-                .collect(Collectors.toList());
+        return order;
+    }
 
-        return OrderResponse.builder()
-                .id(order.getId())
-                .timestamp(order.getCreatedAt())
-                .asset(order.getAsset())
-                .price(order.getPrice())
-                .amount(order.getAmount())
-                .pendingAmount(order.getPendingAmount())
-                .direction(order.getDirection())
-                .trades(trades)
+    public OrderResponse getOrder(Long id) {
+        return toResponse(findOrder(id), store.tradesForOrder(id));
+    }
+
+    /**
+     * One page of the orders held in memory, in id order, filtered by any of asset, status and direction.
+     * Served from the store's secondary indexes, off the matching threads.
+     */
+    public OrderPage findOrders(String asset, OrderStatus status, OrderDirection direction, Long cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<Order> orders = store.findOrders(asset, status, direction, cursor == null ? -1 : cursor, limit);
+        List<OrderResponse> responses = new ArrayList<>(orders.size());
+        orders.forEach(order -> responses.add(toResponse(order, store.tradesForOrder(order.getId()))));
+        return OrderPage.builder()
+                .orders(responses)
+                .nextCursor(orders.size() == limit ? orders.getLast().getId() : null)
                 .build();
     }
+
+    private record ProcessedOrder(FillBuffer fills, long journalSequence) {
+    }
+
+    private record ProcessedBatch(Map<Long, FillBuffer> fills, long journalSequence) {
+    }
+
+    private record ProcessedCancel(long journalSequence, OrderStatus status) {
+    }
 }
@@ -0,0 +1,122 @@
+package com.htm.ome.service;
+
+import com.htm.ome.core.FillBuffer;
+import com.htm.ome.core.MatchEngine;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.journal.JournalEntry;
+import com.htm.ome.journal.OrderJournal;
+import com.htm.ome.model.Order;
+import com.htm.ome.snapshot.AssetSnapshot;
+import com.htm.ome.snapshot.EngineSnapshot;
+import com.htm.ome.store.InMemoryStore;
+import com.htm.ome.util.EpochNanos;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rebuilds the books and the store on startup: restores the newest snapshot, then replays the
+ * journal entries each asset's snapshot does not include yet through the engine. Journaled trade id leases
+ * and snapshot cursors put each asset's trade ids back where the original run had them, so replayed
+ * trades get their original ids.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecoveryService {
+
+    private final InMemoryStore store;
+    private final MatchEngine matchEngine;
+    private final OrderJournal journal;
+    private final SnapshotService snapshotService;
+
+    @PostConstruct
+    public void recover() {
+        Map<String, Long> snapshotSequences = new HashMap<>();
+        snapshotService.latest().ifPresent(snapshot -> restore(snapshot, snapshotSequences));
+
+        AtomicLong replayed = new AtomicLong();
+        long floorSequence = snapshotSequences.values().stream().mapToLong(Long::longValue).max().orElse(0);
+        journal.open(floorSequence, entry -> {
+            if (entry.getSequence() <= snapshotSequences.getOrDefault(entry.getAsset(), 0L)) {
+                return;
+            }
+            if (entry.getType() == JournalEntry.NEW_ORDER) {
+                replayNewOrder(entry);
+                replayed.incrementAndGet();
+            } else if (entry.getType() == JournalEntry.CANCEL) {
+                replayCancel(entry);
+            } else if (entry.getType() == JournalEntry.TRADE_ID_LEASE) {
+                store.restoreTradeIdLease(matchEngine.assetId(entry.getAsset()), entry.getOrderId(),
+                        (int) entry.getAmountLots());
+            }
+        });
+        if (replayed.get() > 0) {
+            log.info("Recovered {} orders from journal", replayed.get());
+        }
+    }
+
+    private void restore(EngineSnapshot snapshot, Map<String, Long> snapshotSequences) {
+        store.restoreIds(snapshot.lastOrderId(), snapshot.lastTradeId());
+        int restored = 0;
+        for (AssetSnapshot asset : snapshot.assets()) {
+            snapshotSequences.put(asset.asset(), asset.journalSequence());
+            if (asset.nextTradeId() >= 0) {
+                store.restoreTradeIdLease(matchEngine.assetId(asset.asset()), asset.nextTradeId());
+            }
+            for (Order order : asset.orders()) {
+                store.saveOrder(order);
+                store.restoreIds(order.getId(), 0);
+                matchEngine.addOrderToBook(order);
+                restored++;
+            }
+        }
+        log.info("Restored {} resting orders from snapshot createdAt={}", restored, snapshot.createdAtEpochMillis());
+    }
+
+    private void replayNewOrder(JournalEntry entry) {
+        OffsetDateTime createdAt = EpochNanos.toOffsetDateTime(entry.getCreatedAtEpochNanos());
+        Order order = Order.builder()
+                .id(entry.getOrderId())
+                .asset(entry.getAsset())
+                .priceTicks(entry.getPriceTicks())
+                .amountLots(entry.getAmountLots())
+                .pendingLots(entry.getAmountLots())
+                .direction(entry.getDirection())
+                .status(OrderStatus.OPEN)
+                .type(entry.getOrderType())
+                .timeInForce(entry.getTimeInForce())
+                .createdAt(createdAt)
+                .modifiedAt(createdAt)
+                .build();
+        int assetId = matchEngine.resolve(order);
+        store.saveOrder(order);
+        store.restoreIds(order.getId(), 0);
+
+        FillBuffer fills = matchEngine.matchFills(order);
+        for (int i = 0; i < fills.size(); i++) {
+            fills.setTradeId(i, store.nextTradeId(assetId));
+        }
+        store.trimTradeIdLease(assetId);
+        matchEngine.addOrderToBook(order);
+        store.applyFills(order.getId(), fills);
+        store.updateOrder(order);
+        fills.toTradeModels().forEach(store::saveTrade);
+    }
+
+    private void replayCancel(JournalEntry entry) {
+        Order order = store.getOrder(entry.getOrderId());
+        Order cancelled = order == null ? null : matchEngine.cancel(order);
+        if (cancelled == null) {
+            log.warn("Journal cancel for orderId={} does not match a resting order", entry.getOrderId());
+            return;
+        }
+        store.updateOrder(cancelled);
+    }
+}
@@ -0,0 +1,112 @@
+package com.htm.ome.service;
+
+import com.htm.ome.model.Order;
+import com.htm.ome.store.InMemoryStore;
+import com.htm.ome.util.EpochClock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically moves filled and cancelled orders out of {@link InMemoryStore} into its archive: every terminal
+ * order older than {@code maxAge}, plus the oldest ones beyond {@code maxOrders} terminal orders in memory.
+ * Orders that turned terminal less than {@code minAge} ago are never archived, and neither are orders whose
+ * trades are still being saved after matching, however long that takes.
+ */
+@Slf4j
+public class RetentionService implements AutoCloseable {
+
+    private final InMemoryStore store;
+    private final long maxAgeNanos;
+    private final int maxOrders;
+    private final long minAgeNanos;
+    private final boolean enabled;
+    private final long intervalSeconds;
+    private ScheduledExecutorService scheduler;
+
+    public RetentionService(InMemoryStore store, Duration maxAge, int maxOrders, Duration minAge,
+                            boolean enabled, long intervalSeconds) {
+        this.store = store;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.maxOrders = maxOrders;
+        this.minAgeNanos = minAge.toNanos();
+        this.enabled = enabled;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    /**
+     * Schedules periodic sweeps when enabled with a positive interval. Runs once the application is ready, which is
+     * after {@link RecoveryService} has rebuilt the books and the store.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || intervalSeconds <= 0 || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ome-retention");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::scheduledSweep, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Archives whatever the policy selects right now and returns how many orders were moved.
+     */
+    public int sweep() {
+        long now = EpochClock.now();
+        int[] terminalCount = {0};
+        int[] expired = {0};
+        List<Candidate> eligible = new ArrayList<>();
+        store.forEachTerminalOrder((id, modifiedAtNanos) -> {
+            terminalCount[0]++;
+            long age = now - modifiedAtNanos;
+            if (age >= minAgeNanos && store.tradesSaved(id)) {
+                eligible.add(new Candidate(id, modifiedAtNanos));
+                if (age >= maxAgeNanos) {
+                    expired[0]++;
+                }
+            }
+        });
+        int count = Math.min(eligible.size(), Math.max(expired[0], terminalCount[0] - maxOrders));
+        if (count == 0) {
+            return 0;
+        }
+        eligible.sort(Comparator.comparingLong(Candidate::modifiedAtNanos));
+        List<Order> orders = new ArrayList<>(count);
+        for (Candidate candidate : eligible.subList(0, count)) {
+            orders.add(store.getOrder(candidate.id()));
+        }
+        store.archive(orders);
+        log.info("Archived orders count={} terminalInMemory={} hotOrders={}",
+                count, terminalCount[0] - count, store.orderCount());
+        return count;
+    }
+
+    private void scheduledSweep() {
+        try {
+            sweep();
+        } catch (Exception e) {
+            log.error("Scheduled retention sweep failed", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private record Candidate(long id, long modifiedAtNanos) {
+    }
+}
@@ -0,0 +1,169 @@
+package com.htm.ome.service;
+
+import com.htm.ome.core.AssetExecutor;
+import com.htm.ome.core.MatchEngine;
+import com.htm.ome.journal.OrderJournal;
+import com.htm.ome.snapshot.AssetSnapshot;
+import com.htm.ome.snapshot.EngineSnapshot;
+import com.htm.ome.snapshot.SnapshotRepository;
+import com.htm.ome.store.InMemoryStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Captures point-in-time snapshots of every asset's book. Each asset is copied on its own matching
+ * thread (a short per-asset handoff), so matching is never paused globally; the file is written afterwards.
+ * Periodic snapshots run once {@link #start()} is called; a final one is written on shutdown once all queued
+ * matching work has drained. Once every kept snapshot was written by this run, the journal entries the oldest
+ * of them covers are retired, so restart only replays the journal tail.
+ */
+@Slf4j
+public class SnapshotService implements AutoCloseable {
+
+    private final MatchEngine matchEngine;
+    private final InMemoryStore store;
+    private final AssetExecutor assetExecutor;
+    private final OrderJournal journal;
+    private final SnapshotRepository repository;
+    private final boolean enabled;
+    private final long intervalSeconds;
+    private ScheduledExecutorService scheduler;
+    /**
+     * Journal sequences covered by the snapshots this run wrote, oldest first, at most as many as are kept.
+     */
+    private final ArrayDeque<Long> coveredSequences = new ArrayDeque<>();
+
+    public SnapshotService(MatchEngine matchEngine, InMemoryStore store, AssetExecutor assetExecutor,
+                           OrderJournal journal, SnapshotRepository repository,
+                           boolean enabled, long intervalSeconds) {
+        this.matchEngine = matchEngine;
+        this.store = store;
+        this.assetExecutor = assetExecutor;
+        this.journal = journal;
+        this.repository = repository;
+        this.enabled = enabled;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    /**
+     * Schedules periodic snapshots when enabled with a positive interval. Runs once the application is ready, which is
+     * after {@link RecoveryService} has rebuilt the books and the store.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || intervalSeconds <= 0 || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ome-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::scheduledSnapshot, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public Optional<EngineSnapshot> latest() {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        try {
+            return repository.readLatest();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read snapshots", e);
+        }
+    }
+
+    /**
+     * Every journal entry up to the sequence read first is reflected in the snapshot: each entry is appended by its
+     * asset's matching task, whose book already exists and is captured by a later task on the same thread.
+     */
+    public Path takeSnapshot() {
+        long coveredSequence = journal.lastSequence();
+        long lastOrderId = store.lastOrderId();
+        long lastTradeId = store.lastTradeId();
+        List<CompletableFuture<AssetSnapshot>> captures = new ArrayList<>();
+        for (String asset : matchEngine.assets()) {
+            captures.add(assetExecutor.submit(matchEngine.assetId(asset), asset, () -> capture(asset)));
+        }
+        List<AssetSnapshot> assets = captures.stream().map(CompletableFuture::join).toList();
+        Path file = write(new EngineSnapshot(System.currentTimeMillis(), lastOrderId, lastTradeId, assets));
+        retireJournal(coveredSequence);
+        return file;
+    }
+
+    private AssetSnapshot capture(String asset) {
+        return new AssetSnapshot(asset, journal.lastSequence(), matchEngine.restingOrders(asset),
+                store.tradeIdCursor(matchEngine.assetId(asset)));
+    }
+
+    private Path write(EngineSnapshot snapshot) {
+        try {
+            Path file = repository.write(snapshot);
+            log.info("Snapshot written file={} assets={} lastOrderId={}",
+                    file, snapshot.assets().size(), snapshot.lastOrderId());
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write snapshot", e);
+        }
+    }
+
+    /**
+     * Retires the journal up to what the oldest kept snapshot covers, so falling back to any kept snapshot still
+     * finds its journal tail. A failure only delays retiring.
+     */
+    private synchronized void retireJournal(long coveredSequence) {
+        coveredSequences.addLast(coveredSequence);
+        if (coveredSequences.size() > repository.retain()) {
+            coveredSequences.removeFirst();
+        }
+        if (coveredSequences.size() == repository.retain()) {
+            try {
+                journal.retire(coveredSequences.peekFirst());
+            } catch (UncheckedIOException e) {
+                log.warn("Unable to retire journal up to sequence={}", coveredSequences.peekFirst(), e);
+            }
+        }
+    }
+
+    private void scheduledSnapshot() {
+        try {
+            takeSnapshot();
+        } catch (Exception e) {
+            log.error("Scheduled snapshot failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+        }
+        if (!enabled) {
+            return;
+        }
+        assetExecutor.drain();
+        long coveredSequence = journal.lastSequence();
+        long lastOrderId = store.lastOrderId();
+        long lastTradeId = store.lastTradeId();
+        List<AssetSnapshot> assets = matchEngine.assets().stream()
+                .map(this::capture)
+                .toList();
+        write(new EngineSnapshot(System.currentTimeMillis(), lastOrderId, lastTradeId, assets));
+        retireJournal(coveredSequence);
+    }
+}
@@ -0,0 +1,12 @@
+package com.htm.ome.snapshot;
+
+import com.htm.ome.model.Order;
+
+import java.util.List;
+
+/**
+ * Resting orders of one asset in book order, the last journal sequence they include, and the next trade id
+ * left in the asset's current id block (-1 when none).
+ */
+public record AssetSnapshot(String asset, long journalSequence, List<Order> orders, long nextTradeId) {
+}
@@ -0,0 +1,6 @@
+package com.htm.ome.snapshot;
+
+import java.util.List;
+
+public record EngineSnapshot(long createdAtEpochMillis, long lastOrderId, long lastTradeId, List<AssetSnapshot> assets) {
+}
@@ -0,0 +1,190 @@
+package com.htm.ome.snapshot;
+
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.model.Order;
+import com.htm.ome.util.EpochNanos;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Reads and writes binary snapshot files ({@code snapshot-<epochMillis>.bin}) and keeps the newest few.
+ */
+@Slf4j
+public class SnapshotRepository {
+
+    private static final int MAGIC = 0x4F4D4553;
+    private static final int VERSION = 2;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private final Path dir;
+    private final int retain;
+
+    public SnapshotRepository(Path dir, int retain) {
+        this.dir = dir;
+        this.retain = Math.max(1, retain);
+    }
+
+    /**
+     * Writes to a temporary file, fsyncs it, then renames it into place, so a crash leaves either the previous
+     * snapshots or a complete new one.
+     */
+    public Path write(EngineSnapshot snapshot) throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve(String.format("%s%020d%s", PREFIX, snapshot.createdAtEpochMillis(), SUFFIX));
+        Path tmp = dir.resolve(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel)), crc));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(snapshot.createdAtEpochMillis());
+            out.writeLong(snapshot.lastOrderId());
+            out.writeLong(snapshot.lastTradeId());
+            out.writeInt(snapshot.assets().size());
+            for (AssetSnapshot asset : snapshot.assets()) {
+                out.writeUTF(asset.asset());
+                out.writeLong(asset.journalSequence());
+                out.writeLong(asset.nextTradeId());
+                out.writeInt(asset.orders().size());
+                for (Order order : asset.orders()) {
+                    writeOrder(out, order);
+                }
+            }
+            out.flush();
+            out.writeLong(crc.getValue());
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory();
+        prune();
+        return file;
+    }
+
+    /**
+     * Makes the rename durable. Not every platform can open a directory for this, so a failure is only logged.
+     */
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("Unable to fsync snapshot directory {}", dir, e);
+        }
+    }
+
+    /**
+     * Number of snapshot files kept.
+     */
+    public int retain() {
+        return retain;
+    }
+
+    /**
+     * Newest snapshot that can be read completely; unreadable files are skipped.
+     */
+    public Optional<EngineSnapshot> readLatest() throws IOException {
+        List<Path> files = snapshotFiles();
+        for (int i = files.size() - 1; i >= 0; i--) {
+            try {
+                return Optional.of(read(files.get(i)));
+            } catch (IOException e) {
+                log.warn("Skipping unreadable snapshot file={}", files.get(i), e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private EngineSnapshot read(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file)), crc))) {
+            int version = in.readInt() == MAGIC ? in.readInt() : -1;
+            if (version != VERSION) {
+                throw new IOException("Not a snapshot file: " + file);
+            }
+            long createdAt = in.readLong();
+            long lastOrderId = in.readLong();
+            long lastTradeId = in.readLong();
+            int assetCount = in.readInt();
+            List<AssetSnapshot> assets = new ArrayList<>(assetCount);
+            for (int a = 0; a < assetCount; a++) {
+                String asset = in.readUTF();
+                long journalSequence = in.readLong();
+                long nextTradeId = in.readLong();
+                int orderCount = in.readInt();
+                List<Order> orders = new ArrayList<>(orderCount);
+                for (int i = 0; i < orderCount; i++) {
+                    orders.add(readOrder(in, asset));
+                }
+                assets.add(new AssetSnapshot(asset, journalSequence, orders, nextTradeId));
+            }
+            long expected = crc.getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+            return new EngineSnapshot(createdAt, lastOrderId, lastTradeId, assets);
+        }
+    }
+
+    private static void writeOrder(DataOutputStream out, Order order) throws IOException {
+        out.writeLong(order.getId());
+        out.writeLong(order.getPriceTicks());
+        out.writeLong(order.getAmountLots());
+        out.writeLong(order.getPendingLots());
+        out.writeByte(order.getDirection().ordinal());
+        out.writeByte(order.getStatus().ordinal());
+        out.writeLong(EpochNanos.of(order.getCreatedAt()));
+        out.writeLong(order.getModifiedAtNanos());
+    }
+
+    private static Order readOrder(DataInputStream in, String asset) throws IOException {
+        return Order.builder()
+                .id(in.readLong())
+                .asset(asset)
+                .priceTicks(in.readLong())
+                .amountLots(in.readLong())
+                .pendingLots(in.readLong())
+                .direction(OrderDirection.values()[in.readByte()])
+                .status(OrderStatus.values()[in.readByte()])
+                .createdAt(EpochNanos.toOffsetDateTime(in.readLong()))
+                .modifiedAtNanos(in.readLong())
+                .build();
+    }
+
+    private void prune() throws IOException {
+        List<Path> files = snapshotFiles();
+        for (int i = 0; i < files.size() - retain; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private List<Path> snapshotFiles() throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().startsWith(PREFIX)
+                            && f.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
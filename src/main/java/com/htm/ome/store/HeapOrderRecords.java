@@ -0,0 +1,58 @@
+package com.htm.ome.store;
+
+import com.htm.ome.core.FillBuffer;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.model.Order;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Order records as the live {@link Order} objects the engine mutates, so write-backs are no-ops.
+ */
+public class HeapOrderRecords implements OrderRecords {
+
+    private final Map<Long, Order> orders = new ConcurrentHashMap<>();
+
+    @Override
+    public void insert(Order order) {
+        orders.put(order.getId(), order);
+    }
+
+    @Override
+    public void update(Order order) {
+    }
+
+    @Override
+    public void applyFills(long takerId, FillBuffer fills) {
+    }
+
+    @Override
+    public Order get(long id) {
+        return orders.get(id);
+    }
+
+    @Override
+    public boolean contains(long id) {
+        return orders.containsKey(id);
+    }
+
+    @Override
+    public void remove(long id) {
+        orders.remove(id);
+    }
+
+    @Override
+    public int size() {
+        return orders.size();
+    }
+
+    @Override
+    public void forEachTerminal(TerminalOrderVisitor visitor) {
+        for (Order order : orders.values()) {
+            if (order.getStatus() == OrderStatus.FILLED || order.getStatus() == OrderStatus.CANCELLED) {
+                visitor.visit(order.getId(), order.getModifiedAtNanos());
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.htm.ome.store;
+
+import com.htm.ome.core.AssetTable;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ids handed out in blocks: each asset leases {@code blockSize} ids at a time from one shared counter and takes
+ * ids from its lease on its own matching thread, so the shared cache line is touched once per block instead of
+ * once per order or fill. Ids are unique and increase per asset. Blocks start at multiples of the block size
+ * above the first id, so the first id of a block can be recognised (and journaled) by the caller.
+ * <p>
+ * A caller that must journal a lease before using its ids asks for {@link #blocksNeeded}, leases a run of blocks
+ * with {@link #leaseBlocks}, journals it, and only then hands it to the asset with {@link #restoreLease(int, long, int)}.
+ */
+public class IdAllocator {
+
+    private final long firstId;
+    private final int blockSize;
+    private final AtomicLong next;
+    private final AssetTable<Lease> leases = new AssetTable<>();
+
+    public IdAllocator(long firstId, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Id block size must be positive");
+        }
+        this.firstId = firstId;
+        this.blockSize = blockSize;
+        this.next = new AtomicLong(firstId);
+    }
+
+    /**
+     * Next id of an asset's lease, leasing a new block when it is used up. Must run on the asset's matching thread.
+     */
+    public long next(int assetId) {
+        Lease lease = leases.get(assetId);
+        if (lease == null) {
+            lease = leases.computeIfAbsent(assetId, id -> new Lease());
+        }
+        if (lease.next == lease.limit) {
+            long start = leaseBlocks(1);
+            lease.next = start;
+            lease.limit = start + blockSize;
+        }
+        return lease.next++;
+    }
+
+    /**
+     * One id straight from the shared counter, outside any lease.
+     */
+    public long next() {
+        return next.getAndIncrement();
+    }
+
+    /**
+     * Blocks to lease so that the asset can take {@code count} more ids, 0 when its current lease holds enough.
+     */
+    public int blocksNeeded(int assetId, int count) {
+        Lease lease = leases.get(assetId);
+        long left = lease == null ? 0 : lease.limit - lease.next;
+        return left >= count ? 0 : Math.ceilDiv(count, blockSize);
+    }
+
+    /**
+     * Takes a run of {@code blocks} consecutive blocks from the shared counter without giving it to any asset,
+     * and returns its first id.
+     */
+    public long leaseBlocks(int blocks) {
+        while (true) {
+            long current = next.get();
+            long start = firstId + Math.ceilDiv(current - firstId, blockSize) * blockSize;
+            if (next.compareAndSet(current, start + (long) blocks * blockSize)) {
+                return start;
+            }
+        }
+    }
+
+    /**
+     * Gives up the blocks of the asset's lease past the one it is taking ids from, so that a lease is again
+     * described by its {@link #cursor(int)} alone.
+     */
+    public void trim(int assetId) {
+        Lease lease = leases.get(assetId);
+        if (lease != null && lease.next < lease.limit) {
+            lease.limit = Math.min(lease.limit, blockEnd(lease.next));
+        }
+    }
+
+    public boolean isBlockStart(long id) {
+        return id >= firstId && (id - firstId) % blockSize == 0;
+    }
+
+    /**
+     * Highest id handed out or leased so far.
+     */
+    public long last() {
+        return next.get() - 1;
+    }
+
+    /**
+     * Moves the shared counter forward so that new ids and blocks come after {@code lastId}.
+     */
+    public void restore(long lastId) {
+        next.accumulateAndGet(lastId + 1, Math::max);
+    }
+
+    /**
+     * Next id the asset would take from its current lease, or -1 when it has none left.
+     */
+    public long cursor(int assetId) {
+        Lease lease = leases.get(assetId);
+        return lease == null || lease.next == lease.limit ? -1 : lease.next;
+    }
+
+    /**
+     * Makes the asset continue from {@code nextId} to the end of that id's block, as recorded by a journaled
+     * lease or a snapshot {@link #cursor(int)}, and keeps the shared counter past the block.
+     */
+    public void restoreLease(int assetId, long nextId) {
+        install(assetId, nextId, blockEnd(nextId));
+    }
+
+    /**
+     * Makes the asset take its next ids from the run of {@code blocks} blocks starting at {@code firstId}, as
+     * leased by {@link #leaseBlocks(int)} or journaled, dropping what is left of its previous lease.
+     */
+    public void restoreLease(int assetId, long firstId, int blocks) {
+        install(assetId, firstId, firstId + (long) blocks * blockSize);
+    }
+
+    private void install(int assetId, long nextId, long limit) {
+        Lease lease = leases.computeIfAbsent(assetId, id -> new Lease());
+        lease.next = nextId;
+        lease.limit = limit;
+        restore(limit - 1);
+    }
+
+    private long blockEnd(long id) {
+        return firstId + Math.floorDiv(id - firstId, blockSize) * blockSize + blockSize;
+    }
+
+    /**
+     * Written only by the asset's matching thread (or under its lock).
+     */
+    private static final class Lease {
+        private long next;
+        private long limit;
+    }
+}
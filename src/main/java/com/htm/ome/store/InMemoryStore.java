@@ -1,52 +1,321 @@
 package com.htm.ome.store;
 
+import com.htm.ome.archive.ArchivedOrder;
+import com.htm.ome.archive.OrderArchive;
+import com.htm.ome.core.AssetRegistry;
+import com.htm.ome.core.FillBuffer;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
 import com.htm.ome.model.Order;
 import com.htm.ome.model.TradeModel;
+import com.htm.ome.util.EpochNanos;
+import com.htm.ome.util.LongArrayList;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Hot orders and trades in memory. Orders are kept in {@link OrderRecords}, on the heap or off-heap.
+ * Terminal orders can be moved to an {@link OrderArchive}; lookups of archived ids fall back to it transparently.
+ * Order and trade ids come from {@link IdAllocator}s that lease each asset blocks of ids. Hot orders are also
+ * indexed by asset and status in an {@link OrderIndex} for {@link #findOrders}.
+ */
 @Component
 public class InMemoryStore {
 
-    private final Map<Long, Order> orders = new ConcurrentHashMap<>();
-    private final Map<Long, TradeModel> trades = new ConcurrentHashMap<>();
+    private static final int TRADE_CHUNK_SIZE = 16 * 1024;
+    private static final int DEFAULT_ID_BLOCK_SIZE = 1024;
+    private static final long FIRST_ORDER_ID = 0;
+    private static final long FIRST_TRADE_ID = 50001;
 
-    private final AtomicLong orderIdGen = new AtomicLong(-1);
-    private final AtomicLong tradeIdGen = new AtomicLong(50000);
+    private final OrderRecords orders;
+    private final TradeLog trades = new TradeLog(TRADE_CHUNK_SIZE);
+    /**
+     * Trade log positions of each hot order's trades.
+     */
+    private final Map<Long, LongArrayList> tradesByOrder = new ConcurrentHashMap<>();
+    /**
+     * Number of each order's matched trades that have not been saved yet; orders with none are absent.
+     */
+    private final Map<Long, Integer> unsavedTrades = new ConcurrentHashMap<>();
+    private final OrderArchive archive;
+    private final OrderIndex index;
 
+    private final IdAllocator orderIds;
+    private final IdAllocator tradeIds;
+
+    public InMemoryStore() {
+        this(OrderArchive.disabled());
+    }
+
+    public InMemoryStore(OrderArchive archive) {
+        this(archive, new HeapOrderRecords());
+    }
+
+    public InMemoryStore(OrderArchive archive, OrderRecords orders) {
+        this(archive, orders, DEFAULT_ID_BLOCK_SIZE);
+    }
+
+    public InMemoryStore(OrderArchive archive, OrderRecords orders, int idBlockSize) {
+        this(archive, orders, new OrderIndex(new AssetRegistry()), idBlockSize);
+    }
+
+    /**
+     * @param index also the engine's {@link com.htm.ome.core.OrderStatusListener}, so it follows status changes
+     */
+    @Autowired
+    public InMemoryStore(OrderArchive archive, OrderRecords orders, OrderIndex index,
+                         @Value("${ome.ids.block-size:1024}") int idBlockSize) {
+        this.archive = archive;
+        this.orders = orders;
+        this.index = index;
+        this.orderIds = new IdAllocator(FIRST_ORDER_ID, idBlockSize);
+        this.tradeIds = new IdAllocator(FIRST_TRADE_ID, idBlockSize);
+    }
+
+    /**
+     * Next order id from the asset's block. Must run on the asset's matching thread.
+     */
+    public long nextOrderId(int assetId) {
+        return orderIds.next(assetId);
+    }
+
+    /**
+     * Next trade id from the asset's lease. Must run on the asset's matching thread, after
+     * {@link #reserveTradeIds} made room for the match's fills.
+     */
+    public long nextTradeId(int assetId) {
+        return tradeIds.next(assetId);
+    }
+
+    /**
+     * Single order id outside any asset's block, for orders built off the matching path.
+     */
     public long nextOrderId() {
-        return orderIdGen.incrementAndGet();
+        return orderIds.next();
     }
 
+    /**
+     * Single trade id outside any asset's block, for trades built off the matching path.
+     */
     public long nextTradeId() {
-        return tradeIdGen.incrementAndGet();
+        return tradeIds.next();
+    }
+
+    /**
+     * Leases the asset a fresh run of blocks when its current lease holds fewer than {@code count} trade ids, and
+     * returns the run's first id (-1 when none was needed) after {@code beforeUse} has seen it. The asset only takes
+     * ids from the run once {@code beforeUse} returns, so a lease it fails to journal is never used. Must run on
+     * the asset's matching thread.
+     */
+    public long reserveTradeIds(int assetId, int count, TradeIdLeaseSink beforeUse) {
+        int blocks = tradeIds.blocksNeeded(assetId, count);
+        if (blocks == 0) {
+            return -1;
+        }
+        long firstTradeId = tradeIds.leaseBlocks(blocks);
+        beforeUse.leased(firstTradeId, blocks);
+        tradeIds.restoreLease(assetId, firstTradeId, blocks);
+        return firstTradeId;
+    }
+
+    /**
+     * Drops the blocks a reservation leased beyond the one the asset is now taking trade ids from. Called after
+     * every order, live and replayed alike, so that a snapshot cursor describes the whole lease.
+     */
+    public void trimTradeIdLease(int assetId) {
+        tradeIds.trim(assetId);
+    }
+
+    /**
+     * Next trade id left in the asset's block, or -1 when it has none, for snapshots.
+     */
+    public long tradeIdCursor(int assetId) {
+        return tradeIds.cursor(assetId);
+    }
+
+    /**
+     * Resumes the asset's trade ids at {@code nextTradeId} within that id's block, from a snapshot cursor, so
+     * replayed matches number their trades exactly as the original run did.
+     */
+    public void restoreTradeIdLease(int assetId, long nextTradeId) {
+        tradeIds.restoreLease(assetId, nextTradeId);
+    }
+
+    /**
+     * Replays a journaled reservation: the asset takes its next trade ids from {@code blocks} blocks starting at
+     * {@code firstTradeId}.
+     */
+    public void restoreTradeIdLease(int assetId, long firstTradeId, int blocks) {
+        tradeIds.restoreLease(assetId, firstTradeId, blocks);
+    }
+
+    public long lastOrderId() {
+        return orderIds.last();
+    }
+
+    public long lastTradeId() {
+        return tradeIds.last();
+    }
+
+    /**
+     * Moves the id generators forward so that new ids continue after the given ones.
+     */
+    public void restoreIds(long lastOrderId, long lastTradeId) {
+        orderIds.restore(lastOrderId);
+        tradeIds.restore(lastTradeId);
     }
 
     public void saveOrder(Order order) {
-        orders.put(order.getId(), order);
+        orders.insert(order);
+        index.add(order);
     }
 
+    /**
+     * Writes back an order changed by the engine. Must run on the asset's matching thread.
+     */
+    public void updateOrder(Order order) {
+        orders.update(order);
+    }
+
+    /**
+     * Writes back a match's fills to the resting orders the taker traded with. Must run on the asset's
+     * matching thread, before the fill buffer is reused.
+     */
+    public void applyFills(long takerId, FillBuffer fills) {
+        orders.applyFills(takerId, fills);
+        for (int i = 0; i < fills.size(); i++) {
+            unsavedTrades.merge(fills.buyOrderId(i), 1, Integer::sum);
+            unsavedTrades.merge(fills.sellOrderId(i), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * The order, or null when unknown. With off-heap records every call returns a new copy, so changes
+     * to it must be written back with {@link #updateOrder(Order)}.
+     */
     public Order getOrder(Long id) {
-        return orders.get(id);
+        Order order = orders.get(id);
+        if (order != null) {
+            return order;
+        }
+        ArchivedOrder archived = archive.find(id);
+        return archived == null ? null : archived.order();
+    }
+
+    /**
+     * Up to {@code limit} hot orders with ids above {@code after}, in id order, matching every filter that is
+     * not null. Candidates come from the {@link OrderIndex}; their status and direction are checked again on the
+     * current state, so a page never holds an order that no longer matches. Archived orders are not listed.
+     */
+    public List<Order> findOrders(String asset, OrderStatus status, OrderDirection direction, long after, int limit) {
+        List<Order> page = new ArrayList<>(Math.min(limit, 64));
+        Iterator<Long> ids = index.ids(asset, status, after);
+        while (page.size() < limit && ids.hasNext()) {
+            Order order = orders.get(ids.next());
+            if (order != null
+                    && (status == null || order.getStatus() == status)
+                    && (direction == null || order.getDirection() == direction)) {
+                page.add(order);
+            }
+        }
+        return page;
     }
 
-    public Collection<Order> allOrders() {
-        return orders.values();
+    public void forEachTerminalOrder(OrderRecords.TerminalOrderVisitor visitor) {
+        orders.forEachTerminal(visitor);
     }
 
     public void saveTrade(TradeModel tradeModel) {
-        trades.put(tradeModel.getId(), tradeModel);
+        long position = trades.append(tradeModel.getId(), tradeModel.getBuyOrderId(), tradeModel.getSellOrderId(),
+                tradeModel.getPriceTicks(), tradeModel.getAmountLots(), EpochNanos.of(tradeModel.getCreatedAt()));
+        indexTrade(tradeModel.getBuyOrderId(), position);
+        indexTrade(tradeModel.getSellOrderId(), position);
+        unsavedTrades.computeIfPresent(tradeModel.getBuyOrderId(), InMemoryStore::oneLess);
+        unsavedTrades.computeIfPresent(tradeModel.getSellOrderId(), InMemoryStore::oneLess);
+    }
+
+    /**
+     * Whether every trade matched for the order, through {@link #applyFills}, has been saved.
+     */
+    public boolean tradesSaved(long orderId) {
+        return !unsavedTrades.containsKey(orderId);
+    }
+
+    private static Integer oneLess(Long orderId, Integer count) {
+        return count == 1 ? null : count - 1;
+    }
+
+    public List<TradeModel> tradesForOrder(long orderId) {
+        LongArrayList positions = tradesByOrder.get(orderId);
+        if (positions == null) {
+            if (orders.contains(orderId)) {
+                return List.of();
+            }
+            ArchivedOrder archived = archive.find(orderId);
+            return archived == null ? List.of() : archived.trades();
+        }
+        int count = positions.size();
+        List<TradeModel> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(trades.toTradeModel(positions.get(i)));
+        }
+        return result;
+    }
+
+    private void indexTrade(long orderId, long position) {
+        tradesByOrder.compute(orderId, (id, positions) -> {
+            LongArrayList list = positions == null ? new LongArrayList() : positions;
+            list.add(position);
+            return list;
+        });
+    }
+
+    /**
+     * Writes the given terminal orders with their trades to the archive, then drops them from memory.
+     * A trade stays in memory until both of its orders have been archived. Orders must not change any more,
+     * and their trades must already be saved (see {@link #tradesSaved(long)}).
+     */
+    public void archive(List<Order> terminal) {
+        List<ArchivedOrder> batch = new ArrayList<>(terminal.size());
+        for (Order order : terminal) {
+            batch.add(new ArchivedOrder(order, tradesForOrder(order.getId())));
+        }
+        archive.append(batch);
+        for (Order order : terminal) {
+            orders.remove(order.getId());
+            index.remove(order);
+            LongArrayList positions = tradesByOrder.remove(order.getId());
+            for (int i = 0; positions != null && i < positions.size(); i++) {
+                long position = positions.get(i);
+                long buyOrderId = trades.buyOrderId(position);
+                long counterparty = order.getId() == buyOrderId ? trades.sellOrderId(position) : buyOrderId;
+                if (!orders.contains(counterparty)) {
+                    trades.release(position);
+                }
+            }
+        }
+    }
+
+    public long orderCount() {
+        return orders.size();
     }
 
-    public Collection<TradeModel> allTrades() {
-        return trades.values();
+    /**
+     * Scans the trades still held in memory from a log position onwards, in the order they were saved.
+     * Position 0 starts at the oldest one.
+     */
+    public TradeLog.Cursor tradeCursor(long fromPosition) {
+        return trades.cursor(fromPosition);
     }
 
     public long tradeCount() {
-        return trades.size();
+        return trades.liveCount();
     }
 }
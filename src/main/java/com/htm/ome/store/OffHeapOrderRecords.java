@@ -0,0 +1,333 @@
+package com.htm.ome.store;
+
+import com.htm.ome.core.FillBuffer;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.enums.OrderType;
+import com.htm.ome.enums.TimeInForce;
+import com.htm.ome.model.Order;
+import com.htm.ome.util.EpochNanos;
+import com.htm.ome.util.LongIntHashMap;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Order records as fixed-width 64-byte slots in direct buffers allocated in chunks, found through a primitive
+ * id-to-slot {@link LongIntHashMap}. An order costs 64 bytes off-heap plus about 20 bytes of primitive arrays
+ * that the GC never traces, instead of an {@link Order} with its boxed id and timestamp on the heap.
+ * <p>
+ * Each slot starts with a version used as a seqlock: writers make it odd while they write, readers retry until
+ * they see the same even version before and after copying the fields. A slot has one writer at a time (the
+ * asset's matching thread, or the inserting thread before the order is submitted); the id index is guarded by a
+ * {@link StampedLock} so a slot cannot be freed and reused while it is being read or written through the index.
+ */
+@Slf4j
+public class OffHeapOrderRecords implements OrderRecords {
+
+    static final int SLOT_SIZE = 64;
+
+    private static final int VERSION = 0;
+    private static final int ID = 8;
+    private static final int PRICE_TICKS = 16;
+    private static final int AMOUNT_LOTS = 24;
+    private static final int PENDING_LOTS = 32;
+    private static final int CREATED_AT = 40;
+    private static final int MODIFIED_AT = 48;
+    private static final int ASSET = 56;
+    private static final int DIRECTION = 60;
+    private static final int STATUS = 61;
+    private static final int TIME_IN_FORCE = 62;
+    private static final int TYPE = 63;
+    private static final byte FREE = -1;
+
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final OrderDirection[] DIRECTIONS = OrderDirection.values();
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final TimeInForce[] TIMES_IN_FORCE = TimeInForce.values();
+    private static final OrderType[] TYPES = OrderType.values();
+
+    private final int chunkShift;
+    private final int chunkMask;
+    private final StampedLock lock = new StampedLock();
+    private final LongIntHashMap index;
+    private final List<String> assetNames = new CopyOnWriteArrayList<>();
+    private final Map<String, Integer> assetIds = new ConcurrentHashMap<>();
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    private volatile int highWater;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    /**
+     * @param slotsPerChunk slots allocated at a time, rounded up to a power of two
+     */
+    public OffHeapOrderRecords(int slotsPerChunk) {
+        int slots = Integer.highestOneBit(Math.clamp(slotsPerChunk, 64, 1 << 24) - 1) << 1;
+        this.chunkShift = Integer.numberOfTrailingZeros(slots);
+        this.chunkMask = slots - 1;
+        this.index = new LongIntHashMap(slots);
+    }
+
+    @Override
+    public void insert(Order order) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = index.get(order.getId(), -1);
+            if (slot < 0) {
+                slot = allocateSlot();
+                index.put(order.getId(), slot);
+            }
+            ByteBuffer chunk = chunk(slot);
+            int base = base(slot);
+            long version = beginWrite(chunk, base);
+            chunk.putLong(base + ID, order.getId());
+            chunk.putLong(base + PRICE_TICKS, order.getPriceTicks());
+            chunk.putLong(base + AMOUNT_LOTS, order.getAmountLots());
+            chunk.putLong(base + CREATED_AT, EpochNanos.of(order.getCreatedAt()));
+            chunk.putInt(base + ASSET, assetId(order.getAsset()));
+            chunk.put(base + DIRECTION, (byte) order.getDirection().ordinal());
+            chunk.put(base + TIME_IN_FORCE, (byte) order.getTimeInForce().ordinal());
+            chunk.put(base + TYPE, (byte) order.getType().ordinal());
+            writeState(chunk, base, order.getPendingLots(), order.getStatus(), order.getModifiedAtNanos());
+            endWrite(chunk, base, version);
+            if (slot >= highWater) {
+                highWater = slot + 1;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void update(Order order) {
+        long stamp = lock.readLock();
+        try {
+            int slot = index.get(order.getId(), -1);
+            if (slot < 0) {
+                return;
+            }
+            ByteBuffer chunk = chunk(slot);
+            int base = base(slot);
+            long version = beginWrite(chunk, base);
+            writeState(chunk, base, order.getPendingLots(), order.getStatus(), order.getModifiedAtNanos());
+            endWrite(chunk, base, version);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void applyFills(long takerId, FillBuffer fills) {
+        if (fills.isEmpty()) {
+            return;
+        }
+        long stamp = lock.readLock();
+        try {
+            for (int i = 0; i < fills.size(); i++) {
+                long makerId = fills.buyOrderId(i) == takerId ? fills.sellOrderId(i) : fills.buyOrderId(i);
+                int slot = index.get(makerId, -1);
+                if (slot < 0) {
+                    continue;
+                }
+                ByteBuffer chunk = chunk(slot);
+                int base = base(slot);
+                long version = beginWrite(chunk, base);
+                long pending = chunk.getLong(base + PENDING_LOTS) - fills.amountLots(i);
+                writeState(chunk, base, pending, pending == 0 ? OrderStatus.FILLED : OrderStatus.PARTIALLY_FILLED,
+                        fills.epochNanos(i));
+                endWrite(chunk, base, version);
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Order get(long id) {
+        long stamp = lock.readLock();
+        try {
+            int slot = index.get(id, -1);
+            return slot < 0 ? null : read(slot);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean contains(long id) {
+        long stamp = lock.readLock();
+        try {
+            return index.get(id, -1) >= 0;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void remove(long id) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = index.remove(id, -1);
+            if (slot < 0) {
+                return;
+            }
+            ByteBuffer chunk = chunk(slot);
+            int base = base(slot);
+            long version = beginWrite(chunk, base);
+            chunk.put(base + STATUS, FREE);
+            endWrite(chunk, base, version);
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Scans the slots without taking the index lock, so a sweep never blocks inserts.
+     */
+    @Override
+    public void forEachTerminal(TerminalOrderVisitor visitor) {
+        int slots = highWater;
+        for (int slot = 0; slot < slots; slot++) {
+            ByteBuffer chunk = chunk(slot);
+            int base = base(slot);
+            long id;
+            long modifiedAtNanos;
+            byte status;
+            long version;
+            do {
+                version = awaitStableVersion(chunk, base);
+                id = chunk.getLong(base + ID);
+                modifiedAtNanos = chunk.getLong(base + MODIFIED_AT);
+                status = chunk.get(base + STATUS);
+                VarHandle.loadLoadFence();
+            } while (version != (long) LONG.get(chunk, base + VERSION));
+            if (status == OrderStatus.FILLED.ordinal() || status == OrderStatus.CANCELLED.ordinal()) {
+                visitor.visit(id, modifiedAtNanos);
+            }
+        }
+    }
+
+    /**
+     * Bytes of direct memory allocated for slots.
+     */
+    public long offHeapBytes() {
+        return (long) chunks.length * (chunkMask + 1) * SLOT_SIZE;
+    }
+
+    private Order read(int slot) {
+        ByteBuffer chunk = chunk(slot);
+        int base = base(slot);
+        long id, priceTicks, amountLots, pendingLots, createdAt, modifiedAt;
+        int asset;
+        byte direction, status, timeInForce, type;
+        long version;
+        do {
+            version = awaitStableVersion(chunk, base);
+            id = chunk.getLong(base + ID);
+            priceTicks = chunk.getLong(base + PRICE_TICKS);
+            amountLots = chunk.getLong(base + AMOUNT_LOTS);
+            pendingLots = chunk.getLong(base + PENDING_LOTS);
+            createdAt = chunk.getLong(base + CREATED_AT);
+            modifiedAt = chunk.getLong(base + MODIFIED_AT);
+            asset = chunk.getInt(base + ASSET);
+            direction = chunk.get(base + DIRECTION);
+            status = chunk.get(base + STATUS);
+            timeInForce = chunk.get(base + TIME_IN_FORCE);
+            type = chunk.get(base + TYPE);
+            VarHandle.loadLoadFence();
+        } while (version != (long) LONG.get(chunk, base + VERSION));
+        return Order.builder()
+                .id(id)
+                .asset(assetNames.get(asset))
+                .priceTicks(priceTicks)
+                .amountLots(amountLots)
+                .pendingLots(pendingLots)
+                .direction(DIRECTIONS[direction])
+                .type(TYPES[type])
+                .status(STATUSES[status])
+                .timeInForce(TIMES_IN_FORCE[timeInForce])
+                .createdAt(createdAt == 0 ? null : EpochNanos.toOffsetDateTime(createdAt))
+                .modifiedAtNanos(modifiedAt)
+                .build();
+    }
+
+    private static void writeState(ByteBuffer chunk, int base, long pendingLots, OrderStatus status, long modifiedAtNanos) {
+        chunk.putLong(base + PENDING_LOTS, pendingLots);
+        chunk.putLong(base + MODIFIED_AT, modifiedAtNanos);
+        chunk.put(base + STATUS, (byte) status.ordinal());
+    }
+
+    private static long beginWrite(ByteBuffer chunk, int base) {
+        long version = (long) LONG.get(chunk, base + VERSION);
+        LONG.setOpaque(chunk, base + VERSION, version + 1);
+        VarHandle.storeStoreFence();
+        return version;
+    }
+
+    private static void endWrite(ByteBuffer chunk, int base, long version) {
+        LONG.setRelease(chunk, base + VERSION, version + 2);
+    }
+
+    private static long awaitStableVersion(ByteBuffer chunk, int base) {
+        long version;
+        while (((version = (long) LONG.getAcquire(chunk, base + VERSION)) & 1) != 0) {
+            Thread.onSpinWait();
+        }
+        return version;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        int slot = highWater;
+        if ((slot >>> chunkShift) == chunks.length) {
+            ByteBuffer[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+            grown[chunks.length] = ByteBuffer.allocateDirect((chunkMask + 1) * SLOT_SIZE).order(ByteOrder.nativeOrder());
+            chunks = grown;
+            log.info("Off-heap order records grew to chunks={} bytes={}", grown.length, offHeapBytes());
+        }
+        return slot;
+    }
+
+    private int assetId(String asset) {
+        Integer id = assetIds.get(asset);
+        if (id == null) {
+            id = assetNames.size();
+            assetNames.add(asset);
+            assetIds.put(asset, id);
+        }
+        return id;
+    }
+
+    private ByteBuffer chunk(int slot) {
+        return chunks[slot >>> chunkShift];
+    }
+
+    private int base(int slot) {
+        return (slot & chunkMask) * SLOT_SIZE;
+    }
+}
@@ -0,0 +1,152 @@
+package com.htm.ome.store;
+
+import com.htm.ome.core.AssetRegistry;
+import com.htm.ome.core.AssetTable;
+import com.htm.ome.core.OrderStatusListener;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.model.Order;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Secondary indexes over the orders held in memory: the ids of each asset bucketed by status, plus every id in
+ * one ordered set. Ids are leased to assets in increasing blocks, so id order is arrival order within an asset
+ * and lease order across assets. Orders enter on insert, move between buckets as the engine reports status
+ * changes, and leave when archived.
+ * <p>
+ * Each asset's buckets are written by its matching thread; readers page through them concurrently and get a
+ * weakly consistent view. A move adds the id to its new bucket before removing it from the old one, so a reader
+ * never misses an order, but may briefly see it under its previous status.
+ */
+public class OrderIndex implements OrderStatusListener {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final AssetRegistry assetRegistry;
+    private final AssetTable<NavigableSet<Long>[]> buckets = new AssetTable<>();
+    private final NavigableSet<Long> all = new ConcurrentSkipListSet<>();
+
+    public OrderIndex(AssetRegistry assetRegistry) {
+        this.assetRegistry = assetRegistry;
+    }
+
+    public void add(Order order) {
+        bucket(order, order.getStatus()).add(order.getId());
+        all.add(order.getId());
+    }
+
+    @Override
+    public void onStatusChange(Order order, OrderStatus previous) {
+        bucket(order, order.getStatus()).add(order.getId());
+        bucket(order, previous).remove(order.getId());
+    }
+
+    /**
+     * Drops the order from every bucket of its asset, not only its current status, so an id left behind by a
+     * missed move cannot outlive the order.
+     */
+    public void remove(Order order) {
+        for (OrderStatus status : STATUSES) {
+            bucket(order, status).remove(order.getId());
+        }
+        all.remove(order.getId());
+    }
+
+    /**
+     * Ids above {@code after} in ascending order, of one asset and/or status when given (null for any).
+     * Buckets of several statuses or assets are merged lazily, so a page costs about its own length.
+     */
+    public Iterator<Long> ids(String asset, OrderStatus status, long after) {
+        if (asset == null && status == null) {
+            return all.tailSet(after, false).iterator();
+        }
+        List<Iterator<Long>> sources = new ArrayList<>();
+        if (asset != null) {
+            int assetId = assetRegistry.find(asset);
+            NavigableSet<Long>[] sets = assetId < 0 ? null : buckets.get(assetId);
+            if (sets != null) {
+                addSources(sets, status, after, sources);
+            }
+        } else {
+            buckets.forEach(sets -> addSources(sets, status, after, sources));
+        }
+        return sources.size() == 1 ? sources.getFirst() : new MergedIds(sources);
+    }
+
+    private static void addSources(NavigableSet<Long>[] sets, OrderStatus status, long after,
+                                   List<Iterator<Long>> sources) {
+        if (status != null) {
+            sources.add(sets[status.ordinal()].tailSet(after, false).iterator());
+            return;
+        }
+        for (NavigableSet<Long> set : sets) {
+            sources.add(set.tailSet(after, false).iterator());
+        }
+    }
+
+    private NavigableSet<Long> bucket(Order order, OrderStatus status) {
+        int assetId = assetRegistry.register(order.getAsset());
+        NavigableSet<Long>[] sets = buckets.get(assetId);
+        if (sets == null) {
+            sets = buckets.computeIfAbsent(assetId, id -> newBuckets());
+        }
+        return sets[status.ordinal()];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static NavigableSet<Long>[] newBuckets() {
+        NavigableSet<Long>[] sets = new NavigableSet[STATUSES.length];
+        for (int i = 0; i < sets.length; i++) {
+            sets[i] = new ConcurrentSkipListSet<>();
+        }
+        return sets;
+    }
+
+    /**
+     * Ascending merge of ascending id iterators that skips an id seen under two buckets during a move.
+     */
+    private static final class MergedIds implements Iterator<Long> {
+
+        private final PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparingLong(Head::id));
+        private long last = Long.MIN_VALUE;
+
+        private MergedIds(List<Iterator<Long>> sources) {
+            sources.forEach(this::advance);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!heads.isEmpty() && heads.peek().id() == last) {
+                advance(heads.poll().rest());
+            }
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public Long next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Head head = heads.poll();
+            advance(head.rest());
+            last = head.id();
+            return last;
+        }
+
+        private void advance(Iterator<Long> source) {
+            if (source.hasNext()) {
+                heads.add(new Head(source.next(), source));
+            }
+        }
+
+        private record Head(long id, Iterator<Long> rest) {
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.htm.ome.store;
+
+import com.htm.ome.core.FillBuffer;
+import com.htm.ome.model.Order;
+
+/**
+ * Where {@link InMemoryStore} keeps its orders. {@link HeapOrderRecords} holds the live {@link Order} objects,
+ * so the engine's changes are visible without a write-back; {@link OffHeapOrderRecords} copies them into
+ * off-heap slots, so every change must be written back through {@link #update(Order)} and
+ * {@link #applyFills(long, FillBuffer)} on the asset's matching thread.
+ */
+public interface OrderRecords {
+
+    void insert(Order order);
+
+    /**
+     * Writes back the state of an order that is already stored.
+     */
+    void update(Order order);
+
+    /**
+     * Writes back the fills of one match to the resting orders on the other side of {@code takerId}.
+     */
+    void applyFills(long takerId, FillBuffer fills);
+
+    /**
+     * The stored order, or null. Off-heap records return a fresh copy on every call.
+     */
+    Order get(long id);
+
+    boolean contains(long id);
+
+    void remove(long id);
+
+    int size();
+
+    /**
+     * Visits every filled or cancelled order without materializing it.
+     */
+    void forEachTerminal(TerminalOrderVisitor visitor);
+
+    @FunctionalInterface
+    interface TerminalOrderVisitor {
+        void visit(long id, long modifiedAtNanos);
+    }
+}
@@ -0,0 +1,10 @@
+package com.htm.ome.store;
+
+/**
+ * Told about a run of trade id blocks before an asset takes ids from it, typically to journal the lease.
+ */
+@FunctionalInterface
+public interface TradeIdLeaseSink {
+
+    void leased(long firstTradeId, int blocks);
+}
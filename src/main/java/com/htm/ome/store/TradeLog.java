@@ -0,0 +1,240 @@
+package com.htm.ome.store;
+
+import com.htm.ome.model.TradeModel;
+import com.htm.ome.util.EpochNanos;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only trade log held column by column in chunks of primitive {@code long[]} arrays (id, buy order id,
+ * sell order id, price ticks, amount lots, epoch nanos), addressed by the position a trade was appended at.
+ * A trade costs 48 bytes instead of a {@link TradeModel} with boxed ids, an {@code OffsetDateTime} and a map entry.
+ * <p>
+ * Appends and releases are serialized by a lock; reads need no lock and see every position below {@link #size()}.
+ * Released trades stay readable until every trade of their chunk is released, at which point the chunk is dropped.
+ */
+public class TradeLog {
+
+    private final int chunkShift;
+    private final int chunkMask;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Chunk[] chunks = new Chunk[0];
+    private volatile long size;
+    private volatile long liveCount;
+
+    /**
+     * @param chunkSize trades per chunk, rounded up to a power of two
+     */
+    public TradeLog(int chunkSize) {
+        int rows = Integer.highestOneBit(Math.clamp(chunkSize, 16, 1 << 24) - 1) << 1;
+        this.chunkShift = Integer.numberOfTrailingZeros(rows);
+        this.chunkMask = rows - 1;
+    }
+
+    /**
+     * Appends a trade and returns its position.
+     */
+    public long append(long tradeId, long buyOrderId, long sellOrderId, long priceTicks, long amountLots, long epochNanos) {
+        lock.lock();
+        try {
+            long position = size;
+            int chunkIndex = (int) (position >>> chunkShift);
+            Chunk[] current = chunks;
+            if (chunkIndex == current.length) {
+                current = Arrays.copyOf(current, chunkIndex + 1);
+                current[chunkIndex] = new Chunk(chunkMask + 1);
+                chunks = current;
+            }
+            Chunk chunk = current[chunkIndex];
+            int row = (int) position & chunkMask;
+            chunk.tradeIds[row] = tradeId;
+            chunk.buyOrderIds[row] = buyOrderId;
+            chunk.sellOrderIds[row] = sellOrderId;
+            chunk.priceTicks[row] = priceTicks;
+            chunk.amountLots[row] = amountLots;
+            chunk.epochNanos[row] = epochNanos;
+            chunk.live++;
+            liveCount++;
+            size = position + 1;
+            return position;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of positions appended so far, released ones included.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Number of trades appended and not yet released.
+     */
+    public long liveCount() {
+        return liveCount;
+    }
+
+    /**
+     * Marks a trade as no longer needed in memory. Must be called at most once per position.
+     */
+    public void release(long position) {
+        lock.lock();
+        try {
+            int chunkIndex = (int) (position >>> chunkShift);
+            Chunk chunk = chunks[chunkIndex];
+            chunk.live--;
+            liveCount--;
+            if (chunk.live == 0 && size >= (long) (chunkIndex + 1) << chunkShift) {
+                Chunk[] current = chunks.clone();
+                current[chunkIndex] = null;
+                chunks = current;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long tradeId(long position) {
+        return chunk(position).tradeIds[row(position)];
+    }
+
+    public long buyOrderId(long position) {
+        return chunk(position).buyOrderIds[row(position)];
+    }
+
+    public long sellOrderId(long position) {
+        return chunk(position).sellOrderIds[row(position)];
+    }
+
+    public long priceTicks(long position) {
+        return chunk(position).priceTicks[row(position)];
+    }
+
+    public long amountLots(long position) {
+        return chunk(position).amountLots[row(position)];
+    }
+
+    public long epochNanos(long position) {
+        return chunk(position).epochNanos[row(position)];
+    }
+
+    public TradeModel toTradeModel(long position) {
+        return toTradeModel(chunk(position), row(position));
+    }
+
+    private static TradeModel toTradeModel(Chunk chunk, int row) {
+        long nanos = chunk.epochNanos[row];
+        return TradeModel.builder()
+                .id(chunk.tradeIds[row])
+                .buyOrderId(chunk.buyOrderIds[row])
+                .sellOrderId(chunk.sellOrderIds[row])
+                .priceTicks(chunk.priceTicks[row])
+                .amountLots(chunk.amountLots[row])
+                .createdAt(nanos == 0 ? null : EpochNanos.toOffsetDateTime(nanos))
+                .build();
+    }
+
+    /**
+     * Cursor over the positions from {@code fromPosition} up to the size at the time of the call,
+     * skipping chunks that were already dropped.
+     */
+    public Cursor cursor(long fromPosition) {
+        return new Cursor(Math.max(0, fromPosition), size);
+    }
+
+    private Chunk chunk(long position) {
+        Chunk chunk = chunks[(int) (position >>> chunkShift)];
+        if (chunk == null) {
+            throw new IllegalStateException("Trade at position " + position + " was released");
+        }
+        return chunk;
+    }
+
+    private int row(long position) {
+        return (int) position & chunkMask;
+    }
+
+    /**
+     * Flyweight over one position at a time; {@link #next()} must return true before the getters are used.
+     * Allocates nothing while scanning.
+     */
+    public final class Cursor {
+
+        private final long end;
+        private long position;
+        private Chunk chunk;
+        private int row;
+
+        private Cursor(long from, long end) {
+            this.position = from - 1;
+            this.end = end;
+        }
+
+        public boolean next() {
+            while (++position < end) {
+                chunk = chunks[(int) (position >>> chunkShift)];
+                if (chunk != null) {
+                    row = (int) position & chunkMask;
+                    return true;
+                }
+                position = (((position >>> chunkShift) + 1) << chunkShift) - 1;
+            }
+            chunk = null;
+            return false;
+        }
+
+        public long position() {
+            return position;
+        }
+
+        public long tradeId() {
+            return chunk.tradeIds[row];
+        }
+
+        public long buyOrderId() {
+            return chunk.buyOrderIds[row];
+        }
+
+        public long sellOrderId() {
+            return chunk.sellOrderIds[row];
+        }
+
+        public long priceTicks() {
+            return chunk.priceTicks[row];
+        }
+
+        public long amountLots() {
+            return chunk.amountLots[row];
+        }
+
+        public long epochNanos() {
+            return chunk.epochNanos[row];
+        }
+
+        public TradeModel toTradeModel() {
+            return TradeLog.toTradeModel(chunk, row);
+        }
+    }
+
+    private static final class Chunk {
+        private final long[] tradeIds;
+        private final long[] buyOrderIds;
+        private final long[] sellOrderIds;
+        private final long[] priceTicks;
+        private final long[] amountLots;
+        private final long[] epochNanos;
+        private int live;
+
+        private Chunk(int rows) {
+            tradeIds = new long[rows];
+            buyOrderIds = new long[rows];
+            sellOrderIds = new long[rows];
+            priceTicks = new long[rows];
+            amountLots = new long[rows];
+            epochNanos = new long[rows];
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.htm.ome.util;
+
+import java.time.Instant;
+
+/**
+ * Monotonic wall clock in epoch nanoseconds: {@link System#nanoTime()} offset by the epoch time read once at
+ * startup. Never goes backwards and allocates nothing, at the cost of not following later NTP adjustments.
+ */
+public final class EpochClock {
+
+    private static final long ORIGIN_NANO_TIME = System.nanoTime();
+    private static final long ORIGIN_EPOCH_NANOS = EpochNanos.of(Instant.now());
+
+    private EpochClock() {
+    }
+
+    public static long now() {
+        return ORIGIN_EPOCH_NANOS + (System.nanoTime() - ORIGIN_NANO_TIME);
+    }
+}
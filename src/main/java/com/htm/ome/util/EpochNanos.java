@@ -0,0 +1,26 @@
+package com.htm.ome.util;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+public final class EpochNanos {
+
+    private EpochNanos() {
+    }
+
+    public static long of(OffsetDateTime time) {
+        if (time == null) {
+            return 0;
+        }
+        return time.toEpochSecond() * 1_000_000_000L + time.getNano();
+    }
+
+    public static long of(Instant time) {
+        return time.getEpochSecond() * 1_000_000_000L + time.getNano();
+    }
+
+    public static OffsetDateTime toOffsetDateTime(long epochNanos) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(0, epochNanos), ZoneOffset.UTC);
+    }
+}
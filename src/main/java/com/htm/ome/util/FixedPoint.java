@@ -0,0 +1,21 @@
+package com.htm.ome.util;
+
+/**
+ * Converts between the 2-decimal prices/amounts accepted by the API and the long
+ * ticks/lots used by the matching core (1 tick = 1 lot = 0.01).
+ */
+public final class FixedPoint {
+
+    public static final long SCALE = 100;
+
+    private FixedPoint() {
+    }
+
+    public static long toFixed(double value) {
+        return Math.round(value * SCALE);
+    }
+
+    public static double toDecimal(long fixed) {
+        return fixed / (double) SCALE;
+    }
+}
@@ -0,0 +1,43 @@
+package com.htm.ome.util;
+
+import java.util.Arrays;
+
+/**
+ * Append-only list of primitive longs. Appends must be serialized by the caller;
+ * reads are safe from any thread and see a prefix of the appended values.
+ */
+public class LongArrayList {
+
+    private volatile long[] values;
+    private volatile int size;
+
+    public LongArrayList() {
+        this(4);
+    }
+
+    public LongArrayList(int initialCapacity) {
+        this.values = new long[Math.max(1, initialCapacity)];
+    }
+
+    public void add(long value) {
+        long[] current = values;
+        int n = size;
+        if (n == current.length) {
+            current = Arrays.copyOf(current, n * 2);
+            values = current;
+        }
+        current[n] = value;
+        size = n + 1;
+    }
+
+    public long get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,116 @@
+package com.htm.ome.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from primitive long keys to int values with linear probing and backward-shift
+ * deletion, so lookups allocate nothing and no tombstones pile up. {@link Long#MIN_VALUE} cannot be a key.
+ * Not thread safe.
+ */
+public class LongIntHashMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public LongIntHashMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(8, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1);
+    }
+
+    public int get(long key, int missing) {
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                return values[i];
+            }
+            if (k == EMPTY) {
+                return missing;
+            }
+        }
+    }
+
+    public void put(long key, int value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key " + key + " is reserved");
+        }
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                values[i] = value;
+                return;
+            }
+            if (k == EMPTY) {
+                keys[i] = key;
+                values[i] = value;
+                if (++size >= resizeAt) {
+                    rehash(keys.length << 1);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes the key and returns its value, or {@code missing} when it was not present.
+     */
+    public int remove(long key, int missing) {
+        int i = index(key);
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY) {
+                return missing;
+            }
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+        // shift later entries of the probe chain back into the hole so lookups never stop early
+        for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = index(keys[j]);
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = EMPTY;
+        size--;
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int index(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int j = index(oldKeys[i]);
+                while (keys[j] != EMPTY) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+}
@@ -1,16 +1,16 @@
 package com.htm.ome.validation;
 
+import com.htm.ome.core.AssetRegistry;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 import lombok.RequiredArgsConstructor;
 
-import java.util.List;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 public class ValidAssetValidator implements ConstraintValidator<ValidAsset, String> {
 
-    private final List<String> allowedAssets;
+    private final AssetRegistry assetRegistry;
 
     @Override
     public boolean isValid(String value, ConstraintValidatorContext context) {
@@ -18,11 +18,10 @@ public class ValidAssetValidator implements ConstraintValidator<ValidAsset, Stri
             return false;
         }
 
-        boolean isValid = allowedAssets.stream()
-                .anyMatch(asset -> asset.equalsIgnoreCase(value));
+        boolean isValid = assetRegistry.find(value) >= 0;
 
         if (!isValid) {
-            String allowedList = allowedAssets.stream()
+            String allowedList = assetRegistry.symbols().stream()
                     .sorted()
                     .collect(Collectors.joining(", "));
 
@@ -0,0 +1,24 @@
+package com.htm.ome.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.*;
+
+/**
+ * Checks the fields that depend on the order type: limit orders need a price and take no sweep protection,
+ * market orders take no price and are always IOC. Violations are reported on the offending field.
+ */
+@Documented
+@Constraint(validatedBy = ValidOrderTypeValidator.class)
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidOrderType {
+
+    String message() default "Invalid fields for the order type";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+}
@@ -0,0 +1,43 @@
+package com.htm.ome.validation;
+
+import com.htm.ome.dto.OrderRequest;
+import com.htm.ome.enums.OrderType;
+import com.htm.ome.enums.TimeInForce;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class ValidOrderTypeValidator implements ConstraintValidator<ValidOrderType, OrderRequest> {
+
+    @Override
+    public boolean isValid(OrderRequest value, ConstraintValidatorContext context) {
+        if (value == null) {
+            return true;
+        }
+        context.disableDefaultConstraintViolation();
+        boolean valid = true;
+        if (value.getType() == OrderType.MARKET) {
+            if (value.getPrice() != null) {
+                valid = reject(context, "price", "price is not allowed for MARKET orders");
+            }
+            if (value.getTimeInForce() != null && value.getTimeInForce() != TimeInForce.IOC) {
+                valid = reject(context, "timeInForce", "MARKET orders are always IOC");
+            }
+        } else {
+            if (value.getPrice() == null) {
+                valid = reject(context, "price", "price is required");
+            }
+            if (value.getMaxLevels() != null) {
+                valid = reject(context, "maxLevels", "maxLevels is only allowed for MARKET orders");
+            }
+            if (value.getMaxSlippageBps() != null) {
+                valid = reject(context, "maxSlippageBps", "maxSlippageBps is only allowed for MARKET orders");
+            }
+        }
+        return valid;
+    }
+
+    private static boolean reject(ConstraintValidatorContext context, String field, String message) {
+        context.buildConstraintViolationWithTemplate(message).addPropertyNode(field).addConstraintViolation();
+        return false;
+    }
+}
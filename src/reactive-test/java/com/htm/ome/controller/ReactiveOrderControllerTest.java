@@ -0,0 +1,115 @@
+package com.htm.ome.controller;
+
+import com.htm.ome.config.TestMockConfig;
+import com.htm.ome.core.AssetRegistry;
+import com.htm.ome.dto.OrderRequest;
+import com.htm.ome.dto.OrderResponse;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.exception.OrderNotCancellableException;
+import com.htm.ome.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+@WebFluxTest(ReactiveOrderController.class)
+@Import(TestMockConfig.class)
+public class ReactiveOrderControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    @Qualifier("orderServiceMockBean")
+    private OrderService orderService;
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public AssetRegistry assetRegistry() {
+            return new AssetRegistry(List.of("BTC", "TST"));
+        }
+    }
+
+    private OrderResponse sampleResponse;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(orderService);
+        sampleResponse = OrderResponse.builder()
+                .id(1L)
+                .asset("BTC")
+                .timestamp(OffsetDateTime.now(ZoneOffset.UTC))
+                .price(55000.00)
+                .amount(1.50)
+                .pendingAmount(1.50)
+                .direction(OrderDirection.BUY)
+                .trades(Collections.emptyList())
+                .build();
+    }
+
+    @Test
+    void createOrderShouldCompleteFromMatchingStage() {
+        OrderRequest request = new OrderRequest();
+        request.setAsset("BTC");
+        request.setPrice(55000.00);
+        request.setAmount(1.50);
+        request.setDirection(OrderDirection.BUY);
+
+        CompletableFuture<OrderResponse> matched = new CompletableFuture<>();
+        Mockito.when(orderService.createOrderAsync(any(OrderRequest.class))).thenReturn(matched);
+        CompletableFuture.runAsync(() -> matched.complete(sampleResponse));
+
+        webTestClient.post().uri("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.asset").isEqualTo("BTC");
+    }
+
+    @Test
+    void createOrderShouldReturnBadRequestWhenInvalidPrice() {
+        OrderRequest request = new OrderRequest();
+        request.setAsset("BTC");
+        request.setPrice(0.0);
+        request.setAmount(1.50);
+        request.setDirection(OrderDirection.BUY);
+
+        webTestClient.post().uri("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.price").exists();
+    }
+
+    @Test
+    void cancelOrderShouldReturnConflictWhenNotResting() {
+        Mockito.when(orderService.cancelOrderAsync(eq(2L)))
+                .thenReturn(CompletableFuture.failedFuture(new OrderNotCancellableException("Order 2 is FILLED and cannot be cancelled")));
+
+        webTestClient.delete().uri("/orders/2")
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+}
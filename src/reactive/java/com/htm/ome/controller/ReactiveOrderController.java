@@ -0,0 +1,66 @@
+package com.htm.ome.controller;
+
+import com.htm.ome.dto.OrderBatchRequest;
+import com.htm.ome.dto.OrderPage;
+import com.htm.ome.dto.OrderRequest;
+import com.htm.ome.dto.OrderResponse;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.service.OrderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Order API for the WebFlux stack. Every response is completed by the matching stage through
+ * {@link OrderService}'s async methods, so no event-loop thread waits on matching or the journal.
+ */
+@RestController
+@RequestMapping("/orders")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Tag(name = "Order Management", description = "APIs for create, get, list and cancel orders")
+public class ReactiveOrderController {
+
+    private final OrderService orderService;
+
+    @PostMapping
+    @Operation(summary = "Create a new order", description = "Adds a new order to the matching engine and processes trades")
+    public Mono<OrderResponse> createOrder(@Valid @RequestBody OrderRequest request) {
+        return Mono.fromFuture(() -> orderService.createOrderAsync(request));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Create a batch of orders", description = "Matches orders per asset in arrival order, assets in parallel; responses follow request order")
+    public Mono<List<OrderResponse>> createOrders(@Valid @RequestBody OrderBatchRequest request) {
+        return Mono.fromFuture(() -> orderService.createOrdersAsync(request.getOrders()));
+    }
+
+    @GetMapping
+    @Operation(summary = "List orders", description = "Orders in memory filtered by asset, status and direction, in id order, one page per cursor")
+    public Mono<OrderPage> findOrders(@RequestParam(required = false) String asset,
+                                      @RequestParam(required = false) OrderStatus status,
+                                      @RequestParam(required = false) OrderDirection direction,
+                                      @RequestParam(required = false) Long cursor,
+                                      @RequestParam(defaultValue = "100") int limit) {
+        return Mono.fromSupplier(() -> orderService.findOrders(asset, status, direction, cursor, limit));
+    }
+
+    @GetMapping("/{orderId}")
+    @Operation(summary = "Get order details", description = "Fetch current state of an order by ID")
+    public Mono<OrderResponse> getOrder(@PathVariable Long orderId) {
+        return Mono.fromSupplier(() -> orderService.getOrder(orderId));
+    }
+
+    @DeleteMapping("/{orderId}")
+    @Operation(summary = "Cancel order", description = "Removes the unfilled remainder of a resting order from the book")
+    public Mono<OrderResponse> cancelOrder(@PathVariable Long orderId) {
+        return Mono.fromFuture(() -> orderService.cancelOrderAsync(orderId));
+    }
+}
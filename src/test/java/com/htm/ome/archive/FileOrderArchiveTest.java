@@ -0,0 +1,106 @@
+package com.htm.ome.archive;
+
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.model.Order;
+import com.htm.ome.model.TradeModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileOrderArchiveTest {
+
+    private static final OffsetDateTime CREATED_AT = OffsetDateTime.of(2025, 9, 10, 20, 13, 44, 130462600, ZoneOffset.UTC);
+
+    @TempDir
+    Path dir;
+
+    private ArchivedOrder archived(long id) {
+        Order order = Order.builder()
+                .id(id)
+                .asset("BTC")
+                .priceTicks(4325100)
+                .amountLots(100)
+                .pendingLots(0)
+                .direction(OrderDirection.SELL)
+                .status(OrderStatus.FILLED)
+                .createdAt(CREATED_AT)
+                .modifiedAtNanos(1_757_535_300_000_000_000L + id)
+                .build();
+        TradeModel trade = TradeModel.builder()
+                .id(50_000 + id)
+                .buyOrderId(id + 1)
+                .sellOrderId(id)
+                .priceTicks(4325100)
+                .amountLots(100)
+                .createdAt(CREATED_AT)
+                .build();
+        return new ArchivedOrder(order, List.of(trade));
+    }
+
+    private List<ArchivedOrder> range(long from, long to) {
+        List<ArchivedOrder> orders = new ArrayList<>();
+        for (long id = from; id < to; id++) {
+            orders.add(archived(id));
+        }
+        return orders;
+    }
+
+    @Test
+    void testFindsArchivedOrdersWithTheirTrades() {
+        try (FileOrderArchive archive = new FileOrderArchive(dir, 4)) {
+            archive.append(range(0, 10));
+
+            ArchivedOrder found = archive.find(7);
+            assertEquals(archived(7), found);
+            assertEquals(CREATED_AT, found.order().getCreatedAt());
+            assertEquals(List.of(8L), found.trades().stream().map(TradeModel::getBuyOrderId).toList());
+            assertNull(archive.find(10));
+            assertEquals(3, archive.blockCount());
+        }
+    }
+
+    @Test
+    void testIndexIsRebuiltOnReopenAndTornTailIsCut() throws Exception {
+        try (FileOrderArchive archive = new FileOrderArchive(dir, 8)) {
+            archive.append(range(0, 8));
+            archive.append(range(8, 16));
+        }
+        Path file = dir.resolve("orders.archive");
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(raf.length() - 5);
+        }
+
+        try (FileOrderArchive archive = new FileOrderArchive(dir, 8)) {
+            assertEquals(1, archive.blockCount());
+            assertEquals(archived(3), archive.find(3));
+            assertNull(archive.find(12));
+
+            archive.append(range(12, 13));
+            assertEquals(archived(12), archive.find(12));
+        }
+    }
+
+    @Test
+    void testIdGapsStartNewBlocksSoRangesStayTight() {
+        try (FileOrderArchive archive = new FileOrderArchive(dir, 100)) {
+            List<ArchivedOrder> batch = new ArrayList<>(range(1_000, 1_010));
+            batch.add(archived(5));
+            batch.add(archived(1_000_000));
+            archive.append(batch);
+
+            assertEquals(3, archive.blockCount());
+            assertEquals(archived(5), archive.find(5));
+            assertEquals(archived(1_000_000), archive.find(1_000_000));
+            assertNull(archive.find(500));
+        }
+    }
+}
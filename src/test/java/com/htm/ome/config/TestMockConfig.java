@@ -1,5 +1,6 @@
 package com.htm.ome.config;
 
+import com.htm.ome.service.MarketDataService;
 import com.htm.ome.service.OrderService;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.TestConfiguration;
@@ -12,4 +13,9 @@ public class TestMockConfig {
     public OrderService orderService() {
         return Mockito.mock(OrderService.class);
     }
+
+    @Bean("marketDataServiceMockBean")
+    public MarketDataService marketDataService() {
+        return Mockito.mock(MarketDataService.class);
+    }
 }
@@ -0,0 +1,71 @@
+package com.htm.ome.controller;
+
+import com.htm.ome.config.TestMockConfig;
+import com.htm.ome.core.AssetRegistry;
+import com.htm.ome.dto.BookDepthResponse;
+import com.htm.ome.dto.BookLevel;
+import com.htm.ome.service.MarketDataService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BookController.class)
+@Import(TestMockConfig.class)
+public class BookControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("marketDataServiceMockBean")
+    private MarketDataService marketDataService;
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public AssetRegistry assetRegistry() {
+            return new AssetRegistry(List.of("BTC", "TST"));
+        }
+    }
+
+    @Test
+    void getDepthShouldReturnLevels() throws Exception {
+        BookDepthResponse response = BookDepthResponse.builder()
+                .asset("BTC")
+                .timestamp(OffsetDateTime.now(ZoneOffset.UTC))
+                .bids(List.of(BookLevel.builder().price(99.00).amount(3.00).orders(2).build()))
+                .asks(List.of())
+                .build();
+        Mockito.when(marketDataService.getDepth(eq("BTC"), eq(5))).thenReturn(response);
+
+        mockMvc.perform(get("/book/BTC").param("depth", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bids[0].price").value(99.00))
+                .andExpect(jsonPath("$.bids[0].amount").value(3.00))
+                .andExpect(jsonPath("$.bids[0].orders").value(2))
+                .andExpect(jsonPath("$.asks").isEmpty());
+    }
+
+    @Test
+    void getDepthShouldReturnBadRequestForInvalidDepth() throws Exception {
+        Mockito.when(marketDataService.getDepth(eq("BTC"), eq(0)))
+                .thenThrow(new IllegalArgumentException("depth must be between 1 and 1000"));
+
+        mockMvc.perform(get("/book/BTC").param("depth", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,64 @@
+package com.htm.ome.controller;
+
+import com.htm.ome.core.AssetRegistry;
+import com.htm.ome.feed.FeedSink;
+import com.htm.ome.feed.MarketFeed;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(FeedController.class)
+public class FeedControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MarketFeed marketFeed;
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public AssetRegistry assetRegistry() {
+            return new AssetRegistry(List.of("BTC", "TST"));
+        }
+
+        @Bean
+        public MarketFeed marketFeed() {
+            MarketFeed feed = Mockito.mock(MarketFeed.class);
+            Mockito.when(feed.subscribe(anyString(), any(FeedSink.class))).thenReturn(() -> {
+            });
+            return feed;
+        }
+    }
+
+    @Test
+    void streamShouldSubscribeUnderTheRegisteredSymbol() throws Exception {
+        mockMvc.perform(get("/feed/btc"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        Mockito.verify(marketFeed).subscribe(eq("BTC"), any(FeedSink.class));
+    }
+
+    @Test
+    void streamShouldRejectUnknownAssets() throws Exception {
+        mockMvc.perform(get("/feed/DOGE"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid asset 'DOGE'"));
+
+        Mockito.verify(marketFeed, Mockito.never()).subscribe(eq("DOGE"), any(FeedSink.class));
+    }
+}
@@ -2,9 +2,16 @@ package com.htm.ome.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.htm.ome.config.TestMockConfig;
+import com.htm.ome.core.AssetRegistry;
+import com.htm.ome.dto.OrderBatchRequest;
+import com.htm.ome.dto.OrderPage;
 import com.htm.ome.dto.OrderRequest;
 import com.htm.ome.dto.OrderResponse;
 import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.exception.OrderNotCancellableException;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.enums.OrderType;
+import com.htm.ome.enums.TimeInForce;
 import com.htm.ome.service.OrderService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,6 +31,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -45,8 +53,8 @@ public class OrderControllerTest {
     @TestConfiguration
     static class TestConfig {
         @Bean
-        public List<String> allowedAssets() {
-            return List.of("BTC", "TST");
+        public AssetRegistry assetRegistry() {
+            return new AssetRegistry(List.of("BTC", "TST"));
         }
     }
 
@@ -103,6 +111,22 @@ public class OrderControllerTest {
                 .andExpect(jsonPath("$.pendingAmount").value(1.50));
     }
 
+    @Test
+    void findOrdersShouldReturnPageWithCursor() throws Exception {
+        Mockito.when(orderService.findOrders(eq("BTC"), eq(OrderStatus.OPEN), eq(null), eq(7L), eq(1)))
+                .thenReturn(OrderPage.builder().orders(List.of(sampleResponse)).nextCursor(1L).build());
+
+        mockMvc.perform(get("/orders")
+                        .param("asset", "BTC")
+                        .param("status", "OPEN")
+                        .param("cursor", "7")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders[0].id").value(1L))
+                .andExpect(jsonPath("$.orders[0].asset").value("BTC"))
+                .andExpect(jsonPath("$.nextCursor").value(1L));
+    }
+
     @Test
     void createOrderShouldReturnBadRequestWhenInvalidAsset() throws Exception {
         OrderRequest invalidRequest = new OrderRequest();
@@ -159,4 +183,133 @@ public class OrderControllerTest {
                         .content(orderRequestJson))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void createOrderShouldAcceptMarketOrderWithoutPrice() throws Exception {
+        OrderRequest request = new OrderRequest();
+        request.setAsset("BTC");
+        request.setAmount(1.50);
+        request.setDirection(OrderDirection.BUY);
+        request.setType(OrderType.MARKET);
+        request.setMaxSlippageBps(50);
+
+        Mockito.when(orderService.createOrder(any(OrderRequest.class))).thenReturn(sampleResponse);
+
+        mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void createOrderShouldRejectFieldsThatDoNotFitTheType() throws Exception {
+        OrderRequest market = new OrderRequest();
+        market.setAsset("BTC");
+        market.setPrice(100.00);
+        market.setAmount(1.50);
+        market.setDirection(OrderDirection.BUY);
+        market.setType(OrderType.MARKET);
+        market.setTimeInForce(TimeInForce.GTC);
+
+        mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(market)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.price").value("price is not allowed for MARKET orders"))
+                .andExpect(jsonPath("$.timeInForce").value("MARKET orders are always IOC"));
+
+        OrderRequest limit = new OrderRequest();
+        limit.setAsset("BTC");
+        limit.setAmount(1.50);
+        limit.setDirection(OrderDirection.BUY);
+        limit.setMaxLevels(3);
+
+        mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(limit)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.price").value("price is required"))
+                .andExpect(jsonPath("$.maxLevels").exists());
+    }
+
+    @Test
+    void createOrdersShouldReturnOneResponsePerOrder() throws Exception {
+        OrderRequest request = new OrderRequest();
+        request.setAsset("BTC");
+        request.setPrice(55000.00);
+        request.setAmount(1.50);
+        request.setDirection(OrderDirection.BUY);
+        OrderBatchRequest batch = new OrderBatchRequest();
+        batch.setOrders(List.of(request, request));
+
+        Mockito.when(orderService.createOrders(anyList()))
+                .thenReturn(List.of(sampleResponse, sampleResponse));
+
+        mockMvc.perform(post("/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].id").value(1L));
+    }
+
+    @Test
+    void createOrdersShouldReturnBadRequestWhenAnyOrderInvalid() throws Exception {
+        OrderRequest valid = new OrderRequest();
+        valid.setAsset("BTC");
+        valid.setPrice(1.00);
+        valid.setAmount(1.50);
+        valid.setDirection(OrderDirection.BUY);
+        OrderRequest invalid = new OrderRequest();
+        invalid.setAsset("BTC");
+        invalid.setPrice(0.0);
+        invalid.setAmount(1.50);
+        invalid.setDirection(OrderDirection.BUY);
+        OrderBatchRequest batch = new OrderBatchRequest();
+        batch.setOrders(List.of(valid, invalid));
+
+        mockMvc.perform(post("/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$['orders[1].price']").exists());
+    }
+
+    @Test
+    void createOrdersShouldReturnBadRequestWhenEmpty() throws Exception {
+        mockMvc.perform(post("/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orders\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void cancelOrderShouldReturnCancelledOrder() throws Exception {
+        sampleResponse.setStatus(OrderStatus.CANCELLED);
+        Mockito.when(orderService.cancelOrder(eq(1L))).thenReturn(sampleResponse);
+
+        mockMvc.perform(delete("/orders/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1L))
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+    }
+
+    @Test
+    void cancelOrderShouldReturnConflictWhenNotResting() throws Exception {
+        Mockito.when(orderService.cancelOrder(eq(2L)))
+                .thenThrow(new OrderNotCancellableException("Order 2 is FILLED and cannot be cancelled"));
+
+        mockMvc.perform(delete("/orders/2"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void cancelOrderShouldReturnInternalErrorWhenEngineStateIsBroken() throws Exception {
+        Mockito.when(orderService.cancelOrder(eq(3L)))
+                .thenThrow(new IllegalStateException("Journal is not open"));
+
+        mockMvc.perform(delete("/orders/3"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.error").value("INTERNAL_SERVER_ERROR"));
+    }
 }
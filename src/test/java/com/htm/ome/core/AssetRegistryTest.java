@@ -0,0 +1,76 @@
+package com.htm.ome.core;
+
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssetRegistryTest {
+
+    @Test
+    void testConfiguredAssetsGetDenseIdsInOrder() {
+        AssetRegistry registry = new AssetRegistry(List.of("BTC", "ETH", "AAPL"));
+
+        assertEquals(0, registry.find("BTC"));
+        assertEquals(2, registry.find("AAPL"));
+        assertEquals("ETH", registry.symbol(1));
+        assertEquals(List.of("BTC", "ETH", "AAPL"), registry.symbols());
+        assertEquals(-1, registry.find("DOGE"));
+    }
+
+    @Test
+    void testLookupsIgnoreCaseAndKeepTheRegisteredSpelling() {
+        AssetRegistry registry = new AssetRegistry(List.of("BTC"));
+
+        assertEquals(0, registry.find("btc"));
+        assertEquals(0, registry.register("Btc"));
+        assertEquals(1, registry.size());
+        assertEquals("BTC", registry.symbol(registry.find("bTc")));
+    }
+
+    @Test
+    void testAssetsRegisteredAtRuntimeNotifyListeners() {
+        AssetRegistry registry = new AssetRegistry(List.of("BTC"));
+        List<String> added = new ArrayList<>();
+        registry.onRegister(added::add);
+
+        assertEquals(1, registry.register("SOL"));
+        assertEquals(1, registry.register("SOL"));
+        assertEquals(List.of("SOL"), added);
+        assertThrows(IllegalArgumentException.class, () -> registry.register(" "));
+    }
+
+    @Test
+    void testEngineResolvesOrdersOnceAndSharesBooksAcrossSpellings() {
+        AssetRegistry registry = new AssetRegistry(List.of("BTC"));
+        MatchEngine engine = new MatchEngine(new OrderBookFactory(Set.of(), 0), registry);
+        Order sell = order(1L, "btc", OrderDirection.SELL);
+        engine.matchFills(sell);
+        engine.addOrderToBook(sell);
+
+        assertEquals(0, sell.getAssetId());
+        assertEquals("BTC", sell.getAsset());
+        Order buy = order(2L, "BTC", OrderDirection.BUY);
+        assertEquals(1, engine.matchFills(buy).size());
+        assertEquals(OrderStatus.FILLED, buy.getStatus());
+        assertEquals(Set.of("BTC"), engine.assets());
+    }
+
+    private static Order order(long id, String asset, OrderDirection direction) {
+        return Order.builder()
+                .id(id)
+                .asset(asset)
+                .priceTicks(100)
+                .amountLots(10)
+                .pendingLots(10)
+                .direction(direction)
+                .status(OrderStatus.OPEN)
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.htm.ome.core;
+
+import com.htm.ome.model.TradeModel;
+import com.htm.ome.util.EpochNanos;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FillBufferTest {
+
+    @Test
+    void testGrowsPastInitialCapacityAndClears() {
+        FillBuffer fills = new FillBuffer(2);
+        for (int i = 0; i < 5; i++) {
+            fills.add(i, 10 + i, 100 + i, 1 + i, 1_000 + i);
+        }
+
+        assertEquals(5, fills.size());
+        assertEquals(4, fills.buyOrderId(4));
+        assertEquals(14, fills.sellOrderId(4));
+        assertEquals(104, fills.priceTicks(4));
+        assertEquals(5, fills.amountLots(4));
+        assertEquals(1_004, fills.epochNanos(4));
+
+        fills.clear();
+        assertTrue(fills.isEmpty());
+        assertEquals(0, fills.copy().size());
+    }
+
+    @Test
+    void testTradeModelsAreBuiltFromThePrimitiveFields() {
+        long now = 1_757_535_224_130_462_600L;
+        FillBuffer fills = new FillBuffer(1);
+        fills.add(2L, 1L, 4325100, 35, now);
+
+        List<TradeModel> trades = fills.toTradeModels();
+
+        assertEquals(1, trades.size());
+        assertEquals(2L, trades.getFirst().getBuyOrderId());
+        assertEquals(1L, trades.getFirst().getSellOrderId());
+        assertEquals(43251.00, trades.getFirst().getPrice());
+        assertEquals(0.35, trades.getFirst().getAmount());
+        assertEquals(EpochNanos.toOffsetDateTime(now), trades.getFirst().getCreatedAt());
+    }
+}
@@ -2,12 +2,20 @@ package com.htm.ome.core;
 
 import com.htm.ome.enums.OrderDirection;
 import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.enums.OrderType;
+import com.htm.ome.enums.TimeInForce;
 import com.htm.ome.model.Order;
 import com.htm.ome.model.TradeModel;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
 
+import java.lang.management.ManagementFactory;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -158,4 +166,385 @@ class MatchEngineTest {
         assertEquals(1.0, buy.getPendingAmount());
         assertEquals(OrderStatus.OPEN, buy.getStatus());
     }
+
+    @Test
+    void testFractionalFillsSettleExactly() {
+        Order sell1 = Order.builder()
+                .id(1L)
+                .asset("BTC")
+                .price(0.10)
+                .amount(0.10)
+                .pendingAmount(0.10)
+                .direction(OrderDirection.SELL)
+                .status(OrderStatus.OPEN)
+                .build();
+        Order sell2 = Order.builder()
+                .id(2L)
+                .asset("BTC")
+                .price(0.20)
+                .amount(0.20)
+                .pendingAmount(0.20)
+                .direction(OrderDirection.SELL)
+                .status(OrderStatus.OPEN)
+                .build();
+        matchEngine.addOrderToBook(sell1);
+        matchEngine.addOrderToBook(sell2);
+
+        Order buy = Order.builder()
+                .id(3L)
+                .asset("BTC")
+                .price(0.30)
+                .amount(0.30)
+                .pendingAmount(0.30)
+                .direction(OrderDirection.BUY)
+                .status(OrderStatus.OPEN)
+                .build();
+
+        List<TradeModel> trades = matchEngine.match(buy);
+
+        assertEquals(2, trades.size());
+        assertEquals(0L, buy.getPendingLots());
+        assertEquals(OrderStatus.FILLED, buy.getStatus());
+        assertEquals(10L, trades.get(0).getAmountLots());
+        assertEquals(20L, trades.get(1).getPriceTicks());
+        assertEquals(0.2, trades.get(1).getAmount());
+    }
+
+    @Test
+    void testLadderBookSweepsLevelsInPriceOrder() {
+        matchEngine = new MatchEngine(new OrderBookFactory(Set.of("BTC"), 64));
+        for (long i = 0; i < 5; i++) {
+            matchEngine.addOrderToBook(Order.builder()
+                    .id(i)
+                    .asset("BTC")
+                    .price(100.00 + (4 - i))
+                    .amount(1.0)
+                    .pendingAmount(1.0)
+                    .direction(OrderDirection.SELL)
+                    .status(OrderStatus.OPEN)
+                    .build());
+        }
+
+        Order buy = Order.builder()
+                .id(10L)
+                .asset("BTC")
+                .price(102.00)
+                .amount(5.0)
+                .pendingAmount(5.0)
+                .direction(OrderDirection.BUY)
+                .status(OrderStatus.OPEN)
+                .build();
+
+        List<TradeModel> trades = matchEngine.match(buy);
+
+        assertEquals(3, trades.size());
+        assertEquals(100.0, trades.get(0).getPrice());
+        assertEquals(101.0, trades.get(1).getPrice());
+        assertEquals(102.0, trades.get(2).getPrice());
+        assertEquals(2.0, buy.getPendingAmount());
+        assertEquals(OrderStatus.PARTIALLY_FILLED, buy.getStatus());
+    }
+
+    private Order restingOrder(long id, double price, double amount, OrderDirection direction) {
+        return Order.builder()
+                .id(id)
+                .asset("BTC")
+                .price(price)
+                .amount(amount)
+                .pendingAmount(amount)
+                .direction(direction)
+                .status(OrderStatus.OPEN)
+                .build();
+    }
+
+    @Test
+    void testCancelUnlinksOrderAndKeepsFifoOfTheRest() {
+        Order first = restingOrder(1L, 100.00, 1.00, OrderDirection.SELL);
+        Order middle = restingOrder(2L, 100.00, 1.00, OrderDirection.SELL);
+        Order last = restingOrder(3L, 100.00, 1.00, OrderDirection.SELL);
+        matchEngine.addOrderToBook(first);
+        matchEngine.addOrderToBook(middle);
+        matchEngine.addOrderToBook(last);
+
+        assertSame(middle, matchEngine.cancel(middle));
+        assertEquals(OrderStatus.CANCELLED, middle.getStatus());
+        assertNull(matchEngine.cancel(middle));
+
+        List<TradeModel> trades = matchEngine.match(restingOrder(4L, 100.00, 2.00, OrderDirection.BUY));
+        assertEquals(List.of(1L, 3L), trades.stream().map(TradeModel::getSellOrderId).toList());
+    }
+
+    @Test
+    void testCancelLastOrderRemovesLevel() {
+        matchEngine = new MatchEngine(new OrderBookFactory(Set.of("BTC"), 64));
+        Order best = restingOrder(1L, 100.00, 1.00, OrderDirection.BUY);
+        Order worse = restingOrder(2L, 99.00, 1.00, OrderDirection.BUY);
+        matchEngine.addOrderToBook(best);
+        matchEngine.addOrderToBook(worse);
+
+        assertSame(best, matchEngine.cancel(best));
+
+        Order sell = restingOrder(3L, 99.00, 1.00, OrderDirection.SELL);
+        List<TradeModel> trades = matchEngine.match(sell);
+        assertEquals(1, trades.size());
+        assertEquals(2L, trades.getFirst().getBuyOrderId());
+        assertEquals(99.00, trades.getFirst().getPrice());
+        assertTrue(matchEngine.restingOrders("BTC").isEmpty());
+    }
+
+    @Test
+    void testFilledOrdersCannotBeCancelled() {
+        Order sell = restingOrder(1L, 100.00, 1.00, OrderDirection.SELL);
+        matchEngine.addOrderToBook(sell);
+        Order buy = restingOrder(2L, 100.00, 1.00, OrderDirection.BUY);
+        matchEngine.match(buy);
+        matchEngine.addOrderToBook(buy);
+
+        assertNull(matchEngine.cancel(sell));
+        assertNull(matchEngine.cancel(buy));
+        assertEquals(OrderStatus.FILLED, sell.getStatus());
+        assertTrue(matchEngine.restingOrders("BTC").isEmpty());
+    }
+
+    @Test
+    void testDepthTracksAddsFillsAndCancels() {
+        for (MatchEngine engine : List.of(new MatchEngine(), new MatchEngine(new OrderBookFactory(Set.of("BTC"), 64)))) {
+            Order cancelled = restingOrder(1L, 101.00, 2.00, OrderDirection.SELL);
+            engine.addOrderToBook(cancelled);
+            engine.addOrderToBook(restingOrder(2L, 100.00, 1.00, OrderDirection.SELL));
+            engine.addOrderToBook(restingOrder(3L, 100.00, 1.50, OrderDirection.SELL));
+            engine.addOrderToBook(restingOrder(4L, 99.00, 3.00, OrderDirection.BUY));
+
+            engine.match(restingOrder(5L, 100.00, 1.25, OrderDirection.BUY));
+            assertEquals(List.of(new LevelDepth(10000, 125, 1), new LevelDepth(10100, 200, 1)),
+                    engine.depth("BTC", OrderDirection.SELL, 5));
+
+            engine.cancel(cancelled);
+            assertEquals(List.of(new LevelDepth(10000, 125, 1)), engine.depth("BTC", OrderDirection.SELL, 5));
+            assertEquals(List.of(new LevelDepth(9900, 300, 1)), engine.depth("BTC", OrderDirection.BUY, 1));
+            assertTrue(engine.depth("ETH", OrderDirection.BUY, 5).isEmpty());
+        }
+    }
+
+    @Test
+    void testIocRemainderIsDroppedInsteadOfResting() {
+        matchEngine.addOrderToBook(restingOrder(1L, 100.00, 1.00, OrderDirection.SELL));
+        Order ioc = restingOrder(2L, 100.00, 1.50, OrderDirection.BUY);
+        ioc.setTimeInForce(TimeInForce.IOC);
+
+        List<TradeModel> trades = matchEngine.match(ioc);
+        matchEngine.addOrderToBook(ioc);
+
+        assertEquals(1, trades.size());
+        assertEquals(0.5, ioc.getPendingAmount());
+        assertEquals(OrderStatus.CANCELLED, ioc.getStatus());
+        assertTrue(matchEngine.restingOrders("BTC").isEmpty());
+        assertNull(matchEngine.cancel(ioc));
+    }
+
+    @Test
+    void testFokWithoutEnoughDepthLeavesTheBookUntouched() {
+        for (MatchEngine engine : List.of(new MatchEngine(), new MatchEngine(new OrderBookFactory(Set.of("BTC"), 64)))) {
+            Order near = restingOrder(1L, 100.00, 1.00, OrderDirection.SELL);
+            engine.addOrderToBook(near);
+            engine.addOrderToBook(restingOrder(2L, 101.00, 1.00, OrderDirection.SELL));
+            engine.addOrderToBook(restingOrder(3L, 102.00, 5.00, OrderDirection.SELL));
+            Order fok = restingOrder(4L, 101.00, 2.50, OrderDirection.BUY);
+            fok.setTimeInForce(TimeInForce.FOK);
+
+            FillBuffer fills = engine.matchFills(fok);
+            engine.addOrderToBook(fok);
+
+            assertTrue(fills.isEmpty());
+            assertEquals(OrderStatus.CANCELLED, fok.getStatus());
+            assertEquals(2.5, fok.getPendingAmount());
+            assertEquals(OrderStatus.OPEN, near.getStatus());
+            assertEquals(1.0, near.getPendingAmount());
+            assertEquals(List.of(new LevelDepth(10000, 100, 1), new LevelDepth(10100, 100, 1),
+                    new LevelDepth(10200, 500, 1)), engine.depth("BTC", OrderDirection.SELL, 5));
+            assertTrue(engine.depth("BTC", OrderDirection.BUY, 5).isEmpty());
+        }
+    }
+
+    @Test
+    void testFokFillsAcrossLevelsWhenTheirTotalCoversIt() {
+        for (MatchEngine engine : List.of(new MatchEngine(), new MatchEngine(new OrderBookFactory(Set.of("BTC"), 64)))) {
+            engine.addOrderToBook(restingOrder(1L, 99.00, 1.00, OrderDirection.BUY));
+            engine.addOrderToBook(restingOrder(2L, 99.00, 0.50, OrderDirection.BUY));
+            engine.addOrderToBook(restingOrder(3L, 98.00, 1.00, OrderDirection.BUY));
+            Order fok = restingOrder(4L, 98.00, 2.50, OrderDirection.SELL);
+            fok.setTimeInForce(TimeInForce.FOK);
+
+            List<TradeModel> trades = engine.match(fok);
+
+            assertEquals(3, trades.size());
+            assertEquals(OrderStatus.FILLED, fok.getStatus());
+            assertEquals(List.of(1L, 2L, 3L), trades.stream().map(TradeModel::getBuyOrderId).toList());
+            assertTrue(engine.depth("BTC", OrderDirection.BUY, 5).isEmpty());
+        }
+    }
+
+    private Order marketOrder(long id, double amount, OrderDirection direction) {
+        return Order.builder()
+                .id(id)
+                .asset("BTC")
+                .amount(amount)
+                .pendingAmount(amount)
+                .direction(direction)
+                .type(OrderType.MARKET)
+                .timeInForce(TimeInForce.IOC)
+                .status(OrderStatus.OPEN)
+                .build();
+    }
+
+    @Test
+    void testPrepareBoundsFillsAndResolvesMarketLimitWithoutTouchingTheBook() {
+        for (MatchEngine engine : List.of(new MatchEngine(), new MatchEngine(new OrderBookFactory(Set.of("BTC"), 64)))) {
+            engine.addOrderToBook(restingOrder(1L, 100.00, 1.00, OrderDirection.SELL));
+            engine.addOrderToBook(restingOrder(2L, 100.00, 1.00, OrderDirection.SELL));
+            engine.addOrderToBook(restingOrder(3L, 105.00, 1.00, OrderDirection.SELL));
+            // an outlier of the ladder, better than its window
+            engine.addOrderToBook(restingOrder(4L, 50.00, 1.00, OrderDirection.SELL));
+
+            assertEquals(3, engine.prepare(restingOrder(5L, 100.00, 1.50, OrderDirection.BUY)));
+            assertEquals(0, engine.prepare(restingOrder(6L, 40.00, 1.00, OrderDirection.BUY)));
+            Order market = marketOrder(7L, 10.00, OrderDirection.BUY);
+            market.setMaxLevels(2);
+            assertEquals(3, engine.prepare(market));
+            assertEquals(100.00, market.getPrice());
+            assertEquals(4, engine.restingOrderCount("BTC"));
+
+            assertEquals(3, engine.matchFills(market).size());
+            assertEquals(100.00, market.getPrice());
+        }
+    }
+
+    @Test
+    void testRestingOrderCountFollowsRestsFillsAndCancels() {
+        assertEquals(0, matchEngine.restingOrderCount("BTC"));
+        matchEngine.addOrderToBook(restingOrder(1L, 100.00, 1.00, OrderDirection.SELL));
+        matchEngine.addOrderToBook(restingOrder(2L, 100.00, 1.00, OrderDirection.SELL));
+        Order last = restingOrder(3L, 101.00, 1.00, OrderDirection.SELL);
+        matchEngine.addOrderToBook(last);
+        assertEquals(3, matchEngine.restingOrderCount("BTC"));
+
+        matchEngine.matchFills(restingOrder(4L, 100.00, 2.00, OrderDirection.BUY));
+        assertEquals(1, matchEngine.restingOrderCount("BTC"));
+
+        matchEngine.cancel(last);
+        assertEquals(0, matchEngine.restingOrderCount("BTC"));
+    }
+
+    @Test
+    void testMarketOrderSweepsAtMostMaxLevelsAndNeverRests() {
+        for (MatchEngine engine : List.of(new MatchEngine(), new MatchEngine(new OrderBookFactory(Set.of("BTC"), 64)))) {
+            engine.addOrderToBook(restingOrder(1L, 100.00, 1.00, OrderDirection.SELL));
+            engine.addOrderToBook(restingOrder(2L, 100.00, 1.00, OrderDirection.SELL));
+            engine.addOrderToBook(restingOrder(3L, 105.00, 1.00, OrderDirection.SELL));
+            engine.addOrderToBook(restingOrder(4L, 500.00, 1.00, OrderDirection.SELL));
+            Order market = marketOrder(5L, 10.00, OrderDirection.BUY);
+            market.setMaxLevels(2);
+
+            List<TradeModel> trades = engine.match(market);
+            engine.addOrderToBook(market);
+
+            assertEquals(List.of(1L, 2L, 3L), trades.stream().map(TradeModel::getSellOrderId).toList());
+            assertEquals(7.0, market.getPendingAmount());
+            assertEquals(OrderStatus.CANCELLED, market.getStatus());
+            assertEquals(10500, market.getPriceTicks());
+            assertEquals(List.of(new LevelDepth(50000, 100, 1)), engine.depth("BTC", OrderDirection.SELL, 5));
+            assertTrue(engine.depth("BTC", OrderDirection.BUY, 5).isEmpty());
+        }
+    }
+
+    @Test
+    void testMarketOrderStopsAtMaxSlippageFromTheBestPrice() {
+        matchEngine.addOrderToBook(restingOrder(1L, 100.00, 1.00, OrderDirection.BUY));
+        matchEngine.addOrderToBook(restingOrder(2L, 99.50, 1.00, OrderDirection.BUY));
+        matchEngine.addOrderToBook(restingOrder(3L, 98.00, 1.00, OrderDirection.BUY));
+        Order market = marketOrder(4L, 3.00, OrderDirection.SELL);
+        market.setMaxSlippageBps(100);
+
+        List<TradeModel> trades = matchEngine.match(market);
+
+        assertEquals(List.of(1L, 2L), trades.stream().map(TradeModel::getBuyOrderId).toList());
+        assertEquals(1.0, market.getPendingAmount());
+        assertEquals(99.5, market.getPrice());
+        assertEquals(List.of(new LevelDepth(9800, 100, 1)), matchEngine.depth("BTC", OrderDirection.BUY, 5));
+    }
+
+    @Test
+    void testMarketOrderFillsCompletelyWithoutProtection() {
+        matchEngine.addOrderToBook(restingOrder(1L, 100.00, 1.00, OrderDirection.SELL));
+        matchEngine.addOrderToBook(restingOrder(2L, 900.00, 1.00, OrderDirection.SELL));
+        Order market = marketOrder(3L, 1.50, OrderDirection.BUY);
+
+        List<TradeModel> trades = matchEngine.match(market);
+
+        assertEquals(2, trades.size());
+        assertEquals(OrderStatus.FILLED, market.getStatus());
+        assertEquals(900.0, market.getPrice());
+        assertEquals(List.of(new LevelDepth(90000, 50, 1)), matchEngine.depth("BTC", OrderDirection.SELL, 5));
+    }
+
+    @Test
+    @Tag("allocation")
+    void testSteadyStateMatchingAllocatesNothingPerFill() {
+        Logger engineLog = (Logger) LoggerFactory.getLogger(MatchEngine.class);
+        Level level = engineLog.getLevel();
+        engineLog.setLevel(Level.INFO);
+        try {
+            for (MatchEngine engine : List.of(new MatchEngine(), new MatchEngine(new OrderBookFactory(Set.of("BTC"), 64)))) {
+                engine.addOrderToBook(restingOrder(1L, 100.00, 1_000_000_000.00, OrderDirection.SELL));
+                engine.addOrderToBook(restingOrder(2L, 99.00, 1_000_000_000.00, OrderDirection.BUY));
+                Order buy = restingOrder(3L, 100.00, 0.01, OrderDirection.BUY);
+                Order sell = restingOrder(4L, 99.00, 0.01, OrderDirection.SELL);
+
+                long bytesPerFill = Long.MAX_VALUE;
+                for (int round = 0; round < 10 && bytesPerFill > 0; round++) {
+                    long before = allocatedBytes();
+                    int fills = 0;
+                    for (int i = 0; i < 50_000; i++) {
+                        buy.setPendingLots(1);
+                        sell.setPendingLots(1);
+                        fills += engine.matchFills(buy).size();
+                        fills += engine.matchFills(sell).size();
+                    }
+                    assertEquals(100_000, fills);
+                    bytesPerFill = (allocatedBytes() - before) / fills;
+                }
+
+                assertEquals(0, bytesPerFill);
+            }
+        } finally {
+            engineLog.setLevel(level);
+        }
+    }
+
+    @Test
+    void testMatchFillsReusesTheBookBuffer() {
+        matchEngine.addOrderToBook(restingOrder(1L, 100.00, 1.00, OrderDirection.SELL));
+        matchEngine.addOrderToBook(restingOrder(2L, 101.00, 1.00, OrderDirection.SELL));
+
+        FillBuffer fills = matchEngine.matchFills(restingOrder(3L, 101.00, 1.50, OrderDirection.BUY));
+        assertEquals(2, fills.size());
+        assertEquals(10000, fills.priceTicks(0));
+        assertEquals(100, fills.amountLots(0));
+        assertEquals(10100, fills.priceTicks(1));
+        assertEquals(50, fills.amountLots(1));
+        assertTrue(fills.epochNanos(0) > 0);
+        FillBuffer copy = fills.copy();
+
+        assertSame(fills, matchEngine.matchFills(restingOrder(4L, 101.00, 0.25, OrderDirection.BUY)));
+        assertEquals(1, fills.size());
+        assertEquals(4L, fills.buyOrderId(0));
+        assertEquals(2, copy.size());
+        assertEquals(3L, copy.buyOrderId(1));
+        assertEquals(2L, copy.sellOrderId(1));
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
 }
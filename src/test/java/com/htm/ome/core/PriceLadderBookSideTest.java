@@ -0,0 +1,255 @@
+package com.htm.ome.core;
+
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceLadderBookSideTest {
+
+    private long nextId = 1;
+
+    private Order order(long priceTicks, OrderDirection direction) {
+        return Order.builder()
+                .id(nextId++)
+                .asset("BTC")
+                .priceTicks(priceTicks)
+                .amountLots(100)
+                .pendingLots(100)
+                .direction(direction)
+                .status(OrderStatus.OPEN)
+                .build();
+    }
+
+    @Test
+    void testAsksTrackLowestPriceAndFifo() {
+        PriceLadderBookSide asks = new PriceLadderBookSide(false, 16);
+        Order first = order(1005, OrderDirection.SELL);
+        Order second = order(1005, OrderDirection.SELL);
+        asks.add(order(1007, OrderDirection.SELL));
+        asks.add(first);
+        asks.add(second);
+
+        assertEquals(1005, asks.best().getPrice());
+        assertSame(first, asks.best().pollFirst());
+        assertSame(second, asks.best().pollFirst());
+
+        asks.removeLevel(asks.best());
+        assertEquals(1007, asks.best().getPrice());
+    }
+
+    @Test
+    void testBidsTrackHighestPrice() {
+        PriceLadderBookSide bids = new PriceLadderBookSide(true, 16);
+        bids.add(order(1000, OrderDirection.BUY));
+        bids.add(order(1003, OrderDirection.BUY));
+        bids.add(order(998, OrderDirection.BUY));
+
+        assertEquals(1003, bids.best().getPrice());
+        bids.best().pollFirst();
+        bids.removeLevel(bids.best());
+        assertEquals(1000, bids.best().getPrice());
+    }
+
+    @Test
+    void testOutliersUseSparseLevelsAndCompeteForBest() {
+        PriceLadderBookSide asks = new PriceLadderBookSide(false, 16);
+        asks.add(order(1000, OrderDirection.SELL));
+        asks.add(order(5000, OrderDirection.SELL));
+        asks.add(order(10, OrderDirection.SELL));
+
+        assertEquals(10, asks.best().getPrice());
+        asks.best().pollFirst();
+        asks.removeLevel(asks.best());
+        assertEquals(1000, asks.best().getPrice());
+        asks.best().pollFirst();
+        asks.removeLevel(asks.best());
+        assertEquals(5000, asks.best().getPrice());
+        assertFalse(asks.isEmpty());
+    }
+
+    @Test
+    void testEmptyLadderRecentersAndPullsInOutliers() {
+        PriceLadderBookSide asks = new PriceLadderBookSide(false, 16);
+        asks.add(order(1000, OrderDirection.SELL));
+        asks.add(order(2000, OrderDirection.SELL));
+        asks.best().pollFirst();
+        asks.removeLevel(asks.best());
+
+        asks.add(order(2003, OrderDirection.SELL));
+
+        assertEquals(2000, asks.best().getPrice());
+        asks.best().pollFirst();
+        asks.removeLevel(asks.best());
+        assertEquals(2003, asks.best().getPrice());
+        asks.best().pollFirst();
+        asks.removeLevel(asks.best());
+        assertTrue(asks.isEmpty());
+        assertNull(asks.best());
+    }
+
+    @Test
+    void testDepthMergesLadderAndOutliersBestFirst() {
+        PriceLadderBookSide bids = new PriceLadderBookSide(true, 8);
+        bids.add(order(1000, OrderDirection.BUY));
+        bids.add(order(1002, OrderDirection.BUY));
+        bids.add(order(1002, OrderDirection.BUY));
+        bids.add(order(1050, OrderDirection.BUY));
+        bids.add(order(900, OrderDirection.BUY));
+
+        assertEquals(List.of(
+                new LevelDepth(1050, 100, 1),
+                new LevelDepth(1002, 200, 2),
+                new LevelDepth(1000, 100, 1)), bids.depth(3));
+        assertEquals(4, bids.depth(10).size());
+    }
+
+    @Test
+    void testCanFillCountsLadderAndOutlierLevelsWithinTheLimit() {
+        PriceLadderBookSide asks = new PriceLadderBookSide(false, 8);
+        asks.add(order(1000, OrderDirection.SELL));
+        asks.add(order(1002, OrderDirection.SELL));
+        asks.add(order(1002, OrderDirection.SELL));
+        asks.add(order(1050, OrderDirection.SELL));
+
+        assertTrue(asks.canFill(1002, 300));
+        assertFalse(asks.canFill(1002, 301));
+        assertFalse(asks.canFill(999, 1));
+        assertTrue(asks.canFill(1050, 400));
+        assertEquals(3, asks.depth(10).size());
+    }
+
+    @Test
+    void testDepthSkipsEmptySlotsAcrossBitsetWords() {
+        PriceLadderBookSide bids = new PriceLadderBookSide(true, 1024);
+        PriceLadderBookSide asks = new PriceLadderBookSide(false, 1024);
+        for (long price : new long[]{10_000, 10_063, 10_064, 10_300, 9_700}) {
+            bids.add(order(price, OrderDirection.BUY));
+            asks.add(order(price, OrderDirection.SELL));
+        }
+
+        assertEquals(List.of(10_300L, 10_064L, 10_063L, 10_000L, 9_700L),
+                bids.depth(10).stream().map(LevelDepth::priceTicks).toList());
+        assertEquals(List.of(9_700L, 10_000L, 10_063L),
+                asks.depth(3).stream().map(LevelDepth::priceTicks).toList());
+    }
+
+    @Test
+    void testDepthReadDuringRecentresOnlySeesOneWindow() throws Exception {
+        PriceLadderBookSide asks = new PriceLadderBookSide(false, 16);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<List<LevelDepth>> torn = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                List<LevelDepth> depth = asks.depth(4);
+                List<Long> prices = depth.stream().map(LevelDepth::priceTicks).toList();
+                if (!prices.stream().allMatch(List.of(1000L, 1003L, 5000L, 5005L)::contains)
+                        || !prices.equals(prices.stream().sorted().toList())) {
+                    torn.set(depth);
+                }
+            }
+        });
+        reader.start();
+        try {
+            for (int i = 0; i < 20_000; i++) {
+                long mid = i % 2 == 0 ? 1000 : 5000;
+                asks.add(order(mid, OrderDirection.SELL));
+                asks.add(order(i % 2 == 0 ? 1003 : 5005, OrderDirection.SELL));
+                for (int level = 0; level < 2; level++) {
+                    asks.best().pollFirst();
+                    asks.removeLevel(asks.best());
+                }
+            }
+        } finally {
+            done.set(true);
+            reader.join();
+        }
+        assertNull(torn.get());
+    }
+
+    @Test
+    void testWindowFollowsATrendingTouch() {
+        PriceLadderBookSide asks = new PriceLadderBookSide(false, 16);
+        for (long price = 1000; price < 1100; price++) {
+            asks.add(order(price, OrderDirection.SELL));
+            asks.add(order(price + 20, OrderDirection.SELL));
+            if (price >= 1003) {
+                asks.best().pollFirst();
+                asks.removeLevel(asks.best());
+            }
+        }
+
+        List<Long> levels = new ArrayList<>();
+        asks.forEachLevel(level -> levels.add(level.getPrice()));
+        assertEquals(levels, levels.stream().sorted().toList());
+        assertEquals(List.of(1097L, 1098L, 1099L, 1100L), asks.depth(4).stream().map(LevelDepth::priceTicks).toList());
+        assertEquals(levels.size(), asks.depth(1000).size());
+        assertEquals(1097, asks.levelPrice(1));
+
+        for (int i = 0; i < 200 && !asks.isEmpty(); i++) {
+            asks.best().pollFirst();
+            asks.removeLevel(asks.best());
+        }
+        assertTrue(asks.isEmpty());
+        assertTrue(asks.depth(10).isEmpty());
+    }
+
+    @Test
+    void testBetterOutlierMovesTheWindowOntoIt() {
+        PriceLadderBookSide bids = new PriceLadderBookSide(true, 16);
+        bids.add(order(1000, OrderDirection.BUY));
+        bids.add(order(995, OrderDirection.BUY));
+        bids.add(order(2000, OrderDirection.BUY));
+
+        assertEquals(2000, bids.best().getPrice());
+        assertEquals(List.of(2000L, 1000L, 995L), bids.depth(5).stream().map(LevelDepth::priceTicks).toList());
+
+        bids.best().pollFirst();
+        bids.removeLevel(bids.best());
+        assertEquals(1000, bids.best().getPrice());
+        assertTrue(bids.canFill(995, 200));
+        assertEquals(2, bids.maxFills(995, 200));
+    }
+
+    @Test
+    void testOneFarOutlierLeavesTheLadderInPlace() {
+        PriceLadderBookSide bids = new PriceLadderBookSide(true, 16);
+        for (long price = 1000; price <= 1004; price++) {
+            bids.add(order(price, OrderDirection.BUY));
+        }
+        bids.add(order(9000, OrderDirection.BUY));
+
+        assertEquals(9000, bids.best().getPrice());
+        assertEquals(1, bids.outlierLevels());
+        assertEquals(List.of(9000L, 1004L, 1003L), bids.depth(3).stream().map(LevelDepth::priceTicks).toList());
+
+        bids.best().pollFirst();
+        bids.removeLevel(bids.best());
+        assertEquals(1004, bids.best().getPrice());
+        assertEquals(0, bids.outlierLevels());
+    }
+
+    @Test
+    void testSeveralFarOutliersMoveTheWindow() {
+        PriceLadderBookSide bids = new PriceLadderBookSide(true, 16);
+        for (long price = 1000; price <= 1004; price++) {
+            bids.add(order(price, OrderDirection.BUY));
+        }
+        for (long price = 2000; price <= 2004; price++) {
+            bids.add(order(price, OrderDirection.BUY));
+        }
+
+        assertEquals(2004, bids.best().getPrice());
+        // the old levels are the outliers now
+        assertEquals(5, bids.outlierLevels());
+        assertEquals(List.of(2004L, 2003L, 2002L, 2001L, 2000L, 1004L),
+                bids.depth(6).stream().map(LevelDepth::priceTicks).toList());
+    }
+}
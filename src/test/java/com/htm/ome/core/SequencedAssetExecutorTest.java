@@ -0,0 +1,71 @@
+package com.htm.ome.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequencedAssetExecutorTest {
+
+    private SequencedAssetExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new SequencedAssetExecutor(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void testTasksOfOneAssetRunInSubmissionOrderOnOneThread() throws Exception {
+        List<Integer> executed = new ArrayList<>();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int n = i;
+            futures.add(executor.submit(0, "BTC", () -> {
+                threads.add(Thread.currentThread().getName());
+                executed.add(n);
+                return n;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1000, executed.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, executed.get(i));
+        }
+        assertEquals(Set.of("ome-sequencer-BTC"), threads);
+    }
+
+    @Test
+    void testAssetsRunOnSeparateThreads() throws Exception {
+        String btc = executor.submit(0, "BTC", () -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+        String eth = executor.submit(1, "ETH", () -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        assertNotEquals(btc, eth);
+    }
+
+    @Test
+    void testTaskFailureCompletesFutureExceptionally() {
+        CompletableFuture<Object> future = executor.submit(0, "BTC", () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+        assertEquals(42, assertDoesNotThrow(() -> executor.submit(0, "BTC", () -> 42).get(5, TimeUnit.SECONDS)));
+    }
+}
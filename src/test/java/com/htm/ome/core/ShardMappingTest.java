@@ -0,0 +1,44 @@
+package com.htm.ome.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardMappingTest {
+
+    @Test
+    void testAssetsAreDealtRoundRobinInConfigurationOrder() {
+        ShardMapping mapping = new ShardMapping(2, List.of("BTC", "ETH", "AAPL", "GOOG"), Map.of());
+
+        assertEquals(0, mapping.shardOf("BTC"));
+        assertEquals(1, mapping.shardOf("ETH"));
+        assertEquals(0, mapping.shardOf("AAPL"));
+        assertEquals(1, mapping.shardOf("GOOG"));
+    }
+
+    @Test
+    void testExplicitlyAssignedAssetGetsItsShardToItself() {
+        ShardMapping mapping = new ShardMapping(3, List.of("BTC", "ETH", "AAPL", "GOOG"),
+                ShardMapping.parseAssignments("BTC:1"));
+
+        assertEquals(1, mapping.shardOf("BTC"));
+        assertEquals(0, mapping.shardOf("ETH"));
+        assertEquals(2, mapping.shardOf("AAPL"));
+        assertEquals(0, mapping.shardOf("GOOG"));
+        int unknown = mapping.shardOf("XRP");
+        assertTrue(unknown >= 0 && unknown < 3);
+        assertEquals(unknown, mapping.shardOf("XRP"));
+    }
+
+    @Test
+    void testInvalidAssignmentsAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShardMapping(2, List.of("BTC"), ShardMapping.parseAssignments("BTC:2")));
+        assertThrows(IllegalArgumentException.class, () -> ShardMapping.parseAssignments("BTC"));
+        assertThrows(IllegalArgumentException.class, () -> new ShardMapping(0, List.of(), Map.of()));
+        assertEquals(Map.of("BTC", 0, "ETH", 1), ShardMapping.parseAssignments(" BTC:0, ETH:1 ,"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.htm.ome.core;
+
+import com.htm.ome.metrics.EngineMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedAssetExecutorTest {
+
+    private final AssetRegistry assets = new AssetRegistry();
+
+    private String threadOf(ShardedAssetExecutor executor, String asset) throws Exception {
+        return executor.submit(assets.register(asset), asset, () -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testEachAssetRunsOnItsShardThread() throws Exception {
+        ShardMapping mapping = new ShardMapping(2, List.of("BTC", "ETH", "AAPL"), Map.of());
+        try (ShardedAssetExecutor executor = new ShardedAssetExecutor(mapping, 16)) {
+            assertEquals("ome-shard-0", threadOf(executor, "BTC"));
+            assertEquals("ome-shard-1", threadOf(executor, "ETH"));
+            assertEquals("ome-shard-0", threadOf(executor, "AAPL"));
+        }
+    }
+
+    @Test
+    void testAssetsSharingAShardKeepTheirSubmissionOrder() throws Exception {
+        ShardMapping mapping = new ShardMapping(1, List.of("BTC", "ETH"), Map.of());
+        List<String> executed = new ArrayList<>();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        try (ShardedAssetExecutor executor = new ShardedAssetExecutor(mapping, 8)) {
+            for (int i = 0; i < 500; i++) {
+                String entry = (i % 2 == 0 ? "BTC-" : "ETH-") + i;
+                String asset = entry.substring(0, 3);
+                futures.add(executor.submit(assets.register(asset), asset, () -> executed.add(entry)));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(500, executed.size());
+        for (int i = 0; i < 500; i++) {
+            assertTrue(executed.get(i).endsWith("-" + i));
+        }
+    }
+
+    @Test
+    void testShardStillRunsWhenItCannotBePinned() throws Exception {
+        ShardMapping mapping = new ShardMapping(1, List.of("BTC"), Map.of());
+        try (ShardedAssetExecutor executor = new ShardedAssetExecutor(mapping, 8, List.of(4096),
+                EngineMetrics.disabled())) {
+            assertEquals("ome-shard-0", threadOf(executor, "BTC"));
+        }
+    }
+}
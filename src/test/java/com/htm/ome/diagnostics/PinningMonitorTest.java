@@ -0,0 +1,71 @@
+package com.htm.ome.diagnostics;
+
+import com.htm.ome.core.LockingAssetExecutor;
+import com.htm.ome.dto.PinningReport;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PinningMonitorTest {
+
+    private static PinningReport awaitEvents(PinningMonitor monitor) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        PinningReport report = monitor.report();
+        while (report.getEvents() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            report = monitor.report();
+        }
+        return report;
+    }
+
+    @Test
+    void testReportsPinnedVirtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() < 24, "monitors no longer pin virtual threads since JDK 24");
+        Object monitorLock = new Object();
+        try (PinningMonitor monitor = new PinningMonitor(Duration.ofMillis(1))) {
+            Thread.ofVirtual().start(() -> {
+                synchronized (monitorLock) {
+                    try {
+                        Thread.sleep(30);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }).join();
+
+            PinningReport report = awaitEvents(monitor);
+            assertTrue(report.getEvents() > 0);
+            assertTrue(report.getSites().stream()
+                    .anyMatch(site -> site.getStack().contains(PinningMonitorTest.class.getName())));
+        }
+    }
+
+    @Test
+    void testLockingExecutorOnVirtualThreadsDoesNotPin() throws Exception {
+        try (PinningMonitor monitor = new PinningMonitor(Duration.ofMillis(1))) {
+            LockingAssetExecutor executor = new LockingAssetExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                int n = i;
+                futures.add(executor.submit(0, "BTC", () -> {
+                    Thread.sleep(0, 1000);
+                    return n;
+                }));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+            executor.drain();
+            Thread.sleep(1500);
+
+            assertTrue(monitor.report().getSites().stream()
+                    .noneMatch(site -> site.getStack().contains("com.htm.ome.core")));
+        }
+    }
+}
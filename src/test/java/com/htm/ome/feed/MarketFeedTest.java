@@ -0,0 +1,163 @@
+package com.htm.ome.feed;
+
+import com.htm.ome.core.FillBuffer;
+import com.htm.ome.core.MatchEngine;
+import com.htm.ome.dto.BookUpdateEvent;
+import com.htm.ome.dto.TradeEvent;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.model.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketFeedTest {
+
+    private MatchEngine matchEngine;
+    private MarketFeed feed;
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        matchEngine = new MatchEngine();
+        feed = new MarketFeed(matchEngine, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.close();
+    }
+
+    private static class RecordingSink implements FeedSink {
+        final List<Object> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch gate;
+        final CountDownLatch closed = new CountDownLatch(1);
+        volatile Throwable error;
+
+        RecordingSink(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(String eventName, Object data) {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(data);
+        }
+
+        @Override
+        public void close(Throwable error) {
+            this.error = error;
+            closed.countDown();
+        }
+    }
+
+    private Order submit(double price, double amount, OrderDirection direction) {
+        Order order = Order.builder()
+                .id(nextId++)
+                .asset("BTC")
+                .price(price)
+                .amount(amount)
+                .pendingAmount(amount)
+                .direction(direction)
+                .status(OrderStatus.OPEN)
+                .build();
+        FillBuffer fills = matchEngine.matchFills(order);
+        matchEngine.addOrderToBook(order);
+        feed.onOrder(order, fills);
+        return order;
+    }
+
+    private static void awaitEvents(RecordingSink sink, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sink.events.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void testTradesAndTouchedLevelsArePublished() throws Exception {
+        RecordingSink sink = new RecordingSink(new CountDownLatch(0));
+        feed.subscribe("BTC", sink);
+
+        submit(100.00, 1.00, OrderDirection.SELL);
+        awaitEvents(sink, 1);
+        submit(100.00, 0.40, OrderDirection.BUY);
+        awaitEvents(sink, 3);
+
+        assertEquals(3, sink.events.size());
+        BookUpdateEvent added = (BookUpdateEvent) sink.events.get(0);
+        assertEquals(OrderDirection.SELL, added.getSide());
+        assertEquals(1.00, added.getAmount());
+        TradeEvent trade = (TradeEvent) sink.events.get(1);
+        assertEquals(0.40, trade.getAmount());
+        assertEquals(1L, trade.getSellOrderId());
+        BookUpdateEvent reduced = (BookUpdateEvent) sink.events.get(2);
+        assertEquals(0.60, reduced.getAmount());
+        assertTrue(reduced.getSequence() > trade.getSequence());
+    }
+
+    @Test
+    void testSlowSubscriberGetsConflatedBookUpdatesWithoutBlockingPublisher() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(gate);
+        feed.subscribe("BTC", slow);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 500; i++) {
+            submit(100.00, 1.00, OrderDirection.BUY);
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5);
+        gate.countDown();
+        awaitEvents(slow, 2);
+        Thread.sleep(50);
+
+        assertTrue(slow.events.size() <= 3, "book updates should be conflated, got " + slow.events.size());
+        BookUpdateEvent last = (BookUpdateEvent) slow.events.getLast();
+        assertEquals(500.00, last.getAmount());
+        assertEquals(500, last.getOrders());
+    }
+
+    @Test
+    void testTradeBufferOverflowDisconnectsSubscriber() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(gate);
+        RecordingSink fast = new RecordingSink(new CountDownLatch(0));
+        feed.subscribe("BTC", slow);
+        feed.subscribe("BTC", fast);
+
+        submit(100.00, 10.00, OrderDirection.SELL);
+        for (int i = 0; i < 8; i++) {
+            submit(100.00, 0.10, OrderDirection.BUY);
+            // the fast subscriber keeps up; only the gated one falls behind its 4-trade buffer
+            awaitTrades(fast, i + 1);
+        }
+        gate.countDown();
+
+        assertTrue(slow.closed.await(5, TimeUnit.SECONDS));
+        assertNotNull(slow.error);
+        assertEquals(8, tradeCount(fast));
+        assertNull(fast.error);
+    }
+
+    private static void awaitTrades(RecordingSink sink, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (tradeCount(sink) < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static long tradeCount(RecordingSink sink) {
+        return sink.events.stream().filter(e -> e instanceof TradeEvent).count();
+    }
+}
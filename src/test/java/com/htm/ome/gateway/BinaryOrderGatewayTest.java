@@ -0,0 +1,230 @@
+package com.htm.ome.gateway;
+
+import com.htm.ome.core.AssetRegistry;
+import com.htm.ome.core.LockingAssetExecutor;
+import com.htm.ome.core.MatchEngine;
+import com.htm.ome.core.OrderBookFactory;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.feed.MarketFeed;
+import com.htm.ome.journal.OrderJournal;
+import com.htm.ome.metrics.EngineMetrics;
+import com.htm.ome.service.OrderService;
+import com.htm.ome.store.InMemoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryOrderGatewayTest {
+
+    private final AssetRegistry assets = new AssetRegistry(List.of("BTC", "ETH"));
+    private OrderService service;
+    private BinaryOrderGateway gateway;
+    private BinaryOrderClient client;
+
+    @BeforeEach
+    void setUp() {
+        MatchEngine engine = new MatchEngine(new OrderBookFactory(Set.of(), 0), assets);
+        service = new OrderService(new InMemoryStore(), engine,
+                new LockingAssetExecutor(Executors.newSingleThreadExecutor()), OrderJournal.disabled(),
+                new MarketFeed(engine, 16), EngineMetrics.disabled());
+        gateway = new BinaryOrderGateway(service, assets, new InetSocketAddress("127.0.0.1", 0));
+        client = new BinaryOrderClient(new InetSocketAddress("127.0.0.1", gateway.port()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        gateway.close();
+    }
+
+    @Test
+    void testOrdersMatchAndCancelThroughTheGateway() {
+        ExecutionReport sell = client.newOrder("BTC", 4_325_100, 100, OrderDirection.SELL);
+        assertEquals(OrderStatus.OPEN, sell.status());
+        assertEquals(100, sell.pendingLots());
+        assertTrue(sell.fills().isEmpty());
+
+        ExecutionReport buy = client.newOrder("BTC", 4_325_300, 35, OrderDirection.BUY);
+        assertEquals(OrderStatus.FILLED, buy.status());
+        assertEquals(List.of(new ExecutionReport.Fill(sell.orderId(), 4_325_100, 35)), buy.fills());
+        assertEquals(2, buy.correlationId());
+
+        ExecutionReport cancelled = client.cancel(sell.orderId());
+        assertEquals(OrderStatus.CANCELLED, cancelled.status());
+        assertEquals(65, cancelled.pendingLots());
+        assertEquals(sell.orderId(), cancelled.orderId());
+    }
+
+    @Test
+    void testInvalidRequestsAreRejected() {
+        assertEquals(RejectReason.UNKNOWN_ASSET, assertThrows(GatewayRejectException.class,
+                () -> client.newOrder("DOGE", 100, 1, OrderDirection.BUY)).getReason());
+        assertEquals(RejectReason.INVALID_QUANTITY, assertThrows(GatewayRejectException.class,
+                () -> client.newOrder("ETH", 100, 0, OrderDirection.BUY)).getReason());
+        assertEquals(RejectReason.UNKNOWN_ORDER, assertThrows(GatewayRejectException.class,
+                () -> client.cancel(999)).getReason());
+        ExecutionReport filled = client.newOrder("ETH", 100, 1, OrderDirection.SELL);
+        client.newOrder("ETH", 100, 1, OrderDirection.BUY);
+        assertEquals(RejectReason.NOT_CANCELLABLE, assertThrows(GatewayRejectException.class,
+                () -> client.cancel(filled.orderId())).getReason());
+    }
+
+    @Test
+    void testAssetsAddedAtRuntimeAreAccepted() {
+        assertEquals(RejectReason.UNKNOWN_ASSET, assertThrows(GatewayRejectException.class,
+                () -> client.newOrder("SOL", 100, 1, OrderDirection.BUY)).getReason());
+        assets.register("SOL");
+        assertEquals(OrderStatus.OPEN, client.newOrder("SOL", 100, 1, OrderDirection.BUY).status());
+    }
+
+    @Test
+    void testFramesSplitAcrossWritesAndUnknownTemplates() throws Exception {
+        try (SocketChannel raw = SocketChannel.open(new InetSocketAddress("127.0.0.1", gateway.port()))) {
+            ByteBuffer out = ByteBuffer.allocate(BinaryProtocol.NEW_ORDER_SIZE + 16).order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(16).putShort((short) 77).putShort(BinaryProtocol.VERSION).putLong(5);
+            BinaryProtocol.putNewOrder(out, 6, "BTC", 100, 1, OrderDirection.BUY);
+            out.flip();
+            ByteBuffer first = out.slice(0, 20);
+            ByteBuffer rest = out.slice(20, out.limit() - 20);
+            raw.write(first);
+            Thread.sleep(20);
+            raw.write(rest);
+
+            ByteBuffer in = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+            while (in.position() < BinaryProtocol.REJECT_SIZE + BinaryProtocol.REPORT_SIZE) {
+                raw.read(in);
+            }
+            in.flip();
+            GatewayRejectException reject = assertThrows(GatewayRejectException.class, () -> BinaryProtocol.readReply(in));
+            assertEquals(5, reject.getCorrelationId());
+            assertEquals(RejectReason.UNKNOWN_MESSAGE, reject.getReason());
+            in.position(BinaryProtocol.REJECT_SIZE);
+            ExecutionReport report = BinaryProtocol.readReply(in);
+            assertEquals(6, report.correlationId());
+            assertEquals(OrderStatus.OPEN, report.status());
+        }
+    }
+
+    @Test
+    void testSweepWithMoreFillsThanOneFrameIsReportedAcrossFrames() {
+        int resting = BinaryProtocol.MAX_REPORT_FILLS + 10;
+        List<Long> sellIds = new ArrayList<>();
+        for (int i = 0; i < resting; i++) {
+            sellIds.add(service.createOrderAsync("ETH", 100, 1, OrderDirection.SELL).join().getId());
+        }
+
+        ExecutionReport buy = client.newOrder("ETH", 100, resting, OrderDirection.BUY);
+
+        assertEquals(OrderStatus.FILLED, buy.status());
+        assertFalse(buy.more());
+        assertEquals(sellIds, buy.fills().stream().map(ExecutionReport.Fill::counterpartyOrderId).toList());
+        assertEquals(OrderStatus.OPEN, client.newOrder("ETH", 100, 1, OrderDirection.BUY).status());
+    }
+
+    @Test
+    void testFramesWithAnUnknownVersionAreRejected() throws Exception {
+        try (SocketChannel raw = SocketChannel.open(new InetSocketAddress("127.0.0.1", gateway.port()))) {
+            ByteBuffer out = ByteBuffer.allocate(2 * BinaryProtocol.NEW_ORDER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            BinaryProtocol.putNewOrder(out, 7, "BTC", 100, 1, OrderDirection.BUY);
+            out.putShort(6, (short) (BinaryProtocol.VERSION + 1));
+            BinaryProtocol.putNewOrder(out, 8, "BTC", 100, 1, OrderDirection.BUY);
+            raw.write(out.flip());
+
+            ByteBuffer in = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+            while (in.position() < BinaryProtocol.REJECT_SIZE + BinaryProtocol.REPORT_SIZE) {
+                raw.read(in);
+            }
+            in.flip();
+            GatewayRejectException reject = assertThrows(GatewayRejectException.class, () -> BinaryProtocol.readReply(in));
+            assertEquals(7, reject.getCorrelationId());
+            assertEquals(RejectReason.UNSUPPORTED_VERSION, reject.getReason());
+            in.position(BinaryProtocol.REJECT_SIZE);
+            assertEquals(8, BinaryProtocol.readReply(in).correlationId());
+        }
+    }
+
+    @Test
+    void testUnexpectedErrorDropsOnlyThatClient() {
+        AssetRegistry failing = new AssetRegistry(List.of("BTC")) {
+            @Override
+            public int find(String asset) {
+                if (asset.equals("BAD")) {
+                    throw new IllegalStateException("registry failure");
+                }
+                return super.find(asset);
+            }
+        };
+        try (BinaryOrderGateway fragile = new BinaryOrderGateway(service, failing, new InetSocketAddress("127.0.0.1", 0));
+             BinaryOrderClient dropped = new BinaryOrderClient(new InetSocketAddress("127.0.0.1", fragile.port()));
+             BinaryOrderClient other = new BinaryOrderClient(new InetSocketAddress("127.0.0.1", fragile.port()))) {
+            assertEquals(OrderStatus.OPEN, other.newOrder("BTC", 100, 1, OrderDirection.BUY).status());
+            assertThrows(UncheckedIOException.class, () -> dropped.newOrder("BAD", 100, 1, OrderDirection.BUY));
+
+            assertEquals(OrderStatus.OPEN, other.newOrder("BTC", 100, 1, OrderDirection.BUY).status());
+            try (BinaryOrderClient next = new BinaryOrderClient(new InetSocketAddress("127.0.0.1", fragile.port()))) {
+                assertEquals(OrderStatus.OPEN, next.newOrder("BTC", 100, 1, OrderDirection.BUY).status());
+            }
+        }
+    }
+
+    @Test
+    void testClientThatStopsReadingIsDisconnected() throws Exception {
+        try (BinaryOrderGateway capped = new BinaryOrderGateway(service, assets, new InetSocketAddress("127.0.0.1", 0),
+                BinaryProtocol.MAX_FRAME_SIZE);
+             Socket raw = new Socket()) {
+            raw.setReceiveBufferSize(4096);
+            raw.connect(new InetSocketAddress("127.0.0.1", capped.port()));
+            raw.setSoTimeout(10_000);
+
+            // unknown templates, each answered with a reject the client never reads
+            int frames = 4096;
+            ByteBuffer burst = ByteBuffer.allocate(frames * 16).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < frames; i++) {
+                burst.putInt(16).putShort((short) 77).putShort(BinaryProtocol.VERSION).putLong(i);
+            }
+            boolean disconnected = false;
+            try {
+                OutputStream out = raw.getOutputStream();
+                for (int i = 0; i < 1_000; i++) {
+                    out.write(burst.array());
+                }
+            } catch (IOException e) {
+                disconnected = true;
+            }
+            if (!disconnected) {
+                disconnected = drainUntilClosed(raw.getInputStream());
+            }
+            assertTrue(disconnected);
+        }
+    }
+
+    private static boolean drainUntilClosed(InputStream in) {
+        byte[] buffer = new byte[64 * 1024];
+        try {
+            while (in.read(buffer) >= 0) {
+                // replies written before the gateway gave up on the client
+            }
+            return true;
+        } catch (IOException e) {
+            return !(e instanceof SocketTimeoutException);
+        }
+    }
+}
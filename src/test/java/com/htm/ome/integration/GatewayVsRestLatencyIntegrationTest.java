@@ -0,0 +1,80 @@
+package com.htm.ome.integration;
+
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.gateway.BinaryOrderClient;
+import com.htm.ome.gateway.BinaryOrderGateway;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Same resting orders sent through REST and through the binary gateway of one running app; logs the median
+ * round trip of each after a warm-up. Wall-clock timings are only reported, never asserted, as they vary with the
+ * machine's load.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"ome.gateway.enabled=true", "ome.gateway.host=127.0.0.1", "ome.gateway.port=0"})
+class GatewayVsRestLatencyIntegrationTest {
+
+    private static final int WARMUP = 300;
+    private static final int MEASURED = 500;
+    private static final String BODY = "{\"asset\":\"GOOG\",\"price\":1.00,\"amount\":1.00,\"direction\":\"BUY\"}";
+
+    @LocalServerPort
+    private int restPort;
+
+    @Autowired
+    private BinaryOrderGateway gateway;
+
+    @Test
+    void testRestAndBinaryGatewayRoundTrips() throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + restPort + "/orders"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(BODY))
+                .build();
+        long[] rest = new long[MEASURED];
+        for (int i = -WARMUP; i < MEASURED; i++) {
+            long startedAt = System.nanoTime();
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (i >= 0) {
+                rest[i] = System.nanoTime() - startedAt;
+            }
+            assertEquals(200, response.statusCode());
+        }
+
+        long[] binary = new long[MEASURED];
+        try (BinaryOrderClient client = new BinaryOrderClient(new InetSocketAddress("127.0.0.1", gateway.port()))) {
+            for (int i = -WARMUP; i < MEASURED; i++) {
+                long startedAt = System.nanoTime();
+                OrderStatus status = client.newOrder("GOOG", 100, 100, OrderDirection.BUY).status();
+                if (i >= 0) {
+                    binary[i] = System.nanoTime() - startedAt;
+                }
+                assertEquals(OrderStatus.OPEN, status);
+            }
+        }
+
+        log.info("Order round trip median: REST {} us, binary gateway {} us",
+                median(rest) / 1_000, median(binary) / 1_000);
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
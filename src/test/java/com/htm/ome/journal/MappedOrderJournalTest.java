@@ -0,0 +1,157 @@
+package com.htm.ome.journal;
+
+import com.htm.ome.enums.FsyncPolicy;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.model.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedOrderJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private Order order(long id, String asset, OrderDirection direction) {
+        return Order.builder()
+                .id(id)
+                .asset(asset)
+                .priceTicks(4325100 + id)
+                .amountLots(25)
+                .pendingLots(25)
+                .direction(direction)
+                .status(OrderStatus.OPEN)
+                .createdAt(OffsetDateTime.of(2025, 9, 10, 20, 13, 44, 130462600, ZoneOffset.UTC))
+                .build();
+    }
+
+    private List<JournalEntry> reopen(FsyncPolicy policy, int segmentSize) {
+        List<JournalEntry> entries = new ArrayList<>();
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, segmentSize, policy, 0)) {
+            journal.open(0, entries::add);
+        }
+        return entries;
+    }
+
+    @Test
+    void testAppendedOrdersAreReplayedInOrder() {
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 4096, FsyncPolicy.BATCH, 0)) {
+            journal.open(0, e -> fail("journal should be empty"));
+            journal.append(order(0, "BTC", OrderDirection.SELL));
+            long last = journal.append(order(1, "ETH", OrderDirection.BUY));
+            journal.awaitDurable(last);
+            assertEquals(2, last);
+        }
+
+        List<JournalEntry> entries = reopen(FsyncPolicy.NONE, 4096);
+
+        assertEquals(2, entries.size());
+        JournalEntry second = entries.get(1);
+        assertEquals(2, second.getSequence());
+        assertEquals(JournalEntry.NEW_ORDER, second.getType());
+        assertEquals(1, second.getOrderId());
+        assertEquals("ETH", second.getAsset());
+        assertEquals(4325101, second.getPriceTicks());
+        assertEquals(25, second.getAmountLots());
+        assertEquals(OrderDirection.BUY, second.getDirection());
+        assertEquals(1757535224130462600L, second.getCreatedAtEpochNanos());
+    }
+
+    @Test
+    void testSegmentsRollAndAppendsContinueAfterReopen() throws Exception {
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 256, FsyncPolicy.ORDER, 0)) {
+            journal.open(0, e -> { });
+            for (int i = 0; i < 10; i++) {
+                journal.append(order(i, "BTC", OrderDirection.BUY));
+            }
+        }
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 256, FsyncPolicy.ORDER, 0)) {
+            journal.open(0, e -> { });
+            assertEquals(11, journal.append(order(10, "BTC", OrderDirection.SELL)));
+        }
+
+        List<JournalEntry> entries = reopen(FsyncPolicy.NONE, 256);
+
+        assertEquals(11, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(i, entries.get(i).getOrderId());
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertTrue(files.count() > 1);
+        }
+    }
+
+    @Test
+    void testCorruptTailIsIgnored() throws Exception {
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 4096, FsyncPolicy.ORDER, 0)) {
+            journal.open(0, e -> { });
+            journal.append(order(0, "BTC", OrderDirection.BUY));
+            journal.append(order(1, "BTC", OrderDirection.BUY));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(60);
+            file.write(new byte[]{1, 2, 3, 4});
+        }
+
+        List<JournalEntry> entries = reopen(FsyncPolicy.NONE, 4096);
+
+        assertEquals(1, entries.size());
+        assertEquals(0, entries.getFirst().getOrderId());
+    }
+
+    @Test
+    void testWhenDurableCompletesAfterGroupCommit() throws Exception {
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 256, FsyncPolicy.BATCH, 200)) {
+            journal.open(0, e -> { });
+            List<CompletableFuture<Void>> durable = new ArrayList<>();
+            for (long id = 0; id < 10; id++) {
+                durable.add(journal.whenDurable(journal.append(order(id, "BTC", OrderDirection.BUY))));
+            }
+            CompletableFuture.allOf(durable.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+            assertTrue(journal.whenDurable(journal.lastSequence()).isDone());
+        }
+    }
+
+    @Test
+    void testRetireDeletesOnlySegmentsTheCoveredSequenceSpans() throws Exception {
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 256, FsyncPolicy.NONE, 0)) {
+            journal.open(0, e -> { });
+            for (int i = 0; i < 10; i++) {
+                journal.append(order(i, "BTC", OrderDirection.BUY));
+            }
+            journal.retire(6);
+            journal.append(order(10, "BTC", OrderDirection.BUY));
+        }
+
+        List<JournalEntry> entries = reopen(FsyncPolicy.NONE, 256);
+
+        assertEquals(5, entries.getFirst().getSequence());
+        assertEquals(11, entries.getLast().getSequence());
+
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 256, FsyncPolicy.NONE, 0)) {
+            journal.open(0, e -> { });
+            journal.retire(Long.MAX_VALUE);
+            assertEquals(12, journal.append(order(11, "BTC", OrderDirection.BUY)));
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+}
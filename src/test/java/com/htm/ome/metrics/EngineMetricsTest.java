@@ -0,0 +1,108 @@
+package com.htm.ome.metrics;
+
+import com.htm.ome.core.LockingAssetExecutor;
+import com.htm.ome.core.MatchEngine;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.model.Order;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EngineMetricsTest {
+
+    @Test
+    void testBookGaugesFollowTheEngine() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MatchEngine engine = new MatchEngine();
+        new EngineMetrics(registry).bindBook("BTC", engine);
+
+        engine.addOrderToBook(order(1, 100.00, OrderDirection.BUY));
+        engine.addOrderToBook(order(2, 99.00, OrderDirection.BUY));
+        engine.addOrderToBook(order(3, 99.00, OrderDirection.BUY));
+        engine.addOrderToBook(order(4, 101.00, OrderDirection.SELL));
+
+        assertEquals(2, registry.get("ome.book.depth").tags("asset", "BTC", "side", "BUY").gauge().value());
+        assertEquals(1, registry.get("ome.book.depth").tags("asset", "BTC", "side", "SELL").gauge().value());
+        assertEquals(4, registry.get("ome.book.resting.orders").tag("asset", "BTC").gauge().value());
+    }
+
+    @Test
+    void testMatchRecordsDurationAndTrades() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        EngineMetrics metrics = new EngineMetrics(registry);
+
+        metrics.recordMatch(0, "BTC", 2_000, 3);
+        metrics.recordMatch(0, "BTC", 4_000, 0);
+
+        assertEquals(2, registry.get("ome.match").tag("asset", "BTC").timer().count());
+        assertEquals(6_000, registry.get("ome.match").tag("asset", "BTC").timer().totalTime(TimeUnit.NANOSECONDS));
+        assertEquals(3, registry.get("ome.trades").tag("asset", "BTC").counter().count());
+    }
+
+    @Test
+    void testLockingExecutorRecordsQueueAndLockWait() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            LockingAssetExecutor executor = new LockingAssetExecutor(pool, new EngineMetrics(registry));
+            executor.submit(0, "BTC", () -> 1).get();
+            executor.submit(1, "ETH", () -> 2).get();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(2, registry.get("ome.executor.queue.wait").timer().count());
+        assertEquals(1, registry.get("ome.asset.lock.wait").tag("asset", "BTC").timer().count());
+        assertEquals(1, registry.get("ome.asset.lock.wait").tag("asset", "ETH").timer().count());
+    }
+
+    @Test
+    @Tag("allocation")
+    void testRecordingDoesNotAllocate() {
+        EngineMetrics metrics = new EngineMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        // JIT warm-up and first touch of histogram buckets allocate; steady-state recording must not
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < 10 && allocated > 0; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 100_000; i++) {
+                record(metrics, i);
+            }
+            allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        }
+
+        assertEquals(0, allocated, "recording allocated " + allocated + " bytes");
+    }
+
+    private static void record(EngineMetrics metrics, int i) {
+        metrics.recordQueueWait(1_000 + i);
+        metrics.recordLockWait(0, "BTC", 500 + i);
+        metrics.recordMatch(0, "BTC", 2_000 + i, i & 1);
+        metrics.recordCreateOrder(50_000 + i);
+    }
+
+    private static Order order(long id, double price, OrderDirection direction) {
+        return Order.builder()
+                .id(id)
+                .asset("BTC")
+                .price(price)
+                .amount(1.00)
+                .pendingAmount(1.00)
+                .direction(direction)
+                .status(OrderStatus.OPEN)
+                .build();
+    }
+}
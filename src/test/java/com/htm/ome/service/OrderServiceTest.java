@@ -1,21 +1,39 @@
 package com.htm.ome.service;
 
+import com.htm.ome.archive.OrderArchive;
+import com.htm.ome.core.FillBuffer;
+import com.htm.ome.core.LockingAssetExecutor;
 import com.htm.ome.core.MatchEngine;
+import com.htm.ome.core.SequencedAssetExecutor;
 import com.htm.ome.dto.OrderRequest;
 import com.htm.ome.dto.OrderResponse;
 import com.htm.ome.enums.OrderDirection;
 import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.enums.OrderType;
+import com.htm.ome.enums.TimeInForce;
+import com.htm.ome.exception.OrderNotCancellableException;
+import com.htm.ome.exception.OrderNotFoundException;
+import com.htm.ome.feed.MarketFeed;
+import com.htm.ome.journal.OrderJournal;
+import com.htm.ome.metrics.EngineMetrics;
 import com.htm.ome.model.Order;
 import com.htm.ome.model.TradeModel;
 import com.htm.ome.store.InMemoryStore;
+import com.htm.ome.store.OffHeapOrderRecords;
+import com.htm.ome.util.EpochClock;
+import com.htm.ome.util.FixedPoint;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,10 +49,11 @@ class OrderServiceTest {
         store = mock(InMemoryStore.class);
         matchEngine = mock(MatchEngine.class);
         ExecutorService executorService = Executors.newSingleThreadExecutor();
-        orderService = new OrderService(store, matchEngine, executorService);
+        orderService = new OrderService(store, matchEngine, new LockingAssetExecutor(executorService),
+                OrderJournal.disabled(), new MarketFeed(matchEngine, 16), EngineMetrics.disabled());
 
-        when(store.nextOrderId()).thenReturn(1L);
-        when(store.nextTradeId()).thenReturn(100L);
+        when(store.nextOrderId(anyInt())).thenReturn(1L);
+        when(store.nextTradeId(anyInt())).thenReturn(100L);
     }
 
     @Test
@@ -45,7 +64,7 @@ class OrderServiceTest {
         req.setAmount(3.0);
         req.setDirection(OrderDirection.BUY);
 
-        when(matchEngine.match(any(Order.class))).thenReturn(List.of());
+        when(matchEngine.matchFills(any(Order.class))).thenReturn(new FillBuffer(1));
 
         OrderResponse response = orderService.createOrder(req);
 
@@ -68,15 +87,10 @@ class OrderServiceTest {
         req.setAmount(1.0);
         req.setDirection(OrderDirection.SELL);
 
-        TradeModel trade = TradeModel.builder()
-                .buyOrderId(2L)
-                .sellOrderId(1L)
-                .price(45345.0)
-                .amount(0.5)
-                .createdAt(OffsetDateTime.now(ZoneOffset.UTC))
-                .build();
+        FillBuffer fills = new FillBuffer(1);
+        fills.add(2L, 1L, FixedPoint.toFixed(45345.0), FixedPoint.toFixed(0.5), EpochClock.now());
 
-        when(matchEngine.match(any(Order.class))).thenReturn(List.of(trade));
+        when(matchEngine.matchFills(any(Order.class))).thenReturn(fills);
 
         OrderResponse response = orderService.createOrder(req);
 
@@ -93,6 +107,38 @@ class OrderServiceTest {
         verify(store).saveTrade(any(TradeModel.class));
     }
 
+    @Test
+    void testMarketOrderResponseSumsFillsPerPriceLevel() {
+        OrderRequest req = new OrderRequest();
+        req.setAsset("BTC");
+        req.setAmount(2.0);
+        req.setDirection(OrderDirection.BUY);
+        req.setType(OrderType.MARKET);
+        req.setMaxLevels(2);
+
+        FillBuffer fills = new FillBuffer(4);
+        long now = EpochClock.now();
+        fills.add(1L, 7L, FixedPoint.toFixed(100.0), FixedPoint.toFixed(0.5), now);
+        fills.add(1L, 8L, FixedPoint.toFixed(100.0), FixedPoint.toFixed(0.25), now);
+        fills.add(1L, 9L, FixedPoint.toFixed(101.0), FixedPoint.toFixed(1.0), now);
+        when(matchEngine.matchFills(any(Order.class))).thenReturn(fills);
+
+        OrderResponse response = orderService.createOrder(req);
+
+        assertEquals(OrderType.MARKET, response.getType());
+        assertEquals(TimeInForce.IOC, response.getTimeInForce());
+        assertNull(response.getTrades());
+        assertEquals(2, response.getFills().size());
+        assertEquals(100.0, response.getFills().get(0).getPrice());
+        assertEquals(0.75, response.getFills().get(0).getAmount());
+        assertEquals(2, response.getFills().get(0).getTrades());
+        assertEquals(101.0, response.getFills().get(1).getPrice());
+        assertEquals(1, response.getFills().get(1).getTrades());
+        verify(matchEngine).matchFills(argThat(o -> o.getType() == OrderType.MARKET && o.getMaxLevels() == 2
+                && o.getPriceTicks() == 0));
+        verify(store, times(3)).saveTrade(any(TradeModel.class));
+    }
+
     @Test
     void testGetOrderSuccess() {
         Order order = Order.builder()
@@ -108,7 +154,7 @@ class OrderServiceTest {
                 .build();
 
         when(store.getOrder(1L)).thenReturn(order);
-        when(store.allTrades()).thenReturn(List.of());
+        when(store.tradesForOrder(1L)).thenReturn(List.of());
 
         OrderResponse response = orderService.getOrder(1L);
 
@@ -122,7 +168,191 @@ class OrderServiceTest {
     void testGetOrderNotFound() {
         when(store.getOrder(199L)).thenReturn(null);
 
-        Exception ex = assertThrows(IllegalArgumentException.class, () -> orderService.getOrder(199L));
+        Exception ex = assertThrows(OrderNotFoundException.class, () -> orderService.getOrder(199L));
         assertTrue(ex.getMessage().contains("Order not found"));
     }
+
+    private OrderRequest request(String asset, double price, double amount, OrderDirection direction) {
+        OrderRequest req = new OrderRequest();
+        req.setAsset(asset);
+        req.setPrice(price);
+        req.setAmount(amount);
+        req.setDirection(direction);
+        return req;
+    }
+
+    @Test
+    void testCreateOrdersMatchesPerAssetInArrivalOrder() {
+        InMemoryStore realStore = new InMemoryStore();
+        MatchEngine engine = new MatchEngine();
+        OrderService service = new OrderService(realStore, engine,
+                new LockingAssetExecutor(Executors.newFixedThreadPool(2)), OrderJournal.disabled(),
+                new MarketFeed(engine, 16), EngineMetrics.disabled());
+
+        List<OrderResponse> responses = service.createOrders(List.of(
+                request("BTC", 100.0, 1.0, OrderDirection.SELL),
+                request("ETH", 10.0, 2.0, OrderDirection.BUY),
+                request("BTC", 100.0, 0.4, OrderDirection.BUY),
+                request("ETH", 10.0, 0.5, OrderDirection.SELL),
+                request("BTC", 100.0, 0.6, OrderDirection.BUY)));
+
+        assertEquals(5, responses.size());
+        assertEquals(List.of("BTC", "ETH", "BTC", "ETH", "BTC"),
+                responses.stream().map(OrderResponse::getAsset).toList());
+        assertEquals(0.0, responses.get(2).getPendingAmount());
+        assertEquals(responses.get(0).getId(), responses.get(2).getTrades().get(0).getOrderId());
+        assertEquals(0.0, responses.get(4).getPendingAmount());
+        assertEquals(0.6, responses.get(4).getTrades().get(0).getAmount());
+        assertEquals(0.5, responses.get(3).getTrades().get(0).getAmount());
+        assertEquals(1.5, responses.get(1).getPendingAmount());
+        assertEquals(0.0, service.getOrder(responses.get(0).getId()).getPendingAmount());
+        assertEquals(2, service.getOrder(responses.get(0).getId()).getTrades().size());
+    }
+
+    @Test
+    void testAsyncCreateAndCancelCompleteFromMatchingStage() throws Exception {
+        InMemoryStore realStore = new InMemoryStore();
+        MatchEngine engine = new MatchEngine();
+        OrderService service = new OrderService(realStore, engine,
+                new SequencedAssetExecutor(64), OrderJournal.disabled(), new MarketFeed(engine, 16), EngineMetrics.disabled());
+
+        OrderResponse resting = service.createOrderAsync(request("BTC", 100.0, 1.0, OrderDirection.SELL))
+                .get(5, TimeUnit.SECONDS);
+        List<OrderResponse> batch = service.createOrdersAsync(List.of(
+                        request("BTC", 100.0, 0.25, OrderDirection.BUY),
+                        request("ETH", 10.0, 1.0, OrderDirection.BUY)))
+                .get(5, TimeUnit.SECONDS);
+        assertEquals(resting.getId(), batch.get(0).getTrades().get(0).getOrderId());
+
+        OrderResponse cancelled = service.cancelOrderAsync(resting.getId()).get(5, TimeUnit.SECONDS);
+        assertEquals(OrderStatus.CANCELLED, cancelled.getStatus());
+        assertEquals(0.75, cancelled.getPendingAmount());
+
+        ExecutionException again = assertThrows(ExecutionException.class,
+                () -> service.cancelOrderAsync(resting.getId()).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(OrderNotCancellableException.class, again.getCause());
+    }
+
+    @Test
+    void testOffHeapStoreTracksFillsOfRestingOrdersAndCancels() {
+        InMemoryStore offHeapStore = new InMemoryStore(OrderArchive.disabled(), new OffHeapOrderRecords(64));
+        MatchEngine engine = new MatchEngine();
+        OrderService service = new OrderService(offHeapStore, engine,
+                new LockingAssetExecutor(Executors.newSingleThreadExecutor()), OrderJournal.disabled(),
+                new MarketFeed(engine, 16), EngineMetrics.disabled());
+
+        OrderResponse first = service.createOrder(request("BTC", 100.0, 1.0, OrderDirection.SELL));
+        OrderResponse second = service.createOrder(request("BTC", 101.0, 1.0, OrderDirection.SELL));
+        OrderResponse buy = service.createOrder(request("BTC", 101.0, 1.5, OrderDirection.BUY));
+
+        assertEquals(OrderStatus.FILLED, buy.getStatus());
+        assertEquals(OrderStatus.FILLED, service.getOrder(first.getId()).getStatus());
+        OrderResponse partial = service.getOrder(second.getId());
+        assertEquals(OrderStatus.PARTIALLY_FILLED, partial.getStatus());
+        assertEquals(0.5, partial.getPendingAmount());
+        assertEquals(2, service.getOrder(buy.getId()).getTrades().size());
+
+        OrderResponse cancelled = service.cancelOrder(second.getId());
+        assertEquals(OrderStatus.CANCELLED, cancelled.getStatus());
+        assertEquals(0.5, cancelled.getPendingAmount());
+        assertThrows(OrderNotCancellableException.class, () -> service.cancelOrder(second.getId()));
+    }
+
+    @Test
+    void testOffHeapCancelKeepsFillsMadeAfterTheLookup() throws Exception {
+        InMemoryStore offHeapStore = new InMemoryStore(OrderArchive.disabled(), new OffHeapOrderRecords(64));
+        MatchEngine engine = new MatchEngine();
+        ExecutorService matchingThread = Executors.newSingleThreadExecutor();
+        OrderService service = new OrderService(offHeapStore, engine, new LockingAssetExecutor(matchingThread),
+                OrderJournal.disabled(), new MarketFeed(engine, 16), EngineMetrics.disabled());
+        OrderResponse sell = service.createOrder(request("BTC", 100.0, 1.0, OrderDirection.SELL));
+
+        // the cancel looks the order up while a partial fill is still queued ahead of it
+        CountDownLatch release = new CountDownLatch(1);
+        matchingThread.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CompletableFuture<OrderResponse> buy = service.createOrderAsync(request("BTC", 100.0, 0.4, OrderDirection.BUY));
+        CompletableFuture<OrderResponse> cancel = service.cancelOrderAsync(sell.getId());
+        release.countDown();
+
+        assertEquals(OrderStatus.FILLED, buy.get(5, TimeUnit.SECONDS).getStatus());
+        OrderResponse cancelled = cancel.get(5, TimeUnit.SECONDS);
+        assertEquals(OrderStatus.CANCELLED, cancelled.getStatus());
+        assertEquals(0.6, cancelled.getPendingAmount(), 1e-9);
+        assertEquals(1, cancelled.getTrades().size());
+        matchingThread.shutdown();
+    }
+
+    @Test
+    void testFailedJournalWriteLeavesTheBookUntouched() {
+        InMemoryStore realStore = new InMemoryStore();
+        MatchEngine engine = new MatchEngine();
+        OrderJournal journal = spy(OrderJournal.disabled());
+        OrderService service = new OrderService(realStore, engine,
+                new LockingAssetExecutor(Executors.newSingleThreadExecutor()), journal,
+                new MarketFeed(engine, 16), EngineMetrics.disabled());
+        OrderResponse sell = service.createOrder(request("BTC", 100.0, 1.0, OrderDirection.SELL));
+
+        doThrow(new IllegalStateException("Journal segment is full")).when(journal).append(any(Order.class));
+        assertThrows(RuntimeException.class,
+                () -> service.createOrder(request("BTC", 100.0, 0.4, OrderDirection.BUY)));
+
+        Order resting = engine.restingOrders("BTC").getFirst();
+        assertEquals(sell.getId(), resting.getId());
+        assertEquals(1.0, resting.getPendingAmount());
+        assertEquals(OrderStatus.OPEN, realStore.getOrder(sell.getId()).getStatus());
+        assertTrue(realStore.tradesForOrder(sell.getId()).isEmpty());
+    }
+
+    @Test
+    void testFailedCancelJournalWriteKeepsTheOrderResting() {
+        InMemoryStore realStore = new InMemoryStore();
+        MatchEngine engine = new MatchEngine();
+        OrderJournal journal = spy(OrderJournal.disabled());
+        OrderService service = new OrderService(realStore, engine,
+                new LockingAssetExecutor(Executors.newSingleThreadExecutor()), journal,
+                new MarketFeed(engine, 16), EngineMetrics.disabled());
+        OrderResponse sell = service.createOrder(request("BTC", 100.0, 1.0, OrderDirection.SELL));
+
+        doThrow(new IllegalStateException("Journal segment is full")).when(journal).appendCancel(any(Order.class));
+        assertThrows(RuntimeException.class, () -> service.cancelOrder(sell.getId()));
+
+        assertEquals(List.of(sell.getId()), engine.restingOrders("BTC").stream().map(Order::getId).toList());
+        assertEquals(OrderStatus.OPEN, realStore.getOrder(sell.getId()).getStatus());
+    }
+
+    @Test
+    void testNotCancellableNamesTheStatusSeenByTheMatchingThread() throws Exception {
+        InMemoryStore offHeapStore = new InMemoryStore(OrderArchive.disabled(), new OffHeapOrderRecords(64));
+        MatchEngine engine = new MatchEngine();
+        ExecutorService matchingThread = Executors.newSingleThreadExecutor();
+        OrderService service = new OrderService(offHeapStore, engine, new LockingAssetExecutor(matchingThread),
+                OrderJournal.disabled(), new MarketFeed(engine, 16), EngineMetrics.disabled());
+        OrderResponse sell = service.createOrder(request("BTC", 100.0, 1.0, OrderDirection.SELL));
+        service.createOrder(request("BTC", 100.0, 0.4, OrderDirection.BUY));
+
+        // the cancel looks up the partially filled order while the fill that completes it is still queued
+        CountDownLatch release = new CountDownLatch(1);
+        matchingThread.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CompletableFuture<OrderResponse> buy = service.createOrderAsync(request("BTC", 100.0, 0.6, OrderDirection.BUY));
+        CompletableFuture<OrderResponse> cancel = service.cancelOrderAsync(sell.getId());
+        release.countDown();
+
+        assertEquals(OrderStatus.FILLED, buy.get(5, TimeUnit.SECONDS).getStatus());
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> cancel.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(OrderNotCancellableException.class, rejected.getCause());
+        assertEquals("Order " + sell.getId() + " is FILLED and cannot be cancelled", rejected.getCause().getMessage());
+        matchingThread.shutdown();
+    }
 }
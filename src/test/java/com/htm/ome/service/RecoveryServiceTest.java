@@ -0,0 +1,221 @@
+package com.htm.ome.service;
+
+import com.htm.ome.archive.OrderArchive;
+import com.htm.ome.core.LockingAssetExecutor;
+import com.htm.ome.core.MatchEngine;
+import com.htm.ome.dto.OrderRequest;
+import com.htm.ome.dto.OrderResponse;
+import com.htm.ome.enums.FsyncPolicy;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.enums.OrderType;
+import com.htm.ome.enums.TimeInForce;
+import com.htm.ome.feed.MarketFeed;
+import com.htm.ome.journal.MappedOrderJournal;
+import com.htm.ome.metrics.EngineMetrics;
+import com.htm.ome.model.Order;
+import com.htm.ome.model.TradeModel;
+import com.htm.ome.snapshot.SnapshotRepository;
+import com.htm.ome.store.HeapOrderRecords;
+import com.htm.ome.store.InMemoryStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecoveryServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private Order order(long id, double price, double amount, OrderDirection direction) {
+        return Order.builder()
+                .id(id)
+                .asset("BTC")
+                .price(price)
+                .amount(amount)
+                .pendingAmount(amount)
+                .direction(direction)
+                .status(OrderStatus.OPEN)
+                .createdAt(OffsetDateTime.now(ZoneOffset.UTC))
+                .build();
+    }
+
+    @Test
+    void testRecoverRebuildsBooksStoreAndIds() {
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 4096, FsyncPolicy.ORDER, 0)) {
+            journal.open(0, e -> { });
+            journal.append(order(0, 43251.00, 1.00, OrderDirection.SELL));
+            journal.append(order(1, 43253.00, 0.35, OrderDirection.BUY));
+        }
+
+        InMemoryStore store = new InMemoryStore();
+        MatchEngine matchEngine = new MatchEngine();
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 4096, FsyncPolicy.ORDER, 0)) {
+            SnapshotService snapshots = new SnapshotService(matchEngine, store,
+                    new LockingAssetExecutor(Executors.newSingleThreadExecutor()), journal,
+                    new SnapshotRepository(dir.resolve("snapshots"), 2), false, 0);
+            new RecoveryService(store, matchEngine, journal, snapshots).recover();
+        }
+
+        assertEquals(0.65, store.getOrder(0L).getPendingAmount());
+        assertEquals(OrderStatus.PARTIALLY_FILLED, store.getOrder(0L).getStatus());
+        assertEquals(OrderStatus.FILLED, store.getOrder(1L).getStatus());
+        assertEquals(1, store.tradesForOrder(0L).size());
+        assertEquals(2L, store.nextOrderId());
+
+        Order buy = order(2, 43251.00, 0.65, OrderDirection.BUY);
+        List<?> trades = matchEngine.match(buy);
+        assertEquals(1, trades.size());
+        assertEquals(OrderStatus.FILLED, buy.getStatus());
+    }
+
+    @Test
+    void testRecoverReplaysCancels() {
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 4096, FsyncPolicy.ORDER, 0)) {
+            journal.open(0, e -> { });
+            Order cancelled = order(0, 100.00, 1.00, OrderDirection.SELL);
+            journal.append(cancelled);
+            journal.append(order(1, 101.00, 1.00, OrderDirection.SELL));
+            journal.appendCancel(cancelled);
+        }
+
+        InMemoryStore store = new InMemoryStore();
+        MatchEngine matchEngine = new MatchEngine();
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 4096, FsyncPolicy.ORDER, 0)) {
+            SnapshotService snapshots = new SnapshotService(matchEngine, store,
+                    new LockingAssetExecutor(Executors.newSingleThreadExecutor()), journal,
+                    new SnapshotRepository(dir.resolve("snapshots"), 2), false, 0);
+            new RecoveryService(store, matchEngine, journal, snapshots).recover();
+        }
+
+        assertEquals(OrderStatus.CANCELLED, store.getOrder(0L).getStatus());
+        assertEquals(List.of(1L), matchEngine.restingOrders("BTC").stream().map(Order::getId).toList());
+    }
+
+    @Test
+    void testReplayKeepsTimeInForce() {
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 4096, FsyncPolicy.ORDER, 0)) {
+            journal.open(0, e -> { });
+            journal.append(order(0, 100.00, 1.00, OrderDirection.SELL));
+            Order ioc = order(1, 100.00, 1.50, OrderDirection.BUY);
+            ioc.setTimeInForce(TimeInForce.IOC);
+            journal.append(ioc);
+            Order fok = order(2, 101.00, 1.00, OrderDirection.BUY);
+            fok.setTimeInForce(TimeInForce.FOK);
+            journal.append(fok);
+        }
+
+        InMemoryStore store = new InMemoryStore();
+        MatchEngine matchEngine = new MatchEngine();
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 4096, FsyncPolicy.ORDER, 0)) {
+            SnapshotService snapshots = new SnapshotService(matchEngine, store,
+                    new LockingAssetExecutor(Executors.newSingleThreadExecutor()), journal,
+                    new SnapshotRepository(dir.resolve("snapshots"), 2), false, 0);
+            new RecoveryService(store, matchEngine, journal, snapshots).recover();
+        }
+
+        assertEquals(TimeInForce.IOC, store.getOrder(1L).getTimeInForce());
+        assertEquals(OrderStatus.CANCELLED, store.getOrder(1L).getStatus());
+        assertEquals(0.5, store.getOrder(1L).getPendingAmount());
+        assertEquals(OrderStatus.CANCELLED, store.getOrder(2L).getStatus());
+        assertTrue(store.tradesForOrder(2L).isEmpty());
+        assertTrue(matchEngine.restingOrders("BTC").isEmpty());
+    }
+
+    @Test
+    void testReplayedMarketOrderStopsWhereItDid() {
+        MatchEngine original = new MatchEngine();
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 4096, FsyncPolicy.ORDER, 0)) {
+            journal.open(0, e -> { });
+            for (Order resting : List.of(order(0, 100.00, 1.00, OrderDirection.SELL),
+                    order(1, 101.00, 1.00, OrderDirection.SELL), order(2, 102.00, 1.00, OrderDirection.SELL))) {
+                original.addOrderToBook(resting);
+                journal.append(resting);
+            }
+            Order market = order(3, 0, 5.00, OrderDirection.BUY);
+            market.setType(OrderType.MARKET);
+            market.setTimeInForce(TimeInForce.IOC);
+            market.setMaxLevels(2);
+            original.match(market);
+            journal.append(market);
+        }
+
+        InMemoryStore store = new InMemoryStore();
+        MatchEngine matchEngine = new MatchEngine();
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 4096, FsyncPolicy.ORDER, 0)) {
+            SnapshotService snapshots = new SnapshotService(matchEngine, store,
+                    new LockingAssetExecutor(Executors.newSingleThreadExecutor()), journal,
+                    new SnapshotRepository(dir.resolve("snapshots"), 2), false, 0);
+            new RecoveryService(store, matchEngine, journal, snapshots).recover();
+        }
+
+        Order replayed = store.getOrder(3L);
+        assertEquals(OrderType.MARKET, replayed.getType());
+        assertEquals(OrderStatus.CANCELLED, replayed.getStatus());
+        assertEquals(3.0, replayed.getPendingAmount());
+        assertEquals(2, store.tradesForOrder(3L).size());
+        assertEquals(List.of(2L), matchEngine.restingOrders("BTC").stream().map(Order::getId).toList());
+    }
+
+    @Test
+    void testReplayGivesTradesTheirOriginalIds() throws Exception {
+        List<Long> orderIds = new ArrayList<>();
+        List<List<Long>> originalTradeIds = new ArrayList<>();
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 64 * 1024, FsyncPolicy.ORDER, 0)) {
+            journal.open(0, e -> { });
+            InMemoryStore store = new InMemoryStore(OrderArchive.disabled(), new HeapOrderRecords(), 2);
+            MatchEngine engine = new MatchEngine();
+            OrderService service = new OrderService(store, engine,
+                    new LockingAssetExecutor(Executors.newFixedThreadPool(4)), journal,
+                    new MarketFeed(engine, 16), EngineMetrics.disabled());
+            List<CompletableFuture<OrderResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                for (String asset : List.of("BTC", "ETH", "USDT", "TST")) {
+                    OrderDirection direction = i % 2 == 0 ? OrderDirection.SELL : OrderDirection.BUY;
+                    responses.add(service.createOrderAsync(request(asset, 100.0 + i / 2, direction)));
+                }
+            }
+            for (CompletableFuture<OrderResponse> response : responses) {
+                orderIds.add(response.get(5, TimeUnit.SECONDS).getId());
+            }
+            for (long id : orderIds) {
+                originalTradeIds.add(store.tradesForOrder(id).stream().map(TradeModel::getId).toList());
+            }
+        }
+
+        InMemoryStore store = new InMemoryStore(OrderArchive.disabled(), new HeapOrderRecords(), 2);
+        MatchEngine matchEngine = new MatchEngine();
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 64 * 1024, FsyncPolicy.ORDER, 0)) {
+            SnapshotService snapshots = new SnapshotService(matchEngine, store,
+                    new LockingAssetExecutor(Executors.newSingleThreadExecutor()), journal,
+                    new SnapshotRepository(dir.resolve("snapshots"), 2), false, 0);
+            new RecoveryService(store, matchEngine, journal, snapshots).recover();
+        }
+
+        for (int i = 0; i < orderIds.size(); i++) {
+            assertEquals(originalTradeIds.get(i),
+                    store.tradesForOrder(orderIds.get(i)).stream().map(TradeModel::getId).toList());
+        }
+        long nextTradeId = store.nextTradeId(matchEngine.assetId("BTC"));
+        assertTrue(originalTradeIds.stream().flatMap(List::stream).noneMatch(id -> id == nextTradeId));
+    }
+
+    private static OrderRequest request(String asset, double price, OrderDirection direction) {
+        OrderRequest request = new OrderRequest();
+        request.setAsset(asset);
+        request.setPrice(price);
+        request.setAmount(1.0);
+        request.setDirection(direction);
+        return request;
+    }
+}
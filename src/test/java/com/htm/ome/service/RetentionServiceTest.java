@@ -0,0 +1,112 @@
+package com.htm.ome.service;
+
+import com.htm.ome.archive.FileOrderArchive;
+import com.htm.ome.core.FillBuffer;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.model.Order;
+import com.htm.ome.store.InMemoryStore;
+import com.htm.ome.util.EpochClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetentionServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private FileOrderArchive archive;
+    private InMemoryStore store;
+
+    @BeforeEach
+    void setUp() {
+        archive = new FileOrderArchive(dir, 64);
+        store = new InMemoryStore(archive);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archive.close();
+    }
+
+    private Order order(OrderStatus status, long ageSeconds) {
+        Order order = Order.builder()
+                .id(store.nextOrderId())
+                .asset("BTC")
+                .price(100.0)
+                .amount(1.0)
+                .pendingAmount(status == OrderStatus.FILLED ? 0.0 : 1.0)
+                .direction(OrderDirection.BUY)
+                .status(status)
+                .modifiedAtNanos(EpochClock.now() - TimeUnit.SECONDS.toNanos(ageSeconds))
+                .build();
+        store.saveOrder(order);
+        return order;
+    }
+
+    @Test
+    void testArchivesTerminalOrdersOlderThanMaxAge() {
+        Order oldFilled = order(OrderStatus.FILLED, 7200);
+        Order oldCancelled = order(OrderStatus.CANCELLED, 4000);
+        Order oldResting = order(OrderStatus.OPEN, 7200);
+        Order recentFilled = order(OrderStatus.FILLED, 60);
+        RetentionService retention = new RetentionService(store, Duration.ofHours(1), 1_000,
+                Duration.ofSeconds(10), false, 0);
+
+        assertEquals(2, retention.sweep());
+
+        assertEquals(2, store.orderCount());
+        assertSame(oldResting, store.getOrder(oldResting.getId()));
+        assertSame(recentFilled, store.getOrder(recentFilled.getId()));
+        assertEquals(OrderStatus.FILLED, store.getOrder(oldFilled.getId()).getStatus());
+        assertEquals(OrderStatus.CANCELLED, store.getOrder(oldCancelled.getId()).getStatus());
+        assertEquals(0, retention.sweep());
+    }
+
+    @Test
+    void testCapsTerminalOrdersInMemoryOldestFirstButKeepsTheGracePeriod() {
+        Order oldest = order(OrderStatus.FILLED, 300);
+        Order older = order(OrderStatus.FILLED, 200);
+        Order old = order(OrderStatus.FILLED, 100);
+        Order justFilled = order(OrderStatus.FILLED, 0);
+        Order anotherJustFilled = order(OrderStatus.FILLED, 0);
+        RetentionService retention = new RetentionService(store, Duration.ofHours(1), 1,
+                Duration.ofSeconds(10), false, 0);
+
+        assertEquals(3, retention.sweep());
+
+        assertEquals(2, store.orderCount());
+        assertNotSame(oldest, store.getOrder(oldest.getId()));
+        assertNotSame(older, store.getOrder(older.getId()));
+        assertNotSame(old, store.getOrder(old.getId()));
+        assertSame(justFilled, store.getOrder(justFilled.getId()));
+        assertSame(anotherJustFilled, store.getOrder(anotherJustFilled.getId()));
+    }
+
+    @Test
+    void testKeepsOrdersWhoseTradesAreNotSavedYet() {
+        Order buy = order(OrderStatus.FILLED, 7200);
+        Order sell = order(OrderStatus.FILLED, 7200);
+        FillBuffer fills = new FillBuffer(1);
+        fills.add(buy.getId(), sell.getId(), 10_000, 100, EpochClock.now());
+        fills.setTradeId(0, store.nextTradeId());
+        store.applyFills(buy.getId(), fills);
+        RetentionService retention = new RetentionService(store, Duration.ofHours(1), 1_000,
+                Duration.ofSeconds(10), false, 0);
+
+        assertEquals(0, retention.sweep());
+
+        fills.toTradeModels().forEach(store::saveTrade);
+        assertEquals(2, retention.sweep());
+        assertEquals(1, store.tradesForOrder(buy.getId()).size());
+        assertEquals(1, store.tradesForOrder(sell.getId()).size());
+    }
+}
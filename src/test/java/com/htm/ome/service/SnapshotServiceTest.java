@@ -0,0 +1,153 @@
+package com.htm.ome.service;
+
+import com.htm.ome.core.LockingAssetExecutor;
+import com.htm.ome.core.MatchEngine;
+import com.htm.ome.enums.FsyncPolicy;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.journal.MappedOrderJournal;
+import com.htm.ome.model.Order;
+import com.htm.ome.model.TradeModel;
+import com.htm.ome.snapshot.SnapshotRepository;
+import com.htm.ome.store.InMemoryStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private Order order(InMemoryStore store, String asset, double price, double amount, OrderDirection direction) {
+        return Order.builder()
+                .id(store.nextOrderId())
+                .asset(asset)
+                .price(price)
+                .amount(amount)
+                .pendingAmount(amount)
+                .direction(direction)
+                .status(OrderStatus.OPEN)
+                .createdAt(OffsetDateTime.now(ZoneOffset.UTC))
+                .modifiedAt(OffsetDateTime.now(ZoneOffset.UTC))
+                .build();
+    }
+
+    private void submit(InMemoryStore store, MatchEngine engine, MappedOrderJournal journal, Order order) {
+        store.saveOrder(order);
+        journal.append(order);
+        engine.match(order).forEach(t -> {
+            t.setId(store.nextTradeId());
+            store.saveTrade(t);
+        });
+        engine.addOrderToBook(order);
+    }
+
+    private SnapshotService snapshotService(MatchEngine engine, InMemoryStore store, MappedOrderJournal journal) {
+        return new SnapshotService(engine, store, new LockingAssetExecutor(Executors.newSingleThreadExecutor()),
+                journal, new SnapshotRepository(dir.resolve("snapshots"), 2), true, 0);
+    }
+
+    @Test
+    void testRestoreFromSnapshotThenJournalTail() throws Exception {
+        InMemoryStore store = new InMemoryStore();
+        MatchEngine engine = new MatchEngine();
+        Order firstAsk;
+        Order secondAsk;
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir.resolve("journal"), 4096, FsyncPolicy.NONE, 0)) {
+            journal.open(0, e -> { });
+            firstAsk = order(store, "BTC", 101.00, 1.00, OrderDirection.SELL);
+            secondAsk = order(store, "BTC", 101.00, 2.00, OrderDirection.SELL);
+            submit(store, engine, journal, firstAsk);
+            submit(store, engine, journal, secondAsk);
+            submit(store, engine, journal, order(store, "BTC", 99.00, 1.50, OrderDirection.BUY));
+            submit(store, engine, journal, order(store, "ETH", 10.00, 3.00, OrderDirection.BUY));
+            submit(store, engine, journal, order(store, "BTC", 101.00, 0.40, OrderDirection.BUY));
+
+            Path file = snapshotService(engine, store, journal).takeSnapshot();
+            assertTrue(Files.exists(file));
+
+            submit(store, engine, journal, order(store, "BTC", 101.00, 0.10, OrderDirection.BUY));
+        }
+
+        InMemoryStore restoredStore = new InMemoryStore();
+        MatchEngine restoredEngine = new MatchEngine();
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir.resolve("journal"), 4096, FsyncPolicy.NONE, 0)) {
+            SnapshotService snapshots = snapshotService(restoredEngine, restoredStore, journal);
+            new RecoveryService(restoredStore, restoredEngine, journal, snapshots).recover();
+        }
+
+        assertEquals(0.50, restoredStore.getOrder(firstAsk.getId()).getPendingAmount());
+        assertEquals(2.00, restoredStore.getOrder(secondAsk.getId()).getPendingAmount());
+        assertEquals(store.lastOrderId() + 1, restoredStore.nextOrderId());
+
+        Order sweep = order(restoredStore, "BTC", 101.00, 1.00, OrderDirection.BUY);
+        List<TradeModel> trades = restoredEngine.match(sweep);
+        assertEquals(2, trades.size());
+        assertEquals(firstAsk.getId(), trades.get(0).getSellOrderId());
+        assertEquals(0.5, trades.get(0).getAmount());
+        assertEquals(secondAsk.getId(), trades.get(1).getSellOrderId());
+        assertEquals(1, restoredEngine.restingOrders("ETH").size());
+    }
+
+    @Test
+    void testCloseWritesFinalSnapshot() {
+        InMemoryStore store = new InMemoryStore();
+        MatchEngine engine = new MatchEngine();
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir.resolve("journal"), 4096, FsyncPolicy.NONE, 0)) {
+            journal.open(0, e -> { });
+            submit(store, engine, journal, order(store, "BTC", 100.00, 1.00, OrderDirection.BUY));
+            snapshotService(engine, store, journal).close();
+
+            assertTrue(snapshotService(new MatchEngine(), new InMemoryStore(), journal).latest().isPresent());
+        }
+    }
+
+    @Test
+    void testSnapshotsRetireTheJournalTheOldestKeptOneCovers() throws Exception {
+        InMemoryStore store = new InMemoryStore();
+        MatchEngine engine = new MatchEngine();
+        Path journalDir = dir.resolve("journal");
+        try (MappedOrderJournal journal = new MappedOrderJournal(journalDir, 256, FsyncPolicy.NONE, 0)) {
+            journal.open(0, e -> { });
+            SnapshotService snapshots = snapshotService(engine, store, journal);
+            for (int i = 0; i < 8; i++) {
+                submit(store, engine, journal, order(store, "BTC", 100.00 + i, 1.00, OrderDirection.SELL));
+            }
+            snapshots.takeSnapshot();
+            long segmentsBefore = fileCount(journalDir);
+            for (int i = 0; i < 8; i++) {
+                submit(store, engine, journal, order(store, "BTC", 90.00 - i, 1.00, OrderDirection.BUY));
+            }
+            snapshots.takeSnapshot();
+
+            // the segments the first snapshot covers are gone, the second snapshot's tail is kept
+            assertEquals(segmentsBefore, fileCount(journalDir));
+            submit(store, engine, journal, order(store, "BTC", 200.00, 1.00, OrderDirection.BUY));
+        }
+
+        InMemoryStore restoredStore = new InMemoryStore();
+        MatchEngine restoredEngine = new MatchEngine();
+        try (MappedOrderJournal journal = new MappedOrderJournal(journalDir, 256, FsyncPolicy.NONE, 0)) {
+            new RecoveryService(restoredStore, restoredEngine, journal,
+                    snapshotService(restoredEngine, restoredStore, journal)).recover();
+        }
+        assertEquals(engine.restingOrders("BTC").size(), restoredEngine.restingOrders("BTC").size());
+        assertEquals(store.lastOrderId() + 1, restoredStore.nextOrderId());
+    }
+
+    private static long fileCount(Path dir) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+}
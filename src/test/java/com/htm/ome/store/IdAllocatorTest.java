@@ -0,0 +1,89 @@
+package com.htm.ome.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdAllocatorTest {
+
+    @Test
+    void testEachAssetTakesIdsFromItsOwnBlocks() {
+        IdAllocator ids = new IdAllocator(100, 4);
+
+        assertEquals(List.of(100L, 101L), List.of(ids.next(0), ids.next(0)));
+        assertEquals(104L, ids.next(1));
+        assertEquals(List.of(102L, 103L, 108L), List.of(ids.next(0), ids.next(0), ids.next(0)));
+        assertTrue(ids.isBlockStart(108));
+        assertFalse(ids.isBlockStart(109));
+        assertEquals(111L, ids.last());
+    }
+
+    @Test
+    void testIdsStayUniqueAcrossConcurrentAssets() throws Exception {
+        IdAllocator ids = new IdAllocator(0, 16);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<long[]>> perAsset = IntStream.range(0, 4)
+                    .mapToObj(asset -> pool.submit(() -> {
+                        long[] taken = new long[10_000];
+                        for (int i = 0; i < taken.length; i++) {
+                            taken[i] = ids.next(asset);
+                        }
+                        return taken;
+                    }))
+                    .toList();
+            Set<Long> seen = new HashSet<>();
+            for (Future<long[]> future : perAsset) {
+                long[] taken = future.get();
+                for (int i = 0; i < taken.length; i++) {
+                    assertTrue(seen.add(taken[i]));
+                    assertTrue(i == 0 || taken[i] > taken[i - 1]);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testRestoredLeaseContinuesItsBlockAndNewBlocksComeAfterIt() {
+        IdAllocator ids = new IdAllocator(0, 10);
+        ids.restoreLease(0, 23);
+
+        assertEquals(23L, ids.cursor(0));
+        assertEquals(23L, ids.next(0));
+        assertEquals(30L, ids.next(1));
+        ids.restore(57);
+        assertEquals(60L, ids.next(2));
+        assertEquals(-1L, new IdAllocator(0, 10).cursor(0));
+    }
+
+    @Test
+    void testReservedRunIsUsedOnlyOnceInstalledAndTrimmedToOneBlock() {
+        IdAllocator ids = new IdAllocator(0, 4);
+        assertEquals(0L, ids.next(0));
+
+        assertEquals(0, ids.blocksNeeded(0, 3));
+        assertEquals(2, ids.blocksNeeded(0, 5));
+        long first = ids.leaseBlocks(2);
+        assertEquals(4L, first);
+        // not installed yet: the asset keeps taking ids from its current block
+        assertEquals(1L, ids.next(0));
+
+        ids.restoreLease(0, first, 2);
+        List<Long> taken = IntStream.range(0, 5).mapToObj(i -> ids.next(0)).toList();
+        assertEquals(List.of(4L, 5L, 6L, 7L, 8L), taken);
+
+        ids.trim(0);
+        assertEquals(9L, ids.cursor(0));
+        assertEquals(List.of(9L, 10L, 11L, 12L), IntStream.range(0, 4).mapToObj(i -> ids.next(0)).toList());
+    }
+}
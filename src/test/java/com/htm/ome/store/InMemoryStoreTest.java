@@ -0,0 +1,195 @@
+package com.htm.ome.store;
+
+import com.htm.ome.archive.FileOrderArchive;
+import com.htm.ome.archive.OrderArchive;
+import com.htm.ome.core.AssetRegistry;
+import com.htm.ome.core.MatchEngine;
+import com.htm.ome.core.OrderBookFactory;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.model.Order;
+import com.htm.ome.model.TradeModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryStoreTest {
+
+    private InMemoryStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryStore();
+    }
+
+    private TradeModel trade(long buyOrderId, long sellOrderId) {
+        return TradeModel.builder()
+                .id(store.nextTradeId())
+                .buyOrderId(buyOrderId)
+                .sellOrderId(sellOrderId)
+                .price(100.0)
+                .amount(1.0)
+                .build();
+    }
+
+    @Test
+    void testTradesForOrderReturnsOnlyThatOrdersFillsInOrder() {
+        TradeModel first = trade(1L, 2L);
+        TradeModel other = trade(3L, 4L);
+        TradeModel second = trade(5L, 2L);
+        store.saveTrade(first);
+        store.saveTrade(other);
+        store.saveTrade(second);
+
+        List<TradeModel> trades = store.tradesForOrder(2L);
+
+        assertEquals(List.of(first, second), trades);
+        assertEquals(List.of(first), store.tradesForOrder(1L));
+        assertTrue(store.tradesForOrder(99L).isEmpty());
+    }
+
+    @Test
+    void testTradeIndexGrowsPastInitialCapacity() {
+        for (int i = 0; i < 100; i++) {
+            store.saveTrade(trade(1L, 1000L + i));
+        }
+
+        assertEquals(100, store.tradesForOrder(1L).size());
+        assertEquals(1, store.tradesForOrder(1050L).size());
+    }
+
+    @Test
+    void testArchivedOrdersFallBackToTheArchive(@TempDir Path dir) {
+        try (FileOrderArchive archive = new FileOrderArchive(dir, 16)) {
+            InMemoryStore archiving = new InMemoryStore(archive);
+            Order sell = order(archiving, OrderStatus.FILLED);
+            Order buy = order(archiving, OrderStatus.PARTIALLY_FILLED);
+            TradeModel trade = TradeModel.builder()
+                    .id(archiving.nextTradeId())
+                    .buyOrderId(buy.getId())
+                    .sellOrderId(sell.getId())
+                    .price(100.0)
+                    .amount(1.0)
+                    .build();
+            archiving.saveTrade(trade);
+
+            archiving.archive(List.of(sell));
+
+            assertEquals(1, archiving.orderCount());
+            assertEquals(sell.getId(), archiving.getOrder(sell.getId()).getId());
+            assertEquals(OrderStatus.FILLED, archiving.getOrder(sell.getId()).getStatus());
+            assertEquals(List.of(trade.getId()), archiving.tradesForOrder(sell.getId()).stream().map(TradeModel::getId).toList());
+            // the resting counterparty still needs the trade in memory
+            assertEquals(List.of(trade), archiving.tradesForOrder(buy.getId()));
+            assertEquals(1, archiving.tradeCount());
+
+            buy.setStatus(OrderStatus.FILLED);
+            archiving.archive(List.of(buy));
+
+            assertEquals(0, archiving.orderCount());
+            assertEquals(0, archiving.tradeCount());
+            assertEquals(1, archiving.tradesForOrder(buy.getId()).size());
+            assertNull(archiving.getOrder(99L));
+        }
+    }
+
+    @Test
+    void testFindOrdersFollowsEngineStatusChanges(@TempDir Path dir) {
+        try (FileOrderArchive archive = new FileOrderArchive(dir, 16)) {
+            AssetRegistry registry = new AssetRegistry();
+            OrderIndex index = new OrderIndex(registry);
+            InMemoryStore indexed = new InMemoryStore(archive, new HeapOrderRecords(), index, 1024);
+            MatchEngine engine = new MatchEngine(new OrderBookFactory(Set.of(), 0), registry, index);
+            Order firstSell = resting(indexed, engine, "BTC", OrderDirection.SELL);
+            Order secondSell = resting(indexed, engine, "BTC", OrderDirection.SELL);
+            Order ethSell = resting(indexed, engine, "ETH", OrderDirection.SELL);
+            Order buy = Order.builder()
+                    .id(indexed.nextOrderId())
+                    .asset("BTC")
+                    .price(100.0)
+                    .amount(1.0)
+                    .pendingAmount(1.0)
+                    .direction(OrderDirection.BUY)
+                    .status(OrderStatus.OPEN)
+                    .build();
+            indexed.saveOrder(buy);
+
+            engine.match(buy);
+
+            assertEquals(List.of(secondSell), indexed.findOrders("BTC", OrderStatus.OPEN, null, -1, 10));
+            assertEquals(List.of(firstSell, buy), indexed.findOrders("BTC", OrderStatus.FILLED, null, -1, 10));
+            assertEquals(List.of(firstSell, secondSell, ethSell), indexed.findOrders(null, null, OrderDirection.SELL, -1, 10));
+            assertEquals(List.of(firstSell, secondSell), indexed.findOrders(null, null, null, -1, 2));
+            assertEquals(List.of(ethSell, buy), indexed.findOrders(null, null, null, secondSell.getId(), 2));
+
+            indexed.archive(List.of(firstSell));
+
+            assertEquals(List.of(buy), indexed.findOrders("BTC", OrderStatus.FILLED, null, -1, 10));
+        }
+    }
+
+    @Test
+    void testOffHeapCancelMovesThePartiallyFilledEntry() {
+        AssetRegistry registry = new AssetRegistry();
+        OrderIndex index = new OrderIndex(registry);
+        InMemoryStore offHeap = new InMemoryStore(OrderArchive.disabled(), new OffHeapOrderRecords(16), index, 1024);
+        MatchEngine engine = new MatchEngine(new OrderBookFactory(Set.of(), 0), registry, index);
+        Order sell = resting(offHeap, engine, "BTC", OrderDirection.SELL);
+        Order staleCopy = offHeap.getOrder(sell.getId());
+        Order buy = Order.builder()
+                .id(offHeap.nextOrderId())
+                .asset("BTC")
+                .price(100.0)
+                .amount(0.4)
+                .pendingAmount(0.4)
+                .direction(OrderDirection.BUY)
+                .status(OrderStatus.OPEN)
+                .build();
+        offHeap.saveOrder(buy);
+        offHeap.applyFills(buy.getId(), engine.matchFills(buy));
+        offHeap.updateOrder(buy);
+
+        offHeap.updateOrder(engine.cancel(staleCopy));
+
+        assertTrue(offHeap.findOrders("BTC", OrderStatus.PARTIALLY_FILLED, null, -1, 10).isEmpty());
+        assertFalse(index.ids("BTC", OrderStatus.PARTIALLY_FILLED, -1).hasNext());
+        List<Order> cancelled = offHeap.findOrders("BTC", OrderStatus.CANCELLED, null, -1, 10);
+        assertEquals(List.of(sell.getId()), cancelled.stream().map(Order::getId).toList());
+        assertEquals(0.6, cancelled.getFirst().getPendingAmount(), 1e-9);
+    }
+
+    private static Order resting(InMemoryStore target, MatchEngine engine, String asset, OrderDirection direction) {
+        Order order = Order.builder()
+                .id(target.nextOrderId())
+                .asset(asset)
+                .price(100.0)
+                .amount(1.0)
+                .pendingAmount(1.0)
+                .direction(direction)
+                .status(OrderStatus.OPEN)
+                .build();
+        target.saveOrder(order);
+        engine.addOrderToBook(order);
+        return order;
+    }
+
+    private static Order order(InMemoryStore target, OrderStatus status) {
+        Order order = Order.builder()
+                .id(target.nextOrderId())
+                .asset("BTC")
+                .price(100.0)
+                .amount(1.0)
+                .pendingAmount(0.0)
+                .direction(OrderDirection.SELL)
+                .status(status)
+                .build();
+        target.saveOrder(order);
+        return order;
+    }
+}
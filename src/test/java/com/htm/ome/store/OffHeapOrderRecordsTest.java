@@ -0,0 +1,103 @@
+package com.htm.ome.store;
+
+import com.htm.ome.core.FillBuffer;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapOrderRecordsTest {
+
+    private static Order order(long id, String asset, OrderDirection direction) {
+        return Order.builder()
+                .id(id)
+                .asset(asset)
+                .price(100.25)
+                .amount(2.0)
+                .pendingAmount(2.0)
+                .direction(direction)
+                .status(OrderStatus.OPEN)
+                .createdAt(OffsetDateTime.of(2025, 1, 2, 3, 4, 5, 6, ZoneOffset.UTC))
+                .modifiedAtNanos(123L)
+                .build();
+    }
+
+    @Test
+    void testInsertedOrderReadsBackAsEqualCopy() {
+        OffHeapOrderRecords records = new OffHeapOrderRecords(64);
+        Order btc = order(1, "BTC", OrderDirection.BUY);
+        Order eth = order(2, "ETH", OrderDirection.SELL);
+        records.insert(btc);
+        records.insert(eth);
+
+        assertEquals(btc, records.get(1));
+        assertNotSame(btc, records.get(1));
+        assertEquals(eth, records.get(2));
+        assertNull(records.get(3));
+        assertTrue(records.contains(2));
+        assertEquals(2, records.size());
+    }
+
+    @Test
+    void testUpdateAndApplyFillsWriteBackState() {
+        OffHeapOrderRecords records = new OffHeapOrderRecords(64);
+        Order maker = order(1, "BTC", OrderDirection.SELL);
+        Order otherMaker = order(2, "BTC", OrderDirection.SELL);
+        Order taker = order(3, "BTC", OrderDirection.BUY);
+        records.insert(maker);
+        records.insert(otherMaker);
+        records.insert(taker);
+        FillBuffer fills = new FillBuffer(2);
+        fills.add(3, 1, maker.getPriceTicks(), maker.getAmountLots(), 1_000L);
+        fills.add(3, 2, maker.getPriceTicks(), maker.getAmountLots() / 2, 1_000L);
+
+        records.applyFills(3, fills);
+        taker.setPendingLots(0);
+        taker.setStatus(OrderStatus.FILLED);
+        taker.setModifiedAtNanos(2_000L);
+        records.update(taker);
+
+        assertEquals(OrderStatus.FILLED, records.get(1).getStatus());
+        assertEquals(0, records.get(1).getPendingLots());
+        assertEquals(1_000L, records.get(1).getModifiedAtNanos());
+        assertEquals(OrderStatus.PARTIALLY_FILLED, records.get(2).getStatus());
+        assertEquals(maker.getAmountLots() / 2, records.get(2).getPendingLots());
+        assertEquals(taker, records.get(3));
+    }
+
+    @Test
+    void testRemovedSlotsAreReusedAndScannedTerminalOrdersSkipThem() {
+        OffHeapOrderRecords records = new OffHeapOrderRecords(64);
+        for (long id = 0; id < 200; id++) {
+            Order order = order(id, "BTC", OrderDirection.BUY);
+            order.setStatus(id % 2 == 0 ? OrderStatus.FILLED : OrderStatus.OPEN);
+            order.setModifiedAtNanos(id);
+            records.insert(order);
+        }
+        long bytes = records.offHeapBytes();
+        assertEquals(4 * 64 * OffHeapOrderRecords.SLOT_SIZE, bytes);
+
+        for (long id = 0; id < 100; id++) {
+            records.remove(id);
+        }
+        for (long id = 200; id < 300; id++) {
+            records.insert(order(id, "ETH", OrderDirection.SELL));
+        }
+
+        assertEquals(200, records.size());
+        assertEquals(bytes, records.offHeapBytes());
+        assertNull(records.get(50));
+        assertEquals("ETH", records.get(250).getAsset());
+        Map<Long, Long> terminal = new HashMap<>();
+        records.forEachTerminal(terminal::put);
+        assertEquals(50, terminal.size());
+        assertEquals(150L, terminal.get(150L));
+    }
+}
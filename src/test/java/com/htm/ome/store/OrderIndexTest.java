@@ -0,0 +1,103 @@
+package com.htm.ome.store;
+
+import com.htm.ome.core.AssetRegistry;
+import com.htm.ome.enums.OrderDirection;
+import com.htm.ome.enums.OrderStatus;
+import com.htm.ome.model.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderIndexTest {
+
+    private OrderIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new OrderIndex(new AssetRegistry());
+    }
+
+    @Test
+    void testStatusChangesMoveOrdersBetweenBuckets() {
+        Order first = order(1L, "BTC", OrderStatus.OPEN);
+        Order second = order(2L, "BTC", OrderStatus.OPEN);
+        index.add(first);
+        index.add(second);
+
+        first.setStatus(OrderStatus.FILLED);
+        index.onStatusChange(first, OrderStatus.OPEN);
+
+        assertEquals(List.of(2L), ids(index.ids("BTC", OrderStatus.OPEN, -1)));
+        assertEquals(List.of(1L), ids(index.ids("BTC", OrderStatus.FILLED, -1)));
+
+        index.remove(first);
+
+        assertTrue(ids(index.ids("BTC", OrderStatus.FILLED, -1)).isEmpty());
+        assertEquals(List.of(2L), ids(index.ids(null, null, -1)));
+    }
+
+    @Test
+    void testBucketsAreMergedInIdOrderAfterTheCursor() {
+        index.add(order(1L, "BTC", OrderStatus.OPEN));
+        index.add(order(2L, "ETH", OrderStatus.OPEN));
+        index.add(order(3L, "BTC", OrderStatus.FILLED));
+        index.add(order(4L, "ETH", OrderStatus.CANCELLED));
+        index.add(order(5L, "BTC", OrderStatus.PARTIALLY_FILLED));
+
+        assertEquals(List.of(1L, 3L, 5L), ids(index.ids("BTC", null, -1)));
+        assertEquals(List.of(1L, 2L), ids(index.ids(null, OrderStatus.OPEN, -1)));
+        assertEquals(List.of(3L, 4L, 5L), ids(index.ids(null, null, 2L)));
+        assertEquals(List.of(5L), ids(index.ids("BTC", null, 3L)));
+        assertTrue(ids(index.ids("XRP", null, -1)).isEmpty());
+    }
+
+    @Test
+    void testOrderSeenUnderTwoStatusesMidMoveIsListedOnce() {
+        Order order = order(1L, "BTC", OrderStatus.OPEN);
+        index.add(order);
+        index.add(order(2L, "BTC", OrderStatus.OPEN));
+
+        // a move caught between adding to the new bucket and leaving the old one
+        order.setStatus(OrderStatus.PARTIALLY_FILLED);
+        index.add(order);
+
+        assertEquals(List.of(1L, 2L), ids(index.ids("BTC", null, -1)));
+    }
+
+    @Test
+    void testRemoveClearsAnEntryLeftUnderAnotherStatus() {
+        Order order = order(1L, "BTC", OrderStatus.PARTIALLY_FILLED);
+        index.add(order);
+
+        // a move reported with the wrong previous status leaves the old entry behind
+        order.setStatus(OrderStatus.CANCELLED);
+        index.onStatusChange(order, OrderStatus.OPEN);
+        index.remove(order);
+
+        assertTrue(ids(index.ids("BTC", null, -1)).isEmpty());
+        assertTrue(ids(index.ids(null, null, -1)).isEmpty());
+    }
+
+    private static Order order(long id, String asset, OrderStatus status) {
+        return Order.builder()
+                .id(id)
+                .asset(asset)
+                .price(100.0)
+                .amount(1.0)
+                .pendingAmount(1.0)
+                .direction(OrderDirection.BUY)
+                .status(status)
+                .build();
+    }
+
+    private static List<Long> ids(Iterator<Long> iterator) {
+        List<Long> ids = new ArrayList<>();
+        iterator.forEachRemaining(ids::add);
+        return ids;
+    }
+}
@@ -0,0 +1,77 @@
+package com.htm.ome.store;
+
+import com.htm.ome.model.TradeModel;
+import com.htm.ome.util.EpochNanos;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeLogTest {
+
+    private static TradeLog log(int trades) {
+        TradeLog log = new TradeLog(16);
+        for (int i = 0; i < trades; i++) {
+            assertEquals(i, log.append(1000 + i, i, i + 1, 500, 7, 1_000_000_000L + i));
+        }
+        return log;
+    }
+
+    @Test
+    void testAppendedTradesReadBackByPosition() {
+        TradeLog log = log(40);
+
+        assertEquals(40, log.size());
+        assertEquals(40, log.liveCount());
+        assertEquals(1033, log.tradeId(33));
+        assertEquals(33, log.buyOrderId(33));
+        assertEquals(34, log.sellOrderId(33));
+        TradeModel trade = log.toTradeModel(17);
+        assertEquals(1017L, trade.getId());
+        assertEquals(500, trade.getPriceTicks());
+        assertEquals(7, trade.getAmountLots());
+        assertEquals(EpochNanos.toOffsetDateTime(1_000_000_017L), trade.getCreatedAt());
+    }
+
+    @Test
+    void testChunkIsDroppedOnceAllItsTradesAreReleased() {
+        TradeLog log = log(40);
+        for (long position = 0; position < 16; position++) {
+            log.release(position);
+        }
+        log.release(20);
+        for (long position = 32; position < 40; position++) {
+            log.release(position);
+        }
+
+        assertEquals(15, log.liveCount());
+        assertThrows(IllegalStateException.class, () -> log.tradeId(3));
+        assertEquals(1020, log.tradeId(20));
+        assertEquals(1035, log.tradeId(35));
+    }
+
+    @Test
+    void testCursorScansRangeAndSkipsDroppedChunks() {
+        TradeLog log = log(40);
+        for (long position = 16; position < 32; position++) {
+            log.release(position);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        TradeLog.Cursor cursor = log.cursor(10);
+        log.append(9999, 1, 2, 3, 4, 5);
+        while (cursor.next()) {
+            assertEquals(cursor.position() + 1000, cursor.tradeId());
+            assertEquals(cursor.position(), cursor.buyOrderId());
+            ids.add(cursor.tradeId());
+        }
+
+        assertEquals(6 + 8, ids.size());
+        assertEquals(1010L, ids.getFirst());
+        assertEquals(1015L, ids.get(5));
+        assertEquals(1032L, ids.get(6));
+        assertEquals(1039L, ids.getLast());
+    }
+}
@@ -0,0 +1,53 @@
+package com.htm.ome.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntHashMapTest {
+
+    @Test
+    void testPutGetRemove() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        map.put(7L, 1);
+        map.put(-3L, 2);
+        map.put(7L, 3);
+
+        assertEquals(3, map.get(7L, -1));
+        assertEquals(2, map.get(-3L, -1));
+        assertEquals(-1, map.get(8L, -1));
+        assertEquals(2, map.size());
+
+        assertEquals(3, map.remove(7L, -1));
+        assertEquals(-1, map.remove(7L, -1));
+        assertEquals(-1, map.get(7L, -1));
+        assertEquals(1, map.size());
+        assertThrows(IllegalArgumentException.class, () -> map.put(Long.MIN_VALUE, 0));
+    }
+
+    @Test
+    void testMatchesHashMapUnderRandomChurn() {
+        LongIntHashMap map = new LongIntHashMap(8);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? -1 : removed, map.remove(key, -1));
+            } else {
+                expected.put(key, i);
+                map.put(key, i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertEquals(expected.getOrDefault(key, -1), map.get(key, -1));
+        }
+    }
+}